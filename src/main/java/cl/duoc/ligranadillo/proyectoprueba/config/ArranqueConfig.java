@@ -0,0 +1,21 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.ProyectopruebaApplication;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ArranqueConfig {
+
+    /**
+     * Con {@code spring.main.lazy-initialization} los beans de la aplicación se siguen creando al
+     * iniciar: los controladores arrastran a los servicios, repositorios, el EntityManagerFactory y
+     * el pool de conexiones, de modo que la primera solicitud no paga su inicialización.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter beansDeLaAplicacion() {
+        String paquete = ProyectopruebaApplication.class.getPackageName() + ".";
+        return (nombre, definicion, tipo) -> tipo.getName().startsWith(paquete);
+    }
+}
@@ -0,0 +1,26 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import cl.duoc.ligranadillo.proyectoprueba.service.CacheLocal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheLocal<Evaluacion> cacheEvaluaciones(@Value("${cache.evaluaciones.tamano-maximo:1000}") int tamanoMaximo,
+                                                    @Value("${cache.evaluaciones.ttl:5m}") Duration ttl) {
+        return new CacheLocal<>("evaluaciones", tamanoMaximo, ttl);
+    }
+
+    @Bean
+    public CacheLocal<User> cacheUsers(@Value("${cache.users.tamano-maximo:1000}") int tamanoMaximo,
+                                       @Value("${cache.users.ttl:1m}") Duration ttl) {
+        return new CacheLocal<>("users", tamanoMaximo, ttl);
+    }
+}
@@ -0,0 +1,31 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo de una solicitud HTTP. Se registra
+ * con {@code hibernate.session_factory.statement_inspector}; fuera de una solicitud no cuenta nada.
+ */
+public class ContadorSentencias implements StatementInspector {
+
+    private static final ThreadLocal<int[]> SENTENCIAS = new ThreadLocal<>();
+
+    static void iniciar() {
+        SENTENCIAS.set(new int[1]);
+    }
+
+    static int terminar() {
+        int[] sentencias = SENTENCIAS.get();
+        SENTENCIAS.remove();
+        return sentencias == null ? 0 : sentencias[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] sentencias = SENTENCIAS.get();
+        if (sentencias != null) {
+            sentencias[0]++;
+        }
+        return sql;
+    }
+}
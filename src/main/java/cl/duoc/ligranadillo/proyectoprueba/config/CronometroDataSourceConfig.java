@@ -0,0 +1,31 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Reemplaza {@code spring.jpa.show-sql}: el DataSource principal se envuelve en un
+ * {@link DataSourceCronometrado}. Con réplica solo se envuelve el DataSource enrutado y no cada
+ * pool, para medir cada sentencia una vez.
+ */
+@Configuration
+public class CronometroDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor cronometrarDataSource(ObjectProvider<RegistroSentencias> registro) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (bean instanceof DataSource dataSource && nombre.equals("dataSource")
+                        && !(bean instanceof DataSourceCronometrado)) {
+                    return new DataSourceCronometrado(dataSource, registro.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
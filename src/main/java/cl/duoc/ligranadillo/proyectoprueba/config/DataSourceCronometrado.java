@@ -0,0 +1,86 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Envuelve las conexiones y sentencias del DataSource para medir cuánto tarda cada ejecución
+ * ({@code execute*}) y entregarlo a {@link RegistroSentencias}. Solo se mide la ejecución en el
+ * servidor, no la lectura posterior del ResultSet.
+ */
+public class DataSourceCronometrado extends DelegatingDataSource {
+
+    private final RegistroSentencias registro;
+
+    public DataSourceCronometrado(DataSource dataSource, RegistroSentencias registro) {
+        super(dataSource);
+        this.registro = registro;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conexion(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conexion(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection conexion(Connection real) {
+        return envolver(Connection.class, real, (proxy, metodo, argumentos) -> {
+            Object resultado = invocar(real, metodo, argumentos, proxy);
+            return switch (metodo.getName()) {
+                case "prepareStatement", "prepareCall" ->
+                        sentencia((Statement) resultado, metodo.getReturnType(), (String) argumentos[0]);
+                case "createStatement" -> sentencia((Statement) resultado, Statement.class, null);
+                default -> resultado;
+            };
+        });
+    }
+
+    private Object sentencia(Statement real, Class<?> tipo, String sqlPreparado) {
+        return envolver(tipo, real, (proxy, metodo, argumentos) -> {
+            if (!metodo.getName().startsWith("execute")) {
+                return invocar(real, metodo, argumentos, proxy);
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocar(real, metodo, argumentos, proxy);
+            } finally {
+                String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto
+                        ? texto : sqlPreparado;
+                if (sql != null) {
+                    registro.registrar(sql, System.nanoTime() - inicio);
+                }
+            }
+        });
+    }
+
+    private static Object invocar(Object real, Method metodo, Object[] argumentos, Object proxy) throws Throwable {
+        // Spring compara conexiones por igualdad; el proxy solo es igual a sí mismo
+        if (metodo.getName().equals("equals")) {
+            return proxy == argumentos[0];
+        }
+        if (metodo.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return metodo.invoke(real, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T envolver(Class<T> tipo, Object real, InvocationHandler manejador) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, manejador));
+    }
+}
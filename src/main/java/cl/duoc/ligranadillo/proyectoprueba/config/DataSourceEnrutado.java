@@ -0,0 +1,31 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Envía a la réplica las conexiones de transacciones {@code @Transactional(readOnly = true)},
+ * salvo que la solicitud deba leer sus propias escrituras recientes.
+ */
+class DataSourceEnrutado extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIA, REPLICA }
+
+    DataSourceEnrutado(DataSource primaria, DataSource replica) {
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !LecturaPropiasEscriturasFilter.leerDePrimaria()) {
+            return Destino.REPLICA;
+        }
+        return Destino.PRIMARIA;
+    }
+}
@@ -0,0 +1,5 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+public record EstadisticasSentencia(String forma, long ejecuciones, double tiempoTotalMs,
+                                    double tiempoPromedioMs, double tiempoMaximoMs) {
+}
@@ -0,0 +1,67 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Las entidades pasaron de IDENTITY a un generador de tabla con asignación por bloques.
+ * Antes de atender solicitudes se asegura que el siguiente bloque de cada entidad parta
+ * sobre el mayor id existente, para no colisionar con las filas creadas por AUTO_INCREMENT.
+ * Se ejecuta al iniciar el ciclo de vida del contexto, antes que el servidor web, y no al crear
+ * los beans: así las ejecuciones de entrenamiento del archivo CDS ({@code spring.context.exit=onRefresh})
+ * terminan sin conectarse a la base de datos.
+ */
+@Component
+public class InicializadorIdGenerador implements SmartLifecycle {
+
+    static final int TAMANO_BLOQUE = 50;
+
+    private static final List<String> TABLAS = List.of("curso", "contenido", "evaluacion", "user");
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean ajustado;
+
+    public InicializadorIdGenerador(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void start() {
+        TABLAS.forEach(this::ajustar);
+        ajustado = true;
+    }
+
+    @Override
+    public void stop() {
+        ajustado = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ajustado;
+    }
+
+    // El servidor web arranca en una fase cercana a Integer.MAX_VALUE
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    void ajustar(String tabla) {
+        Long maximo = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + tabla, Long.class);
+        long minimo = maximo + TAMANO_BLOQUE;
+        int actualizadas = jdbcTemplate.update(
+                "update id_generador set siguiente_valor = ? where entidad = ? and siguiente_valor < ?",
+                minimo, tabla, minimo);
+        if (actualizadas == 0) {
+            Integer existentes = jdbcTemplate.queryForObject(
+                    "select count(*) from id_generador where entidad = ?", Integer.class, tabla);
+            if (existentes == 0) {
+                jdbcTemplate.update("insert into id_generador (entidad, siguiente_valor) values (?, ?)", tabla, minimo);
+            }
+        }
+    }
+}
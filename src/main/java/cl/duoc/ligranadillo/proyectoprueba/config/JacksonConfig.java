@@ -0,0 +1,19 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Reemplaza el acceso por reflexión a getters y constructores por lambdas generadas en
+     * tiempo de ejecución, que el JIT puede optimizar como llamadas directas.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,88 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Después de una escritura el cliente recibe la cookie {@value #COOKIE} con el instante hasta el
+ * que sus lecturas deben ir a la primaria ({@code replicas.ventana-escrituras}), para que vea
+ * sus propios cambios aunque la réplica todavía no los tenga. Los {@code POST} de
+ * {@code replicas.lecturas-post} (el login) solo leen: no reciben la cookie ni van a la primaria.
+ */
+@Component
+@ConditionalOnProperty("spring.datasource.replica.jdbc-url")
+public class LecturaPropiasEscriturasFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "escritura-reciente";
+
+    private static final ThreadLocal<Boolean> PRIMARIA = new ThreadLocal<>();
+
+    private final Duration ventana;
+    private final Set<String> lecturasPost;
+
+    public LecturaPropiasEscriturasFilter(@Value("${replicas.ventana-escrituras:5s}") Duration ventana,
+                                          @Value("${replicas.lecturas-post:/api/v2/users/login}") Set<String> lecturasPost) {
+        this.ventana = ventana;
+        this.lecturasPost = lecturasPost;
+    }
+
+    static boolean leerDePrimaria() {
+        return Boolean.TRUE.equals(PRIMARIA.get());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long ahora = System.currentTimeMillis();
+        boolean escritura = !esLectura(request);
+        if (escritura) {
+            // Se agrega antes de escribir el cuerpo, cuando todavía se pueden enviar cabeceras
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(ahora + ventana.toMillis()));
+            cookie.setMaxAge((int) Math.max(1, ventana.toSeconds()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        PRIMARIA.set(escritura || escrituraReciente(request, ahora));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PRIMARIA.remove();
+        }
+    }
+
+    private boolean esLectura(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        if ("POST".equals(metodo)) {
+            return lecturasPost.contains(request.getRequestURI().substring(request.getContextPath().length()));
+        }
+        return "GET".equals(metodo) || "HEAD".equals(metodo) || "OPTIONS".equals(metodo);
+    }
+
+    private static boolean escrituraReciente(HttpServletRequest request, long ahora) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > ahora;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,211 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Complementa {@code http.server.requests} (latencia por ruta) con el tamaño en bytes de cada
+ * solicitud y respuesta y la cantidad de sentencias SQL que ejecutó, etiquetados por método,
+ * ruta y estado. En las exportaciones NDJSON se registra cuando termina la respuesta asíncrona.
+ */
+@Component
+public class MetricasSolicitudFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    // Sin actuator en el contexto (por ejemplo en @WebMvcTest) las métricas van al registro global
+    @Autowired
+    public MetricasSolicitudFilter(ObjectProvider<MeterRegistry> registry) {
+        this(registry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    MetricasSolicitudFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SolicitudContada solicitud = new SolicitudContada(request);
+        RespuestaContada respuesta = new RespuestaContada(response);
+        ContadorSentencias.iniciar();
+        try {
+            chain.doFilter(solicitud, respuesta);
+        } finally {
+            int sentencias = ContadorSentencias.terminar();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        registrar(request, response, solicitud, respuesta, sentencias);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                registrar(request, response, solicitud, respuesta, sentencias);
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response,
+                           SolicitudContada solicitud, RespuestaContada respuesta, int sentencias) {
+        Object ruta = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(),
+                "uri", ruta == null ? "UNKNOWN" : ruta.toString(),
+                "status", String.valueOf(response.getStatus()));
+        DistributionSummary.builder("http.server.request.size").baseUnit("bytes").tags(tags)
+                .description("Bytes del cuerpo de la solicitud").register(registry)
+                .record(solicitud.bytes());
+        DistributionSummary.builder("http.server.response.size").baseUnit("bytes").tags(tags)
+                .description("Bytes del cuerpo de la respuesta").register(registry)
+                .record(respuesta.bytes());
+        DistributionSummary.builder("http.server.request.statements").tags(tags)
+                .description("Sentencias SQL preparadas por Hibernate durante la solicitud").register(registry)
+                .record(sentencias);
+    }
+
+    private static final class SolicitudContada extends HttpServletRequestWrapper {
+
+        private ServletInputStream entrada;
+        private long leidos;
+
+        SolicitudContada(HttpServletRequest request) {
+            super(request);
+        }
+
+        // Si el cuerpo no se leyó (por ejemplo, una solicitud rechazada antes) se usa Content-Length
+        long bytes() {
+            return leidos > 0 ? leidos : Math.max(getContentLengthLong(), 0);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (entrada == null) {
+                ServletInputStream original = super.getInputStream();
+                entrada = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        int leido = original.read();
+                        if (leido >= 0) {
+                            leidos++;
+                        }
+                        return leido;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int cantidad = original.read(b, off, len);
+                        if (cantidad > 0) {
+                            leidos += cantidad;
+                        }
+                        return cantidad;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return original.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return original.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        original.setReadListener(readListener);
+                    }
+                };
+            }
+            return entrada;
+        }
+    }
+
+    // Solo cuenta lo escrito con getOutputStream, que es lo que usan los conversores de Spring MVC
+    private static final class RespuestaContada extends HttpServletResponseWrapper {
+
+        private ServletOutputStream salida;
+        private long escritos;
+
+        RespuestaContada(HttpServletResponse response) {
+            super(response);
+        }
+
+        long bytes() {
+            return escritos;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (salida == null) {
+                ServletOutputStream original = super.getOutputStream();
+                salida = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        original.write(b);
+                        escritos++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        original.write(b, off, len);
+                        escritos += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        original.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        original.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return original.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        original.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return salida;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Con la validación del esquema en segundo plano (perfil {@code produccion}) las migraciones no se
+ * ejecutan al crear el bean de Flyway sino al iniciar el ciclo de vida, antes que
+ * {@link InicializadorIdGenerador}. Así la ejecución de entrenamiento del archivo CDS sigue
+ * terminando sin conectarse a la base de datos.
+ */
+@Component
+@ConditionalOnProperty(name = "esquema.validacion", havingValue = "segundo-plano")
+public class MigracionesDiferidas implements FlywayMigrationStrategy, SmartLifecycle {
+
+    private final ObjectProvider<Flyway> flyway;
+    private volatile boolean migrado;
+
+    public MigracionesDiferidas(ObjectProvider<Flyway> flyway) {
+        this.flyway = flyway;
+    }
+
+    @Override
+    public void migrate(Flyway flyway) {
+        // Se ejecutan en start()
+    }
+
+    @Override
+    public void start() {
+        flyway.ifAvailable(Flyway::migrate);
+        migrado = true;
+    }
+
+    @Override
+    public void stop() {
+        migrado = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return migrado;
+    }
+
+    @Override
+    public int getPhase() {
+        return -1;
+    }
+}
@@ -0,0 +1,180 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Recibe el tiempo de cada sentencia SQL que mide {@link DataSourceCronometrado}. Acumula por forma
+ * de la sentencia (el SQL con los literales y las listas {@code IN} colapsados) la cantidad de
+ * ejecuciones, el tiempo total y el máximo, y registra en el log las que superan
+ * {@code sentencias.umbral-lentas} más una muestra de {@code sentencias.muestreo} del resto.
+ * El log se escribe desde un hilo propio: quien ejecuta la sentencia solo deja la entrada en un
+ * buffer circular acotado y, si está lleno, la descarta en vez de esperar.
+ */
+@Component
+public class RegistroSentencias {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroSentencias.class);
+
+    static final String OTRAS = "(otras)";
+
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final long umbralNanos;
+    private final double muestreo;
+    private final int maximoFormas;
+    private final BlockingQueue<Entrada> buffer;
+    private final Consumer<Entrada> salida;
+    private final Thread escritor;
+    private final LongAdder descartadas = new LongAdder();
+    private final Map<String, String> formas = new ConcurrentHashMap<>();
+    private final Map<String, Acumulado> acumulados = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RegistroSentencias(@Value("${sentencias.umbral-lentas:200ms}") Duration umbral,
+                              @Value("${sentencias.muestreo:0}") double muestreo,
+                              @Value("${sentencias.capacidad-registro:1024}") int capacidad,
+                              @Value("${sentencias.maximo-formas:500}") int maximoFormas) {
+        this(umbral, muestreo, capacidad, maximoFormas, RegistroSentencias::escribir);
+    }
+
+    RegistroSentencias(Duration umbral, double muestreo, int capacidad, int maximoFormas, Consumer<Entrada> salida) {
+        this.umbralNanos = umbral.toNanos();
+        this.muestreo = muestreo;
+        this.maximoFormas = maximoFormas;
+        this.buffer = new ArrayBlockingQueue<>(capacidad);
+        this.salida = salida;
+        this.escritor = Thread.ofPlatform().name("registro-sentencias").daemon().start(this::escribirPendientes);
+    }
+
+    public void registrar(String sql, long nanos) {
+        String forma = forma(sql);
+        acumulado(forma).sumar(nanos);
+        boolean lenta = nanos >= umbralNanos;
+        if (lenta || (muestreo > 0 && ThreadLocalRandom.current().nextDouble() < muestreo)) {
+            if (!buffer.offer(new Entrada(sql, nanos, lenta))) {
+                descartadas.increment();
+            }
+        }
+    }
+
+    public List<EstadisticasSentencia> estadisticas() {
+        return acumulados.entrySet().stream()
+                .map(entrada -> entrada.getValue().estadisticas(entrada.getKey()))
+                .sorted(Comparator.comparingDouble(EstadisticasSentencia::tiempoTotalMs).reversed())
+                .toList();
+    }
+
+    public void reiniciar() {
+        acumulados.clear();
+    }
+
+    @PreDestroy
+    public void detener() {
+        escritor.interrupt();
+    }
+
+    // Las sentencias de Hibernate se repiten, así que la forma de cada SQL se calcula una vez
+    String forma(String sql) {
+        String forma = formas.get(sql);
+        if (forma == null) {
+            forma = normalizar(sql);
+            if (formas.size() < maximoFormas) {
+                formas.put(sql, forma);
+            }
+        }
+        return forma;
+    }
+
+    private Acumulado acumulado(String forma) {
+        Acumulado acumulado = acumulados.get(forma);
+        if (acumulado != null) {
+            return acumulado;
+        }
+        if (acumulados.size() >= maximoFormas) {
+            forma = OTRAS;
+        }
+        return acumulados.computeIfAbsent(forma, f -> new Acumulado());
+    }
+
+    static String normalizar(String sql) {
+        String forma = TEXTO.matcher(sql).replaceAll("?");
+        forma = NUMERO.matcher(forma).replaceAll("?");
+        forma = LISTA.matcher(forma).replaceAll("in (?, ...)");
+        return ESPACIOS.matcher(forma).replaceAll(" ").trim();
+    }
+
+    private void escribirPendientes() {
+        List<Entrada> pendientes = new ArrayList<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                pendientes.add(buffer.take());
+                buffer.drainTo(pendientes);
+                pendientes.forEach(salida);
+                pendientes.clear();
+                long perdidas = descartadas.sumThenReset();
+                if (perdidas > 0) {
+                    log.warn("Se descartaron {} entradas del registro de sentencias con el buffer lleno", perdidas);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void escribir(Entrada entrada) {
+        if (entrada.lenta()) {
+            log.warn("Sentencia lenta ({} ms): {}", entrada.milisegundos(), entrada.sql());
+        } else {
+            log.info("Sentencia muestreada ({} ms): {}", entrada.milisegundos(), entrada.sql());
+        }
+    }
+
+    record Entrada(String sql, long nanos, boolean lenta) {
+
+        double milisegundos() {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+
+    private static class Acumulado {
+
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+        void sumar(long duracion) {
+            ejecuciones.increment();
+            nanos.add(duracion);
+            maximo.accumulate(duracion);
+        }
+
+        EstadisticasSentencia estadisticas(String forma) {
+            long cantidad = ejecuciones.sum();
+            long total = nanos.sum();
+            return new EstadisticasSentencia(forma, cantidad, total / 1e6,
+                    cantidad == 0 ? 0 : total / 1e6 / cantidad, maximo.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Con {@code spring.datasource.replica.jdbc-url} definido hay dos pools: la primaria
+ * ({@code spring.datasource.*}) y la réplica ({@code spring.datasource.replica.*}, propiedades de
+ * Hikari). Las transacciones de solo lectura se ejecutan en la réplica y todo lo demás en la primaria.
+ */
+@Configuration
+@ConditionalOnProperty("spring.datasource.replica.jdbc-url")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // La conexión física se pide con la primera sentencia, cuando la transacción ya marcó si es
+    // de solo lectura; al iniciarla todavía no se sabe
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSource primariaDataSource, DataSource replicaDataSource) {
+        return new LazyConnectionDataSourceProxy(new DataSourceEnrutado(primariaDataSource, replicaDataSource));
+    }
+}
@@ -0,0 +1,100 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.LoginResponse;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaContenido;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaCurso;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaEvaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaUsuario;
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escribe las respuestas con entidades en {@code application/x-protobuf} según el esquema
+ * {@code protobuf/api.proto}, usando el mismo ObjectMapper (y por lo tanto los mismos nombres de
+ * campo) que las respuestas JSON. Solo se usa para responder; las solicitudes siguen siendo JSON,
+ * CBOR o Smile.
+ */
+public class RespuestaProtobufConverter extends AbstractHttpMessageConverter<Respuesta> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    static final String ESQUEMA = "protobuf/api.proto";
+
+    private final Map<Class<?>, ObjectWriter> respuestas;
+    private final Map<Class<?>, ObjectWriter> paginas;
+
+    public RespuestaProtobufConverter(ObjectMapper protobufMapper) throws IOException {
+        super(PROTOBUF);
+        NativeProtobufSchema esquema;
+        try (InputStream entrada = RespuestaProtobufConverter.class.getClassLoader().getResourceAsStream(ESQUEMA)) {
+            esquema = ProtobufSchemaLoader.std.loadNative(entrada, true);
+        }
+        this.respuestas = Map.of(
+                RespuestaMensaje.class, protobufMapper.writer(esquema.forType("RespuestaMensaje")),
+                RespuestaCurso.class, protobufMapper.writer(esquema.forType("RespuestaCurso")),
+                RespuestaContenido.class, protobufMapper.writer(esquema.forType("RespuestaContenido")),
+                RespuestaEvaluacion.class, protobufMapper.writer(esquema.forType("RespuestaEvaluacion")),
+                RespuestaUsuario.class, protobufMapper.writer(esquema.forType("RespuestaUsuario")),
+                LoginResponse.class, protobufMapper.writer(esquema.forType("LoginResponse")));
+        this.paginas = Map.of(
+                Curso.class, protobufMapper.writer(esquema.forType("PaginaCursos")),
+                Contenido.class, protobufMapper.writer(esquema.forType("PaginaContenidos")),
+                Evaluacion.class, protobufMapper.writer(esquema.forType("PaginaEvaluaciones")),
+                User.class, protobufMapper.writer(esquema.forType("PaginaUsuarios")));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == RespuestaPagina.class || respuestas.containsKey(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Respuesta readInternal(Class<? extends Respuesta> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf solo se admite en las respuestas", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Respuesta respuesta, HttpOutputMessage outputMessage) throws IOException {
+        writer(respuesta).writeValue(outputMessage.getBody(), respuesta);
+    }
+
+    ObjectWriter writer(Respuesta respuesta) {
+        if (!(respuesta instanceof RespuestaPagina<?> pagina)) {
+            return respuestas.get(respuesta.getClass());
+        }
+        // Las páginas comparten los números de campo, así que una página vacía se escribe igual con cualquiera
+        List<?> data = pagina.data();
+        Class<?> tipo = data.isEmpty() ? Curso.class : data.get(0).getClass();
+        for (Map.Entry<Class<?>, ObjectWriter> entrada : paginas.entrySet()) {
+            if (entrada.getKey().isAssignableFrom(tipo)) {
+                return entrada.getValue();
+            }
+        }
+        throw new HttpMessageNotWritableException("No hay esquema protobuf para páginas de " + tipo.getSimpleName());
+    }
+}
@@ -0,0 +1,19 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.TokensSesion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra {@link SesionFilter} desde una configuración y no como {@code @Component}, para que
+ * las pruebas {@code @WebMvcTest} de cada controlador no necesiten {@link TokensSesion}.
+ */
+@Configuration
+public class SesionConfig {
+
+    @Bean
+    public SesionFilter sesionFilter(TokensSesion tokensSesion, ObjectMapper objectMapper) {
+        return new SesionFilter(tokensSesion, objectMapper);
+    }
+}
@@ -0,0 +1,57 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.service.TokensSesion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.OptionalLong;
+
+/**
+ * Valida el token de {@code Authorization: Bearer} en memoria y deja el id del usuario en el
+ * atributo {@value #USUARIO} de la solicitud. Las solicitudes sin token siguen igual que antes;
+ * un token inválido o vencido se responde con 401 sin llegar al controlador.
+ */
+public class SesionFilter extends OncePerRequestFilter {
+
+    public static final String USUARIO = "sesion.usuario";
+
+    private static final String BEARER = "Bearer ";
+    private static final Mensaje TOKEN_INVALIDO = Mensaje.de("Token de sesión inválido o vencido; inicie sesión nuevamente");
+
+    private final TokensSesion tokensSesion;
+    private final ObjectMapper objectMapper;
+
+    public SesionFilter(TokensSesion tokensSesion, ObjectMapper objectMapper) {
+        this.tokensSesion = tokensSesion;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String autorizacion = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (autorizacion == null || !autorizacion.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        OptionalLong usuario = tokensSesion.validar(autorizacion.substring(BEARER.length()).strip());
+        if (usuario.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new RespuestaMensaje(TOKEN_INVALIDO));
+            return;
+        }
+        request.setAttribute(USUARIO, usuario.getAsLong());
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,46 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Valida que las tablas coincidan con las entidades después de iniciar, en un hilo aparte, en
+ * lugar de hacerlo Hibernate durante el arranque ({@code ddl-auto=validate}). El resultado se
+ * publica como el componente {@code validacionEsquema} de {@code /actuator/health}.
+ */
+@Component
+@ConditionalOnProperty(name = "esquema.validacion", havingValue = "segundo-plano")
+public class ValidacionEsquema implements HealthIndicator {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private volatile Health estado = Health.unknown().withDetail("validacion", "pendiente").build();
+
+    public ValidacionEsquema(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        Thread.ofPlatform().name("validacion-esquema").daemon().start(this::validar);
+    }
+
+    void validar() {
+        try {
+            entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+            estado = Health.up().build();
+        } catch (RuntimeException e) {
+            estado = Health.down().withDetail("error", e.getMessage()).build();
+        }
+    }
+
+    @Override
+    public Health health() {
+        return estado;
+    }
+}
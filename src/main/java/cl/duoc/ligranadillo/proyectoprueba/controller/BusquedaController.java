@@ -0,0 +1,56 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaLista;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaReconstruccion;
+import cl.duoc.ligranadillo.proyectoprueba.service.EstadisticasIndice;
+import cl.duoc.ligranadillo.proyectoprueba.service.IndiceBusqueda;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoBusqueda;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/v2/buscar")
+@Tag(name = "Búsqueda", description = "Búsqueda por palabras clave en cursos, contenidos y evaluaciones")
+public class BusquedaController {
+
+    private static final Mensaje BUSQUEDA_REALIZADA = Mensaje.de("Búsqueda realizada correctamente");
+    private static final Mensaje INDICE_RECONSTRUIDO = Mensaje.de("Índice de búsqueda reconstruido correctamente");
+    private static final Mensaje SIN_TERMINO = Mensaje.de("Debe indicar un término de búsqueda");
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Value("${paginacion.tamano-maximo:100}")
+    private int tamanoMaximo;
+
+    @GetMapping
+    @Operation(summary = "Buscar", description = "Busca en nombres, títulos y descripciones, ordenando por relevancia")
+    public ResponseEntity<Respuesta> buscar(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "${paginacion.tamano-por-defecto:20}") int limite) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(SIN_TERMINO));
+        }
+        List<ResultadoBusqueda> resultados = indiceBusqueda.buscar(q, Pagina.tamanoValido(limite, tamanoMaximo));
+        return ResponseEntity.ok(RespuestaLista.de(BUSQUEDA_REALIZADA, resultados));
+    }
+
+    @PostMapping("/indice/reconstruir")
+    @Operation(summary = "Reconstruir índice", description = "Vuelve a construir el índice de búsqueda desde la base de datos")
+    public ResponseEntity<Respuesta> reconstruir() {
+        long inicio = System.nanoTime();
+        EstadisticasIndice estadisticas = indiceBusqueda.reconstruir();
+        return ResponseEntity.ok(new RespuestaReconstruccion(INDICE_RECONSTRUIDO, estadisticas,
+                (System.nanoTime() - inicio) / 1_000_000));
+    }
+}
@@ -0,0 +1,34 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaDatos;
+import cl.duoc.ligranadillo.proyectoprueba.service.CacheLocal;
+import cl.duoc.ligranadillo.proyectoprueba.service.EstadisticasCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/v2/cache")
+@Tag(name = "Cache", description = "Monitoreo de la cache de entidades")
+public class CacheController {
+
+    private static final Mensaje ESTADISTICAS_OBTENIDAS = Mensaje.de("Estadísticas de cache obtenidas correctamente");
+
+    @Autowired
+    private List<CacheLocal<?>> caches;
+
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Estadísticas de cache", description = "Aciertos, fallos y desalojos de cada cache de entidades")
+    public ResponseEntity<Respuesta> estadisticas() {
+        List<EstadisticasCache> estadisticas = caches.stream()
+                .map(CacheLocal::estadisticas)
+                .toList();
+        return ResponseEntity.ok(new RespuestaDatos<>(ESTADISTICAS_OBTENIDAS, estadisticas));
+    }
+}
@@ -1,12 +1,27 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaActualizacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaContenido;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaEliminacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaLote;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
 import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.service.CambiosContenido;
 import cl.duoc.ligranadillo.proyectoprueba.service.ContenidoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 
@@ -15,52 +30,147 @@ import java.util.*;
 @Tag(name = "Contenidos", description = "Microservicio para gestión de contenidos")
 public class ContenidoController {
 
+    private static final Mensaje CONTENIDOS_OBTENIDOS = Mensaje.de("Contenidos obtenidos correctamente");
+    private static final Mensaje LOTE_PROCESADO = Mensaje.de("Lote de contenidos procesado");
+    private static final Mensaje CONTENIDO_CREADO = Mensaje.de("Contenido creado exitosamente");
+    private static final Mensaje CONTENIDO_ENCONTRADO = Mensaje.de("Contenido encontrado");
+    private static final Mensaje CONTENIDO_ACTUALIZADO = Mensaje.de("Contenido actualizado correctamente");
+    private static final Mensaje CONTENIDOS_ELIMINADOS = Mensaje.de("Contenidos eliminados");
+    private static final Mensaje CURSOR_INVALIDO = Mensaje.de("Cursor inválido");
+    private static final Mensaje MODIFICADO_POR_OTRA_SOLICITUD = Mensaje.de("El contenido fue modificado por otra solicitud; vuelva a obtenerlo");
+    private static final Mensaje SIN_CAMBIOS = Mensaje.de("Indique al menos un campo a modificar");
+    private static final Mensaje SIN_IDS = Mensaje.de("Indique al menos un ID");
+    private static final Mensaje CONTENIDO_ELIMINADO = Mensaje.de("Contenido eliminado correctamente");
+
     @Autowired
     private ContenidoService contenidoService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${paginacion.tamano-maximo:100}")
+    private int tamanoMaximo;
+
+    @Value("${lotes.tamano-maximo:5000}")
+    private int tamanoMaximoLote;
+
     @PostMapping("/crear")
     @Operation(summary = "Crear contenido", description = "Registra un nuevo contenido")
-    public ResponseEntity<Map<String, Object>> crearContenido(@RequestBody Contenido contenido) {
+    public ResponseEntity<Respuesta> crearContenido(@RequestBody Contenido contenido) {
         Contenido creado = contenidoService.guardarContenido(contenido);
-        return ResponseEntity.status(201).body(Map.of(
-                "message", "Contenido creado exitosamente",
-                "contenido", creado
-        ));
+        return ResponseEntity.status(201).body(new RespuestaContenido(CONTENIDO_CREADO, creado));
+    }
+
+    @PostMapping("/crear/lote")
+    @Operation(summary = "Crear contenidos en lote", description = "Registra varios contenidos agrupando los INSERT en lotes JDBC")
+    public ResponseEntity<Respuesta> crearContenidosEnLote(@RequestBody List<Contenido> contenidos) {
+        if (contenidos.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(413)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " contenidos"));
+        }
+        RespuestaLote respuesta = RespuestaLote.de(LOTE_PROCESADO, contenidoService.guardarContenidos(contenidos));
+        return ResponseEntity.status(respuesta.completo() ? 201 : 207).body(respuesta);
     }
 
     @GetMapping("/listar")
-    @Operation(summary = "Listar contenidos", description = "Obtiene todos los contenidos")
-    public ResponseEntity<Map<String, Object>> listarContenidos() {
-        List<Contenido> lista = contenidoService.obtenerContenidos();
-        return ResponseEntity.ok(Map.of(
-                "message", "Contenidos obtenidos correctamente",
-                "total", lista.size(),
-                "data", lista
-        ));
+    @Operation(summary = "Listar contenidos", description = "Obtiene los contenidos paginados por cursor")
+    public ResponseEntity<Respuesta> listarContenidos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${paginacion.tamano-por-defecto:20}") int tamano,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pagina<Contenido> pagina;
+        try {
+            pagina = contenidoService.obtenerContenidos(cursor, Pagina.tamanoValido(tamano, tamanoMaximo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(CURSOR_INVALIDO));
+        }
+        String etag = Etags.dePagina(pagina, Contenido::getId, Contenido::getVersion);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(RespuestaPagina.de(CONTENIDOS_OBTENIDOS, pagina));
+    }
+
+    @GetMapping(value = "/listar", produces = Ndjson.MEDIA_TYPE)
+    @Operation(summary = "Exportar contenidos", description = "Emite todos los contenidos como NDJSON, un contenido por línea")
+    public ResponseEntity<StreamingResponseBody> exportarContenidos() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.TIPO)
+                .body(Ndjson.escribir(objectMapper, contenidoService::exportarContenidos));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener contenido por ID", description = "Obtiene un contenido por su ID")
-    public ResponseEntity<Map<String, Object>> obtenerContenido(@PathVariable Long id) {
-        return contenidoService.obtenerContenidoPorId(id)
-                .map(c -> ResponseEntity.ok(Map.of("message", "Contenido encontrado", "contenido", c)))
-                .orElse(ResponseEntity.status(404).body(Map.of("message", "Contenido con ID " + id + " no encontrado")));
+    public ResponseEntity<Respuesta> obtenerContenido(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<Contenido> contenido = contenidoService.obtenerContenidoPorId(id);
+        if (contenido.isEmpty()) {
+            return ResponseEntity.status(404).body(RespuestaMensaje.de("Contenido con ID " + id + " no encontrado"));
+        }
+        String etag = Etags.deEntidad(id, contenido.get().getVersion(), accept);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(new RespuestaContenido(CONTENIDO_ENCONTRADO, contenido.get()));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar contenido", description = "Actualiza un contenido existente")
-    public ResponseEntity<Map<String, Object>> actualizarContenido(@PathVariable Long id, @RequestBody Contenido contenido) {
-        return contenidoService.actualizarContenido(id, contenido)
-                .map(c -> ResponseEntity.ok(Map.of("message", "Contenido actualizado correctamente", "contenido", c)))
-                .orElse(ResponseEntity.status(404).body(Map.of("message", "No se pudo actualizar: contenido con ID " + id + " no encontrado")));
+    public ResponseEntity<Respuesta> actualizarContenido(@PathVariable Long id, @RequestBody Contenido contenido,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<Contenido> actualizado;
+        try {
+            actualizado = contenidoService.actualizarContenido(id, contenido, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        }
+        return actualizado
+                .map(a -> ResponseEntity.ok().eTag(Etags.deEntidad(id, a.getVersion(), accept))
+                        .<Respuesta>body(new RespuestaContenido(CONTENIDO_ACTUALIZADO, a)))
+                .orElse(ResponseEntity.status(404).body(RespuestaMensaje.de("No se pudo actualizar: contenido con ID " + id + " no encontrado")));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Actualizar campos del contenido", description = "Modifica solo los campos enviados con un único UPDATE y retorna las filas afectadas")
+    public ResponseEntity<Respuesta> actualizarContenidoParcial(@PathVariable Long id, @RequestBody CambiosContenido cambios,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (cambios.vacio()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(SIN_CAMBIOS));
+        }
+        int filas;
+        try {
+            filas = contenidoService.actualizarContenidoParcial(id, cambios, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        }
+        if (filas == 0) {
+            return ResponseEntity.status(404).body(RespuestaMensaje.de("No se pudo actualizar: contenido con ID " + id + " no encontrado"));
+        }
+        return ResponseEntity.ok(new RespuestaActualizacion(CONTENIDO_ACTUALIZADO, filas));
+    }
+
+    @DeleteMapping(params = "ids")
+    @Operation(summary = "Eliminar contenidos en lote", description = "Elimina los contenidos indicados con sentencias DELETE ... IN por bloques")
+    public ResponseEntity<Respuesta> eliminarContenidos(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(SIN_IDS));
+        }
+        if (ids.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(413)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " contenidos"));
+        }
+        int eliminados = contenidoService.eliminarContenidos(ids);
+        return ResponseEntity.ok(new RespuestaEliminacion(CONTENIDOS_ELIMINADOS, eliminados));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar contenido", description = "Elimina un contenido existente")
-    public ResponseEntity<Map<String, Object>> eliminarContenido(@PathVariable Long id) {
+    public ResponseEntity<Respuesta> eliminarContenido(@PathVariable Long id) {
         boolean eliminado = contenidoService.eliminarContenido(id);
         return eliminado
-                ? ResponseEntity.ok(Map.of("message", "Contenido eliminado correctamente"))
-                : ResponseEntity.status(404).body(Map.of("message", "Contenido con ID " + id + " no encontrado"));
+                ? ResponseEntity.ok(new RespuestaMensaje(CONTENIDO_ELIMINADO))
+                : ResponseEntity.status(404).body(RespuestaMensaje.de("Contenido con ID " + id + " no encontrado"));
     }
 }
@@ -1,14 +1,33 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaActualizacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaCurso;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaEliminacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaLote;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
 import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.service.CambiosCurso;
 import cl.duoc.ligranadillo.proyectoprueba.service.CursoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.EvaluacionService;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
@@ -16,63 +35,226 @@ import java.util.*;
 @Tag(name = "Cursos", description = "Microservicio para gestión de cursos")
 public class CursoController {
 
+    private static final Mensaje CURSOS_OBTENIDOS = Mensaje.de("Cursos obtenidos correctamente");
+    private static final Mensaje EVALUACIONES_DEL_CURSO_OBTENIDAS =
+            Mensaje.de("Evaluaciones del curso obtenidas correctamente");
+    private static final Mensaje LOTE_PROCESADO = Mensaje.de("Lote de cursos procesado");
+    private static final Mensaje CURSO_CREADO = Mensaje.de("Curso creado exitosamente");
+    private static final Mensaje CURSO_ENCONTRADO = Mensaje.de("Curso encontrado");
+    private static final Mensaje CURSO_ACTUALIZADO = Mensaje.de("Curso actualizado correctamente");
+    private static final Mensaje CURSOS_ELIMINADOS = Mensaje.de("Cursos eliminados");
+    private static final Mensaje CURSOR_INVALIDO = Mensaje.de("Cursor inválido");
+    private static final Mensaje CRITERIO_INVALIDO =
+            Mensaje.de("Indique un solo criterio: activoEn, iniciaDesde/iniciaHasta o terminaDesde/terminaHasta");
+    private static final Mensaje RANGO_INVALIDO =
+            Mensaje.de("El rango requiere fecha desde y hasta, con desde anterior o igual a hasta");
+    private static final Mensaje MODIFICADO_POR_OTRA_SOLICITUD =
+            Mensaje.de("El curso fue modificado por otra solicitud; vuelva a obtenerlo");
+    private static final Mensaje SIN_CAMBIOS = Mensaje.de("Indique al menos un campo a modificar");
+    private static final Mensaje SIN_IDS = Mensaje.de("Indique al menos un ID");
+    private static final Mensaje CURSO_ELIMINADO = Mensaje.de("Curso eliminado correctamente");
+
     @Autowired
     private CursoService cursoService;
 
+    @Autowired
+    private EvaluacionService evaluacionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${paginacion.tamano-maximo:100}")
+    private int tamanoMaximo;
+
+    @Value("${lotes.tamano-maximo:5000}")
+    private int tamanoMaximoLote;
+
     @PostMapping("/crear")
     @Operation(summary = "Crear curso", description = "Registra un nuevo curso con sus atributos")
-    public ResponseEntity<Map<String, Object>> crearCurso(@RequestBody Curso curso) {
+    public ResponseEntity<Respuesta> crearCurso(@RequestBody Curso curso) {
         Curso creado = cursoService.guardarCurso(curso);
-        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
-                "message", "Curso creado exitosamente",
-                "curso", creado
-        ));
+        return ResponseEntity.status(HttpStatus.CREATED).body(new RespuestaCurso(CURSO_CREADO, creado));
+    }
+
+    @PostMapping("/crear/lote")
+    @Operation(summary = "Crear cursos en lote", description = "Registra varios cursos agrupando los INSERT en lotes JDBC")
+    public ResponseEntity<Respuesta> crearCursosEnLote(@RequestBody List<Curso> cursos) {
+        if (cursos.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " cursos"));
+        }
+        RespuestaLote respuesta = RespuestaLote.de(LOTE_PROCESADO, cursoService.guardarCursos(cursos));
+        return ResponseEntity.status(respuesta.completo() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(respuesta);
     }
 
     @GetMapping("/listar")
-    @Operation(summary = "Listar cursos", description = "Obtiene todos los cursos registrados")
-    public ResponseEntity<Map<String, Object>> listarCursos() {
-        List<Curso> cursos = cursoService.obtenerCursos();
-        return ResponseEntity.ok(Map.of(
-                "message", "Cursos obtenidos correctamente",
-                "total", cursos.size(),
-                "data", cursos
-        ));
+    @Operation(summary = "Listar cursos", description = "Obtiene los cursos registrados paginados por cursor")
+    public ResponseEntity<Respuesta> listarCursos(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${paginacion.tamano-por-defecto:20}") int tamano,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pagina<Curso> pagina;
+        try {
+            pagina = cursoService.obtenerCursos(cursor, Pagina.tamanoValido(tamano, tamanoMaximo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new RespuestaMensaje(CURSOR_INVALIDO));
+        }
+        String etag = Etags.dePagina(pagina, Curso::getId, Curso::getVersion);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(RespuestaPagina.de(CURSOS_OBTENIDOS, pagina));
+    }
+
+    @GetMapping(value = "/listar", produces = Ndjson.MEDIA_TYPE)
+    @Operation(summary = "Exportar cursos", description = "Emite todos los cursos como NDJSON, un curso por línea")
+    public ResponseEntity<StreamingResponseBody> exportarCursos() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.TIPO)
+                .body(Ndjson.escribir(objectMapper, cursoService::exportarCursos));
+    }
+
+    @GetMapping("/por-fecha")
+    @Operation(summary = "Buscar cursos por fecha",
+            description = "Busca los cursos activos en una fecha, o los que inician o terminan dentro de un rango, paginados por cursor")
+    public ResponseEntity<Respuesta> buscarCursosPorFecha(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate activoEn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate iniciaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate iniciaHasta,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate terminaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate terminaHasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${paginacion.tamano-por-defecto:20}") int tamano) {
+        boolean porActivo = activoEn != null;
+        boolean porInicio = iniciaDesde != null || iniciaHasta != null;
+        boolean porFin = terminaDesde != null || terminaHasta != null;
+        if ((porActivo ? 1 : 0) + (porInicio ? 1 : 0) + (porFin ? 1 : 0) != 1) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new RespuestaMensaje(CRITERIO_INVALIDO));
+        }
+        if ((porInicio && !rangoValido(iniciaDesde, iniciaHasta)) || (porFin && !rangoValido(terminaDesde, terminaHasta))) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new RespuestaMensaje(RANGO_INVALIDO));
+        }
+        int tamanoPagina = Pagina.tamanoValido(tamano, tamanoMaximo);
+        Pagina<Curso> pagina;
+        try {
+            if (porActivo) {
+                pagina = cursoService.buscarCursosActivos(activoEn, cursor, tamanoPagina);
+            } else if (porInicio) {
+                pagina = cursoService.buscarCursosPorInicio(iniciaDesde, iniciaHasta, cursor, tamanoPagina);
+            } else {
+                pagina = cursoService.buscarCursosPorFin(terminaDesde, terminaHasta, cursor, tamanoPagina);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new RespuestaMensaje(CURSOR_INVALIDO));
+        }
+        return ResponseEntity.ok(RespuestaPagina.de(CURSOS_OBTENIDOS, pagina));
+    }
+
+    private static boolean rangoValido(LocalDate desde, LocalDate hasta) {
+        return desde != null && hasta != null && !desde.isAfter(hasta);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener curso por ID", description = "Retorna un curso específico según su ID")
-    public ResponseEntity<Map<String, Object>> obtenerCurso(@PathVariable Long id) {
-        return cursoService.obtenerCursoPorId(id)
-                .map(curso -> ResponseEntity.ok(Map.of(
-                        "message", "Curso encontrado",
-                        "curso", curso
-                )))
-                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("message", "Curso con ID " + id + " no encontrado")));
+    public ResponseEntity<Respuesta> obtenerCurso(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<Curso> curso = cursoService.obtenerCursoPorId(id);
+        if (curso.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(RespuestaMensaje.de("Curso con ID " + id + " no encontrado"));
+        }
+        String etag = Etags.deEntidad(id, curso.get().getVersion(), accept);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(new RespuestaCurso(CURSO_ENCONTRADO, curso.get()));
+    }
+
+    @GetMapping("/{id}/evaluaciones")
+    @Operation(summary = "Listar evaluaciones del curso", description = "Obtiene las evaluaciones de un curso paginadas por cursor")
+    public ResponseEntity<Respuesta> listarEvaluacionesDelCurso(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${paginacion.tamano-por-defecto:20}") int tamano) {
+        if (cursoService.obtenerCursoPorId(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(RespuestaMensaje.de("Curso con ID " + id + " no encontrado"));
+        }
+        Pagina<Evaluacion> pagina;
+        try {
+            pagina = evaluacionService.obtenerEvaluacionesPorCurso(id, cursor, Pagina.tamanoValido(tamano, tamanoMaximo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new RespuestaMensaje(CURSOR_INVALIDO));
+        }
+        return ResponseEntity.ok(RespuestaPagina.de(EVALUACIONES_DEL_CURSO_OBTENIDAS, pagina));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar curso", description = "Actualiza un curso existente según su ID")
-    public ResponseEntity<Map<String, Object>> actualizarCurso(@PathVariable Long id, @RequestBody Curso curso) {
-        return cursoService.actualizarCurso(id, curso)
-                .map(actualizado -> ResponseEntity.ok(Map.of(
-                        "message", "Curso actualizado correctamente",
-                        "curso", actualizado
-                )))
+    public ResponseEntity<Respuesta> actualizarCurso(@PathVariable Long id, @RequestBody Curso curso,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<Curso> actualizado;
+        try {
+            actualizado = cursoService.actualizarCurso(id, curso, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        }
+        return actualizado
+                .map(a -> ResponseEntity.ok().eTag(Etags.deEntidad(id, a.getVersion(), accept))
+                        .<Respuesta>body(new RespuestaCurso(CURSO_ACTUALIZADO, a)))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("message", "No se pudo actualizar: curso con ID " + id + " no encontrado")));
+                        .body(RespuestaMensaje.de("No se pudo actualizar: curso con ID " + id + " no encontrado")));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Actualizar campos del curso",
+            description = "Modifica solo los campos enviados con un único UPDATE y retorna las filas afectadas")
+    public ResponseEntity<Respuesta> actualizarCursoParcial(@PathVariable Long id, @RequestBody CambiosCurso cambios,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (cambios.vacio()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new RespuestaMensaje(SIN_CAMBIOS));
+        }
+        int filas;
+        try {
+            filas = cursoService.actualizarCursoParcial(id, cambios, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        }
+        if (filas == 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(RespuestaMensaje.de("No se pudo actualizar: curso con ID " + id + " no encontrado"));
+        }
+        return ResponseEntity.ok(new RespuestaActualizacion(CURSO_ACTUALIZADO, filas));
+    }
+
+    @DeleteMapping(params = "ids")
+    @Operation(summary = "Eliminar cursos en lote", description = "Elimina los cursos indicados con sentencias DELETE ... IN por bloques")
+    public ResponseEntity<Respuesta> eliminarCursos(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new RespuestaMensaje(SIN_IDS));
+        }
+        if (ids.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " cursos"));
+        }
+        int eliminados = cursoService.eliminarCursos(ids);
+        return ResponseEntity.ok(new RespuestaEliminacion(CURSOS_ELIMINADOS, eliminados));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar curso", description = "Elimina un curso existente por su ID")
-    public ResponseEntity<Map<String, Object>> eliminarCurso(@PathVariable Long id) {
+    public ResponseEntity<Respuesta> eliminarCurso(@PathVariable Long id) {
         boolean eliminado = cursoService.eliminarCurso(id);
         if (eliminado) {
-            return ResponseEntity.ok(Map.of("message", "Curso eliminado correctamente"));
+            return ResponseEntity.ok(new RespuestaMensaje(CURSO_ELIMINADO));
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("message", "Curso con ID " + id + " no encontrado"));
+                    .body(RespuestaMensaje.de("Curso con ID " + id + " no encontrado"));
         }
     }
 }
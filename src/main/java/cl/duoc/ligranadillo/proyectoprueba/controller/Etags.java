@@ -0,0 +1,154 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.config.RespuestaProtobufConverter;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * ETags de las entidades (fuertes, para If-Match) y de las páginas de /listar (débiles), y la
+ * evaluación de los encabezados If-None-Match / If-Match.
+ */
+final class Etags {
+
+    /**
+     * Versión que ninguna entidad tiene (empiezan en 0); se usa cuando If-Match no corresponde
+     * al recurso para que la actualización falle como cualquier otra versión desactualizada.
+     */
+    static final long NINGUNA_VERSION = -1L;
+
+    /**
+     * Sufijo de la ETag de entidad para cada formato, en el orden en que se eligen con
+     * {@code Accept: *}{@code /*}; JSON no lleva sufijo.
+     */
+    private static final List<Map.Entry<MediaType, String>> FORMATOS = List.of(
+            Map.entry(MediaType.APPLICATION_JSON, ""),
+            Map.entry(new MediaType("application", "x-jackson-smile"), ".smile"),
+            Map.entry(MediaType.APPLICATION_CBOR, ".cbor"),
+            Map.entry(RespuestaProtobufConverter.PROTOBUF, ".protobuf"));
+
+    private Etags() {
+    }
+
+    /**
+     * La versión aumenta con cada modificación, por lo que (id, versión) y el formato que pide
+     * {@code Accept} identifican exactamente la representación de la entidad.
+     */
+    static String deEntidad(Long id, long version, String accept) {
+        return "\"" + id + "-" + version + formato(accept) + "\"";
+    }
+
+    /**
+     * Resume los (id, versión) de las filas de la página: cambia si se crea, modifica o elimina
+     * alguna fila dentro de ella, sin consultar nada más que la propia página. Es débil porque
+     * Tomcat no comprime las respuestas con ETag fuerte y las páginas superan el mínimo de
+     * {@code server.compression.min-response-size}.
+     */
+    static <T> String dePagina(Pagina<T> pagina, Function<T, Long> id, ToLongFunction<T> version) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (T fila : pagina.data()) {
+            buffer.clear();
+            buffer.putLong(id.apply(fila)).putLong(version.applyAsLong(fila));
+            digest.update(buffer.array());
+        }
+        if (pagina.next() != null) {
+            digest.update(pagina.next().getBytes(StandardCharsets.UTF_8));
+        }
+        return "W/\"p-" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * If-None-Match usa comparación débil: W/"x" y "x" coinciden entre sí.
+     */
+    static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || quitarDebil(valor).equals(quitarDebil(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versión que If-Match exige para la entidad, o {@code null} si no hay condición (sin
+     * encabezado o {@code *}). Sirve la ETag de cualquier formato: todas corresponden a la misma
+     * versión.
+     */
+    static Long versionRequerida(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefijo = "\"" + id + "-";
+        for (String candidato : ifMatch.split(",")) {
+            String valor = candidato.trim();
+            // If-Match usa comparación fuerte: las ETags débiles nunca coinciden
+            if (valor.startsWith(prefijo) && valor.endsWith("\"") && valor.length() > prefijo.length() + 1) {
+                String version = valor.substring(prefijo.length(), valor.length() - 1);
+                int sufijo = version.indexOf('.');
+                try {
+                    return Long.parseLong(sufijo < 0 ? version : version.substring(0, sufijo));
+                } catch (NumberFormatException e) {
+                    // Se sigue con el resto del encabezado
+                }
+            }
+        }
+        return NINGUNA_VERSION;
+    }
+
+    /**
+     * Sufijo del formato que la negociación elige para {@code Accept}: el primero de mayor
+     * calidad y especificidad que sea JSON, Smile, CBOR o protobuf.
+     */
+    static String formato(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> aceptados;
+        try {
+            aceptados = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(aceptados);
+        for (MediaType aceptado : aceptados) {
+            if (aceptado.getQualityValue() == 0) {
+                continue;
+            }
+            for (Map.Entry<MediaType, String> formato : FORMATOS) {
+                if (aceptado.includes(formato.getKey())) {
+                    return formato.getValue();
+                }
+            }
+        }
+        return "";
+    }
+
+    private static String quitarDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaActualizacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaEliminacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaEvaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaLote;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
 import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.service.CambiosEvaluacion;
 import cl.duoc.ligranadillo.proyectoprueba.service.EvaluacionService;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 
@@ -15,52 +31,158 @@ import java.util.*;
 @Tag(name = "Evaluaciones", description = "Microservicio para gestión de evaluaciones")
 public class EvaluacionController {
 
+    private static final Mensaje EVALUACIONES_OBTENIDOS = Mensaje.de("Evaluaciones obtenidas correctamente");
+    private static final Mensaje LOTE_PROCESADO = Mensaje.de("Lote de evaluaciones procesado");
+    private static final Mensaje EVALUACION_CREADA = Mensaje.de("Evaluación creada exitosamente");
+    private static final Mensaje EVALUACION_ENCONTRADA = Mensaje.de("Evaluación encontrada");
+    private static final Mensaje EVALUACION_ACTUALIZADA = Mensaje.de("Evaluación actualizada correctamente");
+    private static final Mensaje EVALUACIONES_ELIMINADAS = Mensaje.de("Evaluaciones eliminadas");
+    private static final Mensaje CURSOR_INVALIDO = Mensaje.de("Cursor inválido");
+    private static final Mensaje MODIFICADO_POR_OTRA_SOLICITUD = Mensaje.de("La evaluación fue modificada por otra solicitud; vuelva a obtenerla");
+    private static final Mensaje SIN_CAMBIOS = Mensaje.de("Indique al menos un campo a modificar");
+    private static final Mensaje SIN_IDS = Mensaje.de("Indique al menos un ID");
+    private static final Mensaje EVALUACION_ELIMINADA = Mensaje.de("Evaluación eliminada correctamente");
+    private static final Mensaje CURSO_INEXISTENTE = Mensaje.de("El curso indicado en cursoId no existe");
+
     @Autowired
     private EvaluacionService evaluacionService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${paginacion.tamano-maximo:100}")
+    private int tamanoMaximo;
+
+    @Value("${lotes.tamano-maximo:5000}")
+    private int tamanoMaximoLote;
+
     @PostMapping("/crear")
     @Operation(summary = "Crear evaluación", description = "Registra una nueva evaluación")
-    public ResponseEntity<Map<String, Object>> crearEvaluacion(@RequestBody Evaluacion evaluacion) {
-        Evaluacion creada = evaluacionService.guardarEvaluacion(evaluacion);
-        return ResponseEntity.status(201).body(Map.of(
-                "message", "Evaluación creada exitosamente",
-                "evaluacion", creada
-        ));
+    public ResponseEntity<Respuesta> crearEvaluacion(@RequestBody Evaluacion evaluacion) {
+        Evaluacion creada;
+        try {
+            creada = evaluacionService.guardarEvaluacion(evaluacion);
+        } catch (DataIntegrityViolationException e) {
+            // cursoId referencia a curso (fk_evaluacion_curso)
+            return ResponseEntity.status(400).body(new RespuestaMensaje(CURSO_INEXISTENTE));
+        }
+        return ResponseEntity.status(201).body(new RespuestaEvaluacion(EVALUACION_CREADA, creada));
+    }
+
+    @PostMapping("/crear/lote")
+    @Operation(summary = "Crear evaluaciones en lote", description = "Registra varias evaluaciones agrupando los INSERT en lotes JDBC")
+    public ResponseEntity<Respuesta> crearEvaluacionesEnLote(@RequestBody List<Evaluacion> evaluaciones) {
+        if (evaluaciones.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(413)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " evaluaciones"));
+        }
+        RespuestaLote respuesta = RespuestaLote.de(LOTE_PROCESADO, evaluacionService.guardarEvaluaciones(evaluaciones));
+        return ResponseEntity.status(respuesta.completo() ? 201 : 207).body(respuesta);
     }
 
     @GetMapping("/listar")
-    @Operation(summary = "Listar evaluaciones", description = "Obtiene todas las evaluaciones")
-    public ResponseEntity<Map<String, Object>> listarEvaluaciones() {
-        List<Evaluacion> lista = evaluacionService.obtenerEvaluaciones();
-        return ResponseEntity.ok(Map.of(
-                "message", "Evaluaciones obtenidas correctamente",
-                "total", lista.size(),
-                "data", lista
-        ));
+    @Operation(summary = "Listar evaluaciones", description = "Obtiene las evaluaciones paginadas por cursor")
+    public ResponseEntity<Respuesta> listarEvaluaciones(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${paginacion.tamano-por-defecto:20}") int tamano,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pagina<Evaluacion> pagina;
+        try {
+            pagina = evaluacionService.obtenerEvaluaciones(cursor, Pagina.tamanoValido(tamano, tamanoMaximo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(CURSOR_INVALIDO));
+        }
+        String etag = Etags.dePagina(pagina, Evaluacion::getId, Evaluacion::getVersion);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(RespuestaPagina.de(EVALUACIONES_OBTENIDOS, pagina));
+    }
+
+    @GetMapping(value = "/listar", produces = Ndjson.MEDIA_TYPE)
+    @Operation(summary = "Exportar evaluaciones", description = "Emite todas las evaluaciones como NDJSON, una evaluación por línea")
+    public ResponseEntity<StreamingResponseBody> exportarEvaluaciones() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.TIPO)
+                .body(Ndjson.escribir(objectMapper, evaluacionService::exportarEvaluaciones));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener evaluación por ID", description = "Obtiene una evaluación por su ID")
-    public ResponseEntity<Map<String, Object>> obtenerEvaluacion(@PathVariable Long id) {
-        return evaluacionService.obtenerEvaluacionPorId(id)
-                .map(e -> ResponseEntity.ok(Map.of("message", "Evaluación encontrada", "evaluacion", e)))
-                .orElse(ResponseEntity.status(404).body(Map.of("message", "Evaluación con ID " + id + " no encontrada")));
+    public ResponseEntity<Respuesta> obtenerEvaluacion(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<Evaluacion> evaluacion = evaluacionService.obtenerEvaluacionPorId(id);
+        if (evaluacion.isEmpty()) {
+            return ResponseEntity.status(404).body(RespuestaMensaje.de("Evaluación con ID " + id + " no encontrada"));
+        }
+        String etag = Etags.deEntidad(id, evaluacion.get().getVersion(), accept);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(new RespuestaEvaluacion(EVALUACION_ENCONTRADA, evaluacion.get()));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar evaluación", description = "Actualiza una evaluación existente")
-    public ResponseEntity<Map<String, Object>> actualizarEvaluacion(@PathVariable Long id, @RequestBody Evaluacion evaluacion) {
-        return evaluacionService.actualizarEvaluacion(id, evaluacion)
-                .map(e -> ResponseEntity.ok(Map.of("message", "Evaluación actualizada correctamente", "evaluacion", e)))
-                .orElse(ResponseEntity.status(404).body(Map.of("message", "No se pudo actualizar: evaluación con ID " + id + " no encontrada")));
+    public ResponseEntity<Respuesta> actualizarEvaluacion(@PathVariable Long id, @RequestBody Evaluacion evaluacion,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<Evaluacion> actualizado;
+        try {
+            actualizado = evaluacionService.actualizarEvaluacion(id, evaluacion, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(CURSO_INEXISTENTE));
+        }
+        return actualizado
+                .map(a -> ResponseEntity.ok().eTag(Etags.deEntidad(id, a.getVersion(), accept))
+                        .<Respuesta>body(new RespuestaEvaluacion(EVALUACION_ACTUALIZADA, a)))
+                .orElse(ResponseEntity.status(404).body(RespuestaMensaje.de("No se pudo actualizar: evaluación con ID " + id + " no encontrada")));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Actualizar campos de la evaluación", description = "Modifica solo los campos enviados con un único UPDATE y retorna las filas afectadas")
+    public ResponseEntity<Respuesta> actualizarEvaluacionParcial(@PathVariable Long id, @RequestBody CambiosEvaluacion cambios,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (cambios.vacio()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(SIN_CAMBIOS));
+        }
+        int filas;
+        try {
+            filas = evaluacionService.actualizarEvaluacionParcial(id, cambios, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(CURSO_INEXISTENTE));
+        }
+        if (filas == 0) {
+            return ResponseEntity.status(404).body(RespuestaMensaje.de("No se pudo actualizar: evaluación con ID " + id + " no encontrada"));
+        }
+        return ResponseEntity.ok(new RespuestaActualizacion(EVALUACION_ACTUALIZADA, filas));
+    }
+
+    @DeleteMapping(params = "ids")
+    @Operation(summary = "Eliminar evaluaciones en lote", description = "Elimina las evaluaciones indicadas con sentencias DELETE ... IN por bloques")
+    public ResponseEntity<Respuesta> eliminarEvaluaciones(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(SIN_IDS));
+        }
+        if (ids.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(413)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " evaluaciones"));
+        }
+        int eliminados = evaluacionService.eliminarEvaluaciones(ids);
+        return ResponseEntity.ok(new RespuestaEliminacion(EVALUACIONES_ELIMINADAS, eliminados));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar evaluación", description = "Elimina una evaluación existente")
-    public ResponseEntity<Map<String, Object>> eliminarEvaluacion(@PathVariable Long id) {
+    public ResponseEntity<Respuesta> eliminarEvaluacion(@PathVariable Long id) {
         boolean eliminado = evaluacionService.eliminarEvaluacion(id);
         return eliminado
-                ? ResponseEntity.ok(Map.of("message", "Evaluación eliminada correctamente"))
-                : ResponseEntity.status(404).body(Map.of("message", "Evaluación con ID " + id + " no encontrada"));
+                ? ResponseEntity.ok(new RespuestaMensaje(EVALUACION_ELIMINADA))
+                : ResponseEntity.status(404).body(RespuestaMensaje.de("Evaluación con ID " + id + " no encontrada"));
     }
 }
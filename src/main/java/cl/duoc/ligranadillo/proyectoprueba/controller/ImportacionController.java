@@ -0,0 +1,74 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaImportacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.service.EstadoImportacion;
+import cl.duoc.ligranadillo.proyectoprueba.service.FormatoImportacion;
+import cl.duoc.ligranadillo.proyectoprueba.service.ImportacionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/v2/importaciones")
+@Tag(name = "Importaciones", description = "Carga masiva de cursos, contenidos y evaluaciones desde archivos CSV o JSON")
+public class ImportacionController {
+
+    private static final Mensaje IMPORTACION_EN_COLA = Mensaje.de("Importación en cola");
+    private static final Mensaje IMPORTACION_ENCONTRADA = Mensaje.de("Importación encontrada");
+    private static final Mensaje ARCHIVO_VACIO = Mensaje.de("El archivo está vacío");
+    private static final Mensaje FORMATO_NO_SOPORTADO = Mensaje.de("Formato no soportado; use un archivo .csv o .json");
+    private static final Mensaje COLA_LLENA = Mensaje.de("Hay demasiadas importaciones en curso; intente más tarde");
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @PostMapping(value = "/{tipo}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importar archivo",
+            description = "Encola la importación de un archivo CSV con encabezado o JSON (cursos, contenidos o evaluaciones) y retorna su ID para consultar el avance")
+    public ResponseEntity<Respuesta> importar(@PathVariable String tipo, @RequestParam("archivo") MultipartFile archivo)
+            throws IOException {
+        if (!importacionService.admite(tipo)) {
+            return ResponseEntity.status(404).body(RespuestaMensaje.de("No se pueden importar " + tipo));
+        }
+        if (archivo.isEmpty()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(ARCHIVO_VACIO));
+        }
+        Optional<FormatoImportacion> formato = FormatoImportacion.de(archivo.getOriginalFilename(), archivo.getContentType());
+        if (formato.isEmpty()) {
+            return ResponseEntity.status(415).body(new RespuestaMensaje(FORMATO_NO_SOPORTADO));
+        }
+        EstadoImportacion estado;
+        try (InputStream contenido = archivo.getInputStream()) {
+            estado = importacionService.iniciar(tipo, formato.get(), contenido);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).body(new RespuestaMensaje(COLA_LLENA));
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/v2/importaciones/{id}").buildAndExpand(estado.id()).toUri())
+                .body(new RespuestaImportacion(IMPORTACION_EN_COLA, estado));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Consultar importación",
+            description = "Retorna el estado de la importación, las filas procesadas, creadas y fallidas, y las filas por segundo")
+    public ResponseEntity<Respuesta> obtenerImportacion(@PathVariable UUID id) {
+        return importacionService.obtener(id)
+                .map(estado -> ResponseEntity.ok().<Respuesta>body(new RespuestaImportacion(IMPORTACION_ENCONTRADA, estado)))
+                .orElse(ResponseEntity.status(404).body(RespuestaMensaje.de("Importación " + id + " no encontrada")));
+    }
+}
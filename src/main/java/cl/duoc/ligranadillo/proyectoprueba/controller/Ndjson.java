@@ -0,0 +1,43 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+final class Ndjson {
+
+    static final String MEDIA_TYPE = "application/x-ndjson";
+    static final MediaType TIPO = MediaType.parseMediaType(MEDIA_TYPE);
+
+    private Ndjson() {
+    }
+
+    /**
+     * Escribe cada fila entregada por el exportador como una línea JSON directamente en la salida,
+     * sin acumular las filas en memoria.
+     */
+    static <T> StreamingResponseBody escribir(ObjectMapper objectMapper, Consumer<Consumer<T>> exportador) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return salida -> {
+            try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generador.setRootValueSeparator(null);
+                exportador.accept(fila -> {
+                    try {
+                        writer.writeValue(generador, fila);
+                        generador.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.config.EstadisticasSentencia;
+import cl.duoc.ligranadillo.proyectoprueba.config.RegistroSentencias;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaDatos;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v2/sentencias")
+@Tag(name = "Sentencias SQL", description = "Tiempos de ejecución de las sentencias SQL")
+public class SentenciasController {
+
+    private static final Mensaje ESTADISTICAS_OBTENIDAS = Mensaje.de("Estadísticas de sentencias obtenidas correctamente");
+    private static final Mensaje ESTADISTICAS_REINICIADAS = Mensaje.de("Estadísticas de sentencias reiniciadas");
+
+    @Autowired
+    private RegistroSentencias registroSentencias;
+
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Estadísticas de sentencias",
+            description = "Ejecuciones, tiempo total, promedio y máximo por forma de sentencia, de mayor a menor tiempo total")
+    public ResponseEntity<Respuesta> estadisticas() {
+        List<EstadisticasSentencia> estadisticas = registroSentencias.estadisticas();
+        return ResponseEntity.ok(new RespuestaDatos<>(ESTADISTICAS_OBTENIDAS, estadisticas));
+    }
+
+    @DeleteMapping("/estadisticas")
+    @Operation(summary = "Reiniciar estadísticas de sentencias")
+    public ResponseEntity<Respuesta> reiniciar() {
+        registroSentencias.reiniciar();
+        return ResponseEntity.ok(new RespuestaMensaje(ESTADISTICAS_REINICIADAS));
+    }
+}
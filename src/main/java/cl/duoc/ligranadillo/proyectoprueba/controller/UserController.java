@@ -1,80 +1,246 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
-import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import cl.duoc.ligranadillo.proyectoprueba.config.SesionFilter;
 import cl.duoc.ligranadillo.proyectoprueba.controller.request.LoginRequest;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.LoginResponse;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaActualizacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaEliminacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaLote;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaMensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaSesion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaUsuario;
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import cl.duoc.ligranadillo.proyectoprueba.service.CambiosUser;
+import cl.duoc.ligranadillo.proyectoprueba.service.LimiteLogins;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import cl.duoc.ligranadillo.proyectoprueba.service.TokenSesion;
+import cl.duoc.ligranadillo.proyectoprueba.service.TokensSesion;
 import cl.duoc.ligranadillo.proyectoprueba.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v2/users")
 @Tag(name = "Usuarios", description = "Microservicio para gestión de usuarios y autenticación")
 public class UserController {
 
+    private static final Mensaje USUARIOS_OBTENIDOS = Mensaje.de("Usuarios obtenidos correctamente");
+    private static final Mensaje LOTE_PROCESADO = Mensaje.de("Lote de usuarios procesado");
+    private static final Mensaje USUARIO_CREADO = Mensaje.de("Usuario creado exitosamente");
+    private static final Mensaje USUARIO_ENCONTRADO = Mensaje.de("Usuario encontrado");
+    private static final Mensaje USUARIO_ACTUALIZADO = Mensaje.de("Usuario actualizado correctamente");
+    private static final Mensaje USUARIO_LOGUEADO = Mensaje.de("Usuario logueado correctamente");
+    private static final Mensaje USUARIOS_ELIMINADOS = Mensaje.de("Usuarios eliminados");
+    private static final Mensaje CURSOR_INVALIDO = Mensaje.de("Cursor inválido");
+    private static final Mensaje MODIFICADO_POR_OTRA_SOLICITUD = Mensaje.de("El usuario fue modificado por otra solicitud; vuelva a obtenerlo");
+    private static final Mensaje SIN_CAMBIOS = Mensaje.de("Indique al menos un campo a modificar");
+    private static final Mensaje SIN_IDS = Mensaje.de("Indique al menos un ID");
+    private static final Mensaje USUARIO_ELIMINADO = Mensaje.de("Usuario eliminado correctamente");
+    private static final Mensaje USUARIO_DUPLICADO = Mensaje.de("Ya existe un usuario con ese correo o nombre de usuario");
+    private static final Mensaje CREDENCIALES_INVALIDAS = Mensaje.de("Credenciales inválidas o usuario no encontrado");
+    private static final Mensaje DEMASIADOS_LOGINS = Mensaje.de("Demasiados inicios de sesión en curso; intente nuevamente");
+    private static final Mensaje DEMASIADOS_INTENTOS = Mensaje.de("Demasiados intentos de inicio de sesión; intente más tarde");
+    private static final Mensaje SESION_VALIDA = Mensaje.de("Sesión válida");
+    private static final Mensaje SIN_SESION = Mensaje.de("Inicie sesión y envíe el token como Authorization: Bearer");
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LimiteLogins limiteLogins;
+
+    @Autowired
+    private TokensSesion tokensSesion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${paginacion.tamano-maximo:100}")
+    private int tamanoMaximo;
+
+    @Value("${lotes.tamano-maximo:5000}")
+    private int tamanoMaximoLote;
+
     @PostMapping("/crear")
     @Operation(summary = "Crear usuario", description = "Registra un nuevo usuario")
-    public ResponseEntity<Map<String, Object>> crearUsuario(@RequestBody User user) {
-        User creado = userService.guardarUser(user);
-        return ResponseEntity.status(201).body(Map.of(
-                "message", "Usuario creado exitosamente",
-                "user", creado
-        ));
+    public ResponseEntity<Respuesta> crearUsuario(@RequestBody User user) {
+        User creado;
+        try {
+            creado = userService.guardarUser(user);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body(new RespuestaMensaje(USUARIO_DUPLICADO));
+        }
+        return ResponseEntity.status(201).body(new RespuestaUsuario(USUARIO_CREADO, creado));
+    }
+
+    @PostMapping("/crear/lote")
+    @Operation(summary = "Crear usuarios en lote", description = "Registra varios usuarios agrupando los INSERT en lotes JDBC")
+    public ResponseEntity<Respuesta> crearUsuariosEnLote(@RequestBody List<User> usuarios) {
+        if (usuarios.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(413)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " usuarios"));
+        }
+        RespuestaLote respuesta = RespuestaLote.de(LOTE_PROCESADO, userService.guardarUsers(usuarios));
+        return ResponseEntity.status(respuesta.completo() ? 201 : 207).body(respuesta);
     }
 
     @GetMapping("/listar")
-    @Operation(summary = "Listar usuarios", description = "Obtiene todos los usuarios")
-    public ResponseEntity<Map<String, Object>> listarUsuarios() {
-        List<User> lista = userService.obtenerUsers();
-        return ResponseEntity.ok(Map.of(
-                "message", "Usuarios obtenidos correctamente",
-                "total", lista.size(),
-                "data", lista
-        ));
+    @Operation(summary = "Listar usuarios", description = "Obtiene los usuarios paginados por cursor")
+    public ResponseEntity<Respuesta> listarUsuarios(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${paginacion.tamano-por-defecto:20}") int tamano,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Pagina<User> pagina;
+        try {
+            pagina = userService.obtenerUsers(cursor, Pagina.tamanoValido(tamano, tamanoMaximo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(CURSOR_INVALIDO));
+        }
+        String etag = Etags.dePagina(pagina, User::getId, User::getVersion);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(RespuestaPagina.de(USUARIOS_OBTENIDOS, pagina));
+    }
+
+    @GetMapping(value = "/listar", produces = Ndjson.MEDIA_TYPE)
+    @Operation(summary = "Exportar usuarios", description = "Emite todos los usuarios como NDJSON, un usuario por línea")
+    public ResponseEntity<StreamingResponseBody> exportarUsuarios() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.TIPO)
+                .body(Ndjson.escribir(objectMapper, userService::exportarUsers));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener usuario por ID", description = "Obtiene un usuario por su ID")
-    public ResponseEntity<Map<String, Object>> obtenerUsuario(@PathVariable Long id) {
-        return userService.obtenerUserPorId(id)
-                .map(u -> ResponseEntity.ok(Map.of("message", "Usuario encontrado", "user", u)))
-                .orElse(ResponseEntity.status(404).body(Map.of("message", "Usuario con ID " + id + " no encontrado")));
+    public ResponseEntity<Respuesta> obtenerUsuario(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<User> user = userService.obtenerUserPorId(id);
+        if (user.isEmpty()) {
+            return ResponseEntity.status(404).body(RespuestaMensaje.de("Usuario con ID " + id + " no encontrado"));
+        }
+        String etag = Etags.deEntidad(id, user.get().getVersion(), accept);
+        if (Etags.coincide(ifNoneMatch, etag)) {
+            return ResponseEntity.status(304).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(new RespuestaUsuario(USUARIO_ENCONTRADO, user.get()));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar usuario", description = "Actualiza un usuario existente")
-    public ResponseEntity<Map<String, Object>> actualizarUsuario(@PathVariable Long id, @RequestBody User user) {
-        return userService.actualizarUser(id, user)
-                .map(u -> ResponseEntity.ok(Map.of("message", "Usuario actualizado correctamente", "user", u)))
-                .orElse(ResponseEntity.status(404).body(Map.of("message", "No se pudo actualizar: usuario con ID " + id + " no encontrado")));
+    public ResponseEntity<Respuesta> actualizarUsuario(@PathVariable Long id, @RequestBody User user,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Optional<User> actualizado;
+        try {
+            actualizado = userService.actualizarUser(id, user, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body(new RespuestaMensaje(USUARIO_DUPLICADO));
+        }
+        return actualizado
+                .map(a -> ResponseEntity.ok().eTag(Etags.deEntidad(id, a.getVersion(), accept))
+                        .<Respuesta>body(new RespuestaUsuario(USUARIO_ACTUALIZADO, a)))
+                .orElse(ResponseEntity.status(404).body(RespuestaMensaje.de("No se pudo actualizar: usuario con ID " + id + " no encontrado")));
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Actualizar campos del usuario", description = "Modifica solo los campos enviados con un único UPDATE y retorna las filas afectadas")
+    public ResponseEntity<Respuesta> actualizarUsuarioParcial(@PathVariable Long id, @RequestBody CambiosUser cambios,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (cambios.vacio()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(SIN_CAMBIOS));
+        }
+        int filas;
+        try {
+            filas = userService.actualizarUserParcial(id, cambios, Etags.versionRequerida(ifMatch, id));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).body(new RespuestaMensaje(MODIFICADO_POR_OTRA_SOLICITUD));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(409).body(new RespuestaMensaje(USUARIO_DUPLICADO));
+        }
+        if (filas == 0) {
+            return ResponseEntity.status(404).body(RespuestaMensaje.de("No se pudo actualizar: usuario con ID " + id + " no encontrado"));
+        }
+        return ResponseEntity.ok(new RespuestaActualizacion(USUARIO_ACTUALIZADO, filas));
+    }
+
+    @DeleteMapping(params = "ids")
+    @Operation(summary = "Eliminar usuarios en lote", description = "Elimina los usuarios indicados con sentencias DELETE ... IN por bloques")
+    public ResponseEntity<Respuesta> eliminarUsuarios(@RequestParam List<Long> ids) {
+        if (ids.isEmpty()) {
+            return ResponseEntity.status(400).body(new RespuestaMensaje(SIN_IDS));
+        }
+        if (ids.size() > tamanoMaximoLote) {
+            return ResponseEntity.status(413)
+                    .body(RespuestaMensaje.de("El lote supera el máximo de " + tamanoMaximoLote + " usuarios"));
+        }
+        int eliminados = userService.eliminarUsers(ids);
+        return ResponseEntity.ok(new RespuestaEliminacion(USUARIOS_ELIMINADOS, eliminados));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar usuario", description = "Elimina un usuario existente")
-    public ResponseEntity<Map<String, Object>> eliminarUsuario(@PathVariable Long id) {
+    public ResponseEntity<Respuesta> eliminarUsuario(@PathVariable Long id) {
         boolean eliminado = userService.eliminarUser(id);
         return eliminado
-                ? ResponseEntity.ok(Map.of("message", "Usuario eliminado correctamente"))
-                : ResponseEntity.status(404).body(Map.of("message", "Usuario con ID " + id + " no encontrado"));
+                ? ResponseEntity.ok(new RespuestaMensaje(USUARIO_ELIMINADO))
+                : ResponseEntity.status(404).body(RespuestaMensaje.de("Usuario con ID " + id + " no encontrado"));
     }
 
+    // La contraseña se verifica fuera del hilo de Tomcat; la respuesta se completa de forma asíncrona
     @PostMapping("/login")
-    @Operation(summary = "Login de usuario", description = "Autentica un usuario por email y password")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest loginRequest) {
-        Optional<User> userOpt = userService.login(loginRequest.getEmail(), loginRequest.getPassword());
-        return userOpt
-                .map(u -> ResponseEntity.ok(Map.of(
-                        "message", "Usuario logueado correctamente",
-                        "user", u)))
-                .orElse(ResponseEntity.status(401).body(Map.of(
-                        "message", "Credenciales inválidas o usuario no encontrado"
-                )));
+    @Operation(summary = "Login de usuario", description = "Autentica un usuario por email y password y entrega un token de sesión")
+    public CompletableFuture<ResponseEntity<Respuesta>> login(@RequestBody LoginRequest loginRequest,
+                                                              HttpServletRequest request) {
+        long espera = limiteLogins.segundosDeEspera(loginRequest.getEmail(), request.getRemoteAddr());
+        if (espera > 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(espera))
+                    .body(new RespuestaMensaje(DEMASIADOS_INTENTOS)));
+        }
+        try {
+            return userService.login(loginRequest.getEmail(), loginRequest.getPassword())
+                    .thenApply(userOpt -> userOpt
+                            .map(u -> {
+                                TokenSesion token = tokensSesion.emitir(u.getId());
+                                return ResponseEntity.<Respuesta>ok(new LoginResponse(USUARIO_LOGUEADO, u, token.token(), token.expiraEn()));
+                            })
+                            .orElse(ResponseEntity.status(401).body(new RespuestaMensaje(CREDENCIALES_INVALIDAS))));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new RespuestaMensaje(DEMASIADOS_LOGINS)));
+        }
+    }
+
+    @GetMapping("/sesion")
+    @Operation(summary = "Sesión actual", description = "Indica el usuario del token de sesión enviado en Authorization: Bearer, sin consultar la base de datos")
+    public ResponseEntity<Respuesta> sesion(@RequestAttribute(name = SesionFilter.USUARIO, required = false) Long usuarioId) {
+        if (usuarioId == null) {
+            return ResponseEntity.status(401)
+                    .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                    .body(new RespuestaMensaje(SIN_SESION));
+        }
+        return ResponseEntity.ok(new RespuestaSesion(SESION_VALIDA, usuarioId));
     }
 }
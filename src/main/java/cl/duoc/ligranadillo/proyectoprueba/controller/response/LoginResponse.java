@@ -1,16 +1,10 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller.response;
 
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-
-@Getter
-@Setter
-@AllArgsConstructor
-@NoArgsConstructor
-public class LoginResponse {
-    private String message;
-
+/**
+ * Respuesta de un login correcto: el token se envía después como {@code Authorization: Bearer}
+ * y vence en {@code expiraEn} segundos.
+ */
+public record LoginResponse(Mensaje message, User user, String token, long expiraEn) implements Respuesta {
 }
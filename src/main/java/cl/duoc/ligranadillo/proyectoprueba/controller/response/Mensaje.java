@@ -0,0 +1,60 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.IOException;
+
+/**
+ * Texto del campo {@code message}. Guarda el texto ya escapado y codificado en UTF-8, de modo
+ * que los mensajes constantes de los controladores se escriben copiando bytes en cada respuesta.
+ */
+@Schema(type = "string", example = "Cursos obtenidos correctamente")
+public final class Mensaje implements JsonSerializable {
+
+    private final SerializableString texto;
+
+    private Mensaje(String texto) {
+        this.texto = new SerializedString(texto);
+        // Se codifica al crear el mensaje y no en la primera respuesta
+        this.texto.asQuotedUTF8();
+    }
+
+    public static Mensaje de(String texto) {
+        return new Mensaje(texto);
+    }
+
+    public String texto() {
+        return texto.getValue();
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeString(texto);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Mensaje otro && texto().equals(otro.texto());
+    }
+
+    @Override
+    public int hashCode() {
+        return texto().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return texto();
+    }
+}
@@ -0,0 +1,9 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+/**
+ * Cuerpo de las respuestas JSON de la API; todas incluyen {@code message}.
+ */
+public interface Respuesta {
+
+    Mensaje message();
+}
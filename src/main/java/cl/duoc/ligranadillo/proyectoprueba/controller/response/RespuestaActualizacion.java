@@ -0,0 +1,4 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+public record RespuestaActualizacion(Mensaje message, int actualizados) implements Respuesta {
+}
@@ -0,0 +1,6 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+
+public record RespuestaContenido(Mensaje message, Contenido contenido) implements Respuesta {
+}
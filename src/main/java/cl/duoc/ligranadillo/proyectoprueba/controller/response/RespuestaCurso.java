@@ -0,0 +1,6 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+
+public record RespuestaCurso(Mensaje message, Curso curso) implements Respuesta {
+}
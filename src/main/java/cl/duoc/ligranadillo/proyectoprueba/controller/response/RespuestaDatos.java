@@ -0,0 +1,4 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+public record RespuestaDatos<T>(Mensaje message, T data) implements Respuesta {
+}
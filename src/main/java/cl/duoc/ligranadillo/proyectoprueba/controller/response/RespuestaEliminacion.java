@@ -0,0 +1,4 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+public record RespuestaEliminacion(Mensaje message, int eliminados) implements Respuesta {
+}
@@ -0,0 +1,6 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+
+public record RespuestaEvaluacion(Mensaje message, Evaluacion evaluacion) implements Respuesta {
+}
@@ -0,0 +1,6 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.EstadoImportacion;
+
+public record RespuestaImportacion(Mensaje message, EstadoImportacion importacion) implements Respuesta {
+}
@@ -0,0 +1,10 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import java.util.List;
+
+public record RespuestaLista<T>(Mensaje message, int total, List<T> data) implements Respuesta {
+
+    public static <T> RespuestaLista<T> de(Mensaje message, List<T> data) {
+        return new RespuestaLista<>(message, data.size(), data);
+    }
+}
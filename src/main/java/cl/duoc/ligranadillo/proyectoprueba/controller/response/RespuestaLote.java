@@ -0,0 +1,18 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoLote;
+
+import java.util.List;
+
+public record RespuestaLote(Mensaje message, long creados, long fallidos, List<ResultadoLote> resultados)
+        implements Respuesta {
+
+    public static RespuestaLote de(Mensaje message, List<ResultadoLote> resultados) {
+        long creados = resultados.stream().filter(ResultadoLote::exitoso).count();
+        return new RespuestaLote(message, creados, resultados.size() - creados, resultados);
+    }
+
+    public boolean completo() {
+        return fallidos == 0;
+    }
+}
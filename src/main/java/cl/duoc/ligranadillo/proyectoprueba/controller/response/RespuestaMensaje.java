@@ -0,0 +1,8 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+public record RespuestaMensaje(Mensaje message) implements Respuesta {
+
+    public static RespuestaMensaje de(String message) {
+        return new RespuestaMensaje(Mensaje.de(message));
+    }
+}
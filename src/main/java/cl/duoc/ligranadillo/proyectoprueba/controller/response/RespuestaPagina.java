@@ -0,0 +1,12 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+
+import java.util.List;
+
+public record RespuestaPagina<T>(Mensaje message, int total, List<T> data, String next) implements Respuesta {
+
+    public static <T> RespuestaPagina<T> de(Mensaje message, Pagina<T> pagina) {
+        return new RespuestaPagina<>(message, pagina.data().size(), pagina.data(), pagina.next());
+    }
+}
@@ -0,0 +1,6 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.EstadisticasIndice;
+
+public record RespuestaReconstruccion(Mensaje message, EstadisticasIndice data, long duracionMs) implements Respuesta {
+}
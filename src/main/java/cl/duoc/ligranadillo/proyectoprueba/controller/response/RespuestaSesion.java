@@ -0,0 +1,4 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+public record RespuestaSesion(Mensaje message, long userId) implements Respuesta {
+}
@@ -0,0 +1,6 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller.response;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
+
+public record RespuestaUsuario(Mensaje message, User user) implements Respuesta {
+}
@@ -1,23 +1,32 @@
 package cl.duoc.ligranadillo.proyectoprueba.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contenido")
 @Schema(description = "Entidad Contenido que representa recursos didácticos como videos o documentos")
 public class Contenido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "contenido_id")
+    @TableGenerator(name = "contenido_id", table = "id_generador", pkColumnName = "entidad",
+            valueColumnName = "siguiente_valor", pkColumnValue = "contenido", allocationSize = 50)
     @Schema(description = "ID único del contenido", example = "1")
     private Long id;
 
@@ -32,4 +41,9 @@ public class Contenido {
 
     @Schema(description = "Descripción del contenido", example = "Video explicativo de conceptos básicos")
     private String descripcion;
+
+    @Version
+    @Schema(description = "Versión del registro; aumenta con cada modificación", example = "0",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
 }
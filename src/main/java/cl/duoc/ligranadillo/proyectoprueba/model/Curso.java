@@ -1,23 +1,41 @@
 package cl.duoc.ligranadillo.proyectoprueba.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDate;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "curso")
+@Table(indexes = {
+        @Index(name = "idx_curso_fecha_inicio", columnList = "fecha_inicio, id"),
+        @Index(name = "idx_curso_fecha_fin", columnList = "fecha_fin, id"),
+        @Index(name = "idx_curso_categoria", columnList = "categoria, id")
+})
 @Schema(description = "Entidad que representa un curso impartido por la plataforma")
 public class Curso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "curso_id")
+    @TableGenerator(name = "curso_id", table = "id_generador", pkColumnName = "entidad",
+            valueColumnName = "siguiente_valor", pkColumnValue = "curso", allocationSize = 50)
     @Schema(description = "ID único del curso", example = "1")
     private Long id;
 
@@ -31,11 +49,16 @@ public class Curso {
     private String categoria;
 
     @Schema(description = "Fecha de inicio del curso", example = "2025-07-01")
-    private String fechaInicio;
+    private LocalDate fechaInicio;
 
     @Schema(description = "Fecha de término del curso", example = "2025-08-01")
-    private String fechaFin;
+    private LocalDate fechaFin;
 
     @Schema(description = "Nombre del instructor del curso", example = "Juan Pérez")
     private String instructor;
+
+    @Version
+    @Schema(description = "Versión del registro; aumenta con cada modificación", example = "0",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
 }
@@ -1,10 +1,15 @@
 package cl.duoc.ligranadillo.proyectoprueba.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,11 +18,14 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_evaluacion_curso_id", columnList = "curso_id, id"))
 @Schema(description = "Entidad que representa una evaluación en el sistema")
 public class Evaluacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "evaluacion_id")
+    @TableGenerator(name = "evaluacion_id", table = "id_generador", pkColumnName = "entidad",
+            valueColumnName = "siguiente_valor", pkColumnValue = "evaluacion", allocationSize = 50)
     @Schema(description = "Identificador único de la evaluación", example = "1")
     private Long id;
 
@@ -30,6 +38,12 @@ public class Evaluacion {
     @Schema(description = "Puntaje máximo alcanzable en la evaluación", example = "100")
     private int puntajeMaximo;
 
+    @Column(name = "curso_id")
     @Schema(description = "Identificador del curso asociado", example = "3")
-    private String cursoId;
+    private Long cursoId;
+
+    @Version
+    @Schema(description = "Versión del registro; aumenta con cada modificación", example = "0",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
 }
@@ -1,21 +1,32 @@
 package cl.duoc.ligranadillo.proyectoprueba.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.*;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "uk_user_email", columnList = "email", unique = true),
+        @Index(name = "uk_user_username", columnList = "username", unique = true)
+})
 @Schema(description = "Usuario registrado en el sistema")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = "id_generador", pkColumnName = "entidad",
+            valueColumnName = "siguiente_valor", pkColumnValue = "user", allocationSize = 50)
     @Schema(description = "ID único del usuario", example = "1")
     private Long id;
 
@@ -25,7 +36,9 @@ public class User {
     @Schema(description = "Nombre de usuario para el login", example = "juanito")
     private String username;
 
-    @Schema(description = "Contraseña del usuario en texto plano (solo para pruebas)", example = "pass123")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Schema(description = "Contraseña del usuario; se guarda como hash bcrypt y no se incluye en las respuestas",
+            example = "pass123", accessMode = Schema.AccessMode.WRITE_ONLY)
     private String password;
 
     @Schema(description = "Correo electrónico del usuario", example = "juanito@example.com")
@@ -33,4 +46,9 @@ public class User {
 
     @Schema(description = "Indica si el usuario ya validó su cuenta", example = "false")
     private boolean validated;
+
+    @Version
+    @Schema(description = "Versión del registro; aumenta con cada modificación", example = "0",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
 }
@@ -1,7 +1,55 @@
 package cl.duoc.ligranadillo.proyectoprueba.repository;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ContenidoRepository extends JpaRepository<Contenido, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "contenido-consultas")
+    })
+    List<Contenido> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Para IndiceBusqueda; ver CursoRepository
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Contenido> findParaIndiceByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Contenido> streamAllByOrderByIdAsc();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Contenido c set
+              c.titulo = coalesce(:titulo, c.titulo),
+              c.tipo = coalesce(:tipo, c.tipo),
+              c.url = coalesce(:url, c.url),
+              c.descripcion = coalesce(:descripcion, c.descripcion),
+              c.version = c.version + 1
+            where c.id = :id and (:version is null or c.version = :version)""")
+    int actualizarParcial(Long id, Long version, String titulo, String tipo, String url, String descripcion);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Contenido c where c.id = :id")
+    int eliminarPorId(Long id);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Contenido c where c.id in :ids")
+    int eliminarPorIds(Collection<Long> ids);
 }
@@ -1,9 +1,102 @@
 package cl.duoc.ligranadillo.proyectoprueba.repository;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CursoRepository extends JpaRepository<Curso, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "curso-consultas")
+    })
+    List<Curso> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Misma página que findByIdGreaterThanOrderByIdAsc para IndiceBusqueda, que recorre toda la
+    // tabla: sin cache de consultas ni de entidades, como la exportación
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Curso> findParaIndiceByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // La exportación recorre toda la tabla: no pasa por la cache para no desalojar lo que sí se lee seguido
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<Curso> streamAllByOrderByIdAsc();
+
+    // Búsquedas por fecha paginadas por keyset sobre (fecha, id): recorren los índices
+    // idx_curso_fecha_inicio / idx_curso_fecha_fin en orden, desde la última fila entregada.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "curso-consultas")
+    })
+    @Query("""
+            select c from Curso c
+            where c.fechaFin >= :fecha and (c.fechaFin > :fecha or c.id > :id)
+              and c.fechaInicio <= :dia
+            order by c.fechaFin, c.id""")
+    List<Curso> buscarActivos(LocalDate dia, LocalDate fecha, Long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "curso-consultas")
+    })
+    @Query("""
+            select c from Curso c
+            where c.fechaInicio >= :fecha and (c.fechaInicio > :fecha or c.id > :id)
+              and c.fechaInicio <= :hasta
+            order by c.fechaInicio, c.id""")
+    List<Curso> buscarPorInicio(LocalDate fecha, Long id, LocalDate hasta, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "curso-consultas")
+    })
+    @Query("""
+            select c from Curso c
+            where c.fechaFin >= :fecha and (c.fechaFin > :fecha or c.id > :id)
+              and c.fechaFin <= :hasta
+            order by c.fechaFin, c.id""")
+    List<Curso> buscarPorFin(LocalDate fecha, Long id, LocalDate hasta, Limit limit);
+
+    // Un solo UPDATE sin leer antes la fila: los parámetros nulos conservan el valor actual y
+    // la versión se incrementa en la misma sentencia. Con :version solo actualiza si coincide.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Curso c set
+              c.nombre = coalesce(:nombre, c.nombre),
+              c.descripcion = coalesce(:descripcion, c.descripcion),
+              c.categoria = coalesce(:categoria, c.categoria),
+              c.fechaInicio = coalesce(:fechaInicio, c.fechaInicio),
+              c.fechaFin = coalesce(:fechaFin, c.fechaFin),
+              c.instructor = coalesce(:instructor, c.instructor),
+              c.version = c.version + 1
+            where c.id = :id and (:version is null or c.version = :version)""")
+    int actualizarParcial(Long id, Long version, String nombre, String descripcion, String categoria,
+                          LocalDate fechaInicio, LocalDate fechaFin, String instructor);
+
+    // DELETE directos: a diferencia de deleteById no cargan la entidad antes de borrarla
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Curso c where c.id = :id")
+    int eliminarPorId(Long id);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Curso c where c.id in :ids")
+    int eliminarPorIds(Collection<Long> ids);
 }
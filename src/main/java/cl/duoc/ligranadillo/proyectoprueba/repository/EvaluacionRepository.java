@@ -1,9 +1,48 @@
 package cl.duoc.ligranadillo.proyectoprueba.repository;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EvaluacionRepository extends JpaRepository<Evaluacion, Long> {
+    List<Evaluacion> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Evaluacion> findByCursoIdAndIdGreaterThanOrderByIdAsc(Long cursoId, Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Evaluacion> streamAllByOrderByIdAsc();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Evaluacion e set
+              e.titulo = coalesce(:titulo, e.titulo),
+              e.tipo = coalesce(:tipo, e.tipo),
+              e.puntajeMaximo = coalesce(:puntajeMaximo, e.puntajeMaximo),
+              e.cursoId = coalesce(:cursoId, e.cursoId),
+              e.version = e.version + 1
+            where e.id = :id and (:version is null or e.version = :version)""")
+    int actualizarParcial(Long id, Long version, String titulo, String tipo, Integer puntajeMaximo, Long cursoId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Evaluacion e where e.id = :id")
+    int eliminarPorId(Long id);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Evaluacion e where e.id in :ids")
+    int eliminarPorIds(Collection<Long> ids);
 }
@@ -1,10 +1,58 @@
 package cl.duoc.ligranadillo.proyectoprueba.repository;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<User> streamAllByOrderByIdAsc();
+
+    // Ordenados por correo para recorrer solo el índice uk_user_email
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select u.email from User u order by u.email")
+    Stream<String> streamEmails();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update User u set
+              u.nombre = coalesce(:nombre, u.nombre),
+              u.password = coalesce(:password, u.password),
+              u.email = coalesce(:email, u.email),
+              u.validated = coalesce(:validated, u.validated),
+              u.version = u.version + 1
+            where u.id = :id and (:version is null or u.version = :version)""")
+    int actualizarParcial(Long id, Long version, String nombre, String password, String email, Boolean validated);
+
+    // Reemplaza la contraseña guardada por su hash sin cambiar la versión; si entretanto otra
+    // solicitud la cambió, no actualiza nada
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.password = :hash where u.id = :id and u.password = :anterior")
+    int actualizarPassword(Long id, String anterior, String hash);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int eliminarPorId(Long id);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from User u where u.id in :ids")
+    int eliminarPorIds(Collection<Long> ids);
 }
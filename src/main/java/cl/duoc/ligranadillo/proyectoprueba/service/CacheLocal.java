@@ -0,0 +1,105 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Cache en memoria por id, acotada por cantidad de entradas (se desaloja la menos usada)
+ * y por tiempo de vida. Solo guarda resultados presentes; los ids inexistentes siempre
+ * vuelven a consultarse.
+ */
+public class CacheLocal<V> {
+
+    private final String nombre;
+    private final int tamanoMaximo;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+    private final LinkedHashMap<Long, Entrada<V>> entradas;
+
+    private long generacion;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+
+    public CacheLocal(String nombre, int tamanoMaximo, Duration ttl) {
+        this(nombre, tamanoMaximo, ttl, System::nanoTime);
+    }
+
+    CacheLocal(String nombre, int tamanoMaximo, Duration ttl, LongSupplier reloj) {
+        if (tamanoMaximo < 1) {
+            throw new IllegalArgumentException("El tamaño máximo de la cache debe ser positivo");
+        }
+        this.nombre = nombre;
+        this.tamanoMaximo = tamanoMaximo;
+        this.ttlNanos = ttl.toNanos();
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entrada<V>> eldest) {
+                if (size() > CacheLocal.this.tamanoMaximo) {
+                    desalojos++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<V> obtener(Long id, Function<Long, Optional<V>> cargador) {
+        long generacionLectura;
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(id);
+            if (entrada != null) {
+                if (reloj.getAsLong() - entrada.expiraEn() < 0) {
+                    aciertos++;
+                    return Optional.of(entrada.valor());
+                }
+                entradas.remove(id);
+                desalojos++;
+            }
+            fallos++;
+            generacionLectura = generacion;
+        }
+        Optional<V> valor = cargador.apply(id);
+        valor.ifPresent(v -> guardarSiVigente(id, v, generacionLectura));
+        return valor;
+    }
+
+    /**
+     * Si hubo una invalidación mientras se cargaba el valor, la lectura puede ser anterior
+     * a esa escritura y no se guarda.
+     */
+    private synchronized void guardarSiVigente(Long id, V valor, long generacionLectura) {
+        if (generacion == generacionLectura) {
+            entradas.put(id, new Entrada<>(valor, reloj.getAsLong() + ttlNanos));
+        }
+    }
+
+    public synchronized void invalidar(Long id) {
+        generacion++;
+        entradas.remove(id);
+    }
+
+    // Para cambios que la base aplica sin pasar por el servicio, como ON DELETE SET NULL
+    public synchronized void invalidarSi(Predicate<V> condicion) {
+        generacion++;
+        entradas.values().removeIf(entrada -> condicion.test(entrada.valor()));
+    }
+
+    public synchronized void limpiar() {
+        generacion++;
+        entradas.clear();
+    }
+
+    public synchronized EstadisticasCache estadisticas() {
+        return new EstadisticasCache(nombre, entradas.size(), tamanoMaximo, aciertos, fallos, desalojos);
+    }
+
+    private record Entrada<V>(V valor, long expiraEn) {
+    }
+}
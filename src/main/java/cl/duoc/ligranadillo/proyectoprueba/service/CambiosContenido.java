@@ -0,0 +1,12 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+public record CambiosContenido(String titulo, String tipo, String url, String descripcion) {
+
+    public boolean vacio() {
+        return titulo == null && tipo == null && url == null && descripcion == null;
+    }
+
+    boolean modificaTextoIndexado() {
+        return titulo != null || descripcion != null;
+    }
+}
@@ -0,0 +1,19 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.time.LocalDate;
+
+/**
+ * Campos a modificar con PATCH; los que llegan en {@code null} conservan su valor actual.
+ */
+public record CambiosCurso(String nombre, String descripcion, String categoria,
+                           LocalDate fechaInicio, LocalDate fechaFin, String instructor) {
+
+    public boolean vacio() {
+        return nombre == null && descripcion == null && categoria == null
+                && fechaInicio == null && fechaFin == null && instructor == null;
+    }
+
+    boolean modificaTextoIndexado() {
+        return nombre != null || descripcion != null;
+    }
+}
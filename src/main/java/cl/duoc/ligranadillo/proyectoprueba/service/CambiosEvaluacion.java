@@ -0,0 +1,12 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+public record CambiosEvaluacion(String titulo, String tipo, Integer puntajeMaximo, Long cursoId) {
+
+    public boolean vacio() {
+        return titulo == null && tipo == null && puntajeMaximo == null && cursoId == null;
+    }
+
+    boolean modificaTextoIndexado() {
+        return titulo != null;
+    }
+}
@@ -0,0 +1,8 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+public record CambiosUser(String nombre, String password, String email, Boolean validated) {
+
+    public boolean vacio() {
+        return nombre == null && password == null && email == null && validated == null;
+    }
+}
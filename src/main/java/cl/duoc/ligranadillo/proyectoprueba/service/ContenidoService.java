@@ -2,50 +2,123 @@ package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
 import cl.duoc.ligranadillo.proyectoprueba.repository.ContenidoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ContenidoService {
 
     private final ContenidoRepository contenidoRepository;
+    private final InsercionPorLotes insercionPorLotes;
+    private final IndiceBusqueda indiceBusqueda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public ContenidoService(ContenidoRepository contenidoRepository) {
+    public ContenidoService(ContenidoRepository contenidoRepository,
+                            InsercionPorLotes insercionPorLotes, IndiceBusqueda indiceBusqueda) {
         this.contenidoRepository = contenidoRepository;
+        this.insercionPorLotes = insercionPorLotes;
+        this.indiceBusqueda = indiceBusqueda;
     }
 
     public Contenido guardarContenido(Contenido contenido) {
-        return contenidoRepository.save(contenido);
+        Contenido guardado = contenidoRepository.save(contenido);
+        indiceBusqueda.indexar(guardado);
+        return guardado;
+    }
+
+    public List<ResultadoLote> guardarContenidos(List<Contenido> contenidos) {
+        List<ResultadoLote> resultados = insercionPorLotes.insertar(contenidos, Contenido::getId, Contenido::setId);
+        resultados.stream()
+                .filter(ResultadoLote::exitoso)
+                .forEach(resultado -> indiceBusqueda.indexar(contenidos.get(resultado.indice())));
+        return resultados;
     }
 
+    @Transactional(readOnly = true)
     public List<Contenido> obtenerContenidos() {
         return contenidoRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Pagina<Contenido> obtenerContenidos(String cursor, int tamano) {
+        long desde = Pagina.decodificarCursor(cursor);
+        List<Contenido> filas = contenidoRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(tamano + 1));
+        return Pagina.de(filas, tamano, Contenido::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarContenidos(Consumer<Contenido> consumidor) {
+        try (Stream<Contenido> filas = contenidoRepository.streamAllByOrderByIdAsc()) {
+            filas.forEach(contenido -> {
+                consumidor.accept(contenido);
+                entityManager.detach(contenido);
+            });
+        }
+    }
+
+    // Se resuelve en la cache de segundo nivel (región contenido); ver CursoService.obtenerCursoPorId
+    @Transactional
     public Optional<Contenido> obtenerContenidoPorId(Long id) {
         return contenidoRepository.findById(id);
     }
 
     public Optional<Contenido> actualizarContenido(Long id, Contenido contenidoActualizado) {
+        return actualizarContenido(id, contenidoActualizado, null);
+    }
+
+    public Optional<Contenido> actualizarContenido(Long id, Contenido contenidoActualizado, Long versionEsperada) {
         return contenidoRepository.findById(id).map(contenidoExistente -> {
+            if (versionEsperada != null && contenidoExistente.getVersion() != versionEsperada) {
+                throw new OptimisticLockingFailureException("El contenido con ID " + id + " fue modificado por otra solicitud");
+            }
             contenidoExistente.setTitulo(contenidoActualizado.getTitulo());
             contenidoExistente.setTipo(contenidoActualizado.getTipo());
             contenidoExistente.setUrl(contenidoActualizado.getUrl());
             contenidoExistente.setDescripcion(contenidoActualizado.getDescripcion());
-            return contenidoRepository.save(contenidoExistente);
+            Contenido guardado = contenidoRepository.save(contenidoExistente);
+            indiceBusqueda.indexar(guardado);
+            return guardado;
         });
     }
 
+    public int actualizarContenidoParcial(Long id, CambiosContenido cambios, Long versionEsperada) {
+        int filas = contenidoRepository.actualizarParcial(id, versionEsperada,
+                cambios.titulo(), cambios.tipo(), cambios.url(), cambios.descripcion());
+        if (filas == 0 && versionEsperada != null && contenidoRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("El contenido con ID " + id + " fue modificado por otra solicitud");
+        }
+        if (filas > 0 && cambios.modificaTextoIndexado()) {
+            contenidoRepository.findById(id).ifPresent(indiceBusqueda::indexar);
+        }
+        return filas;
+    }
+
     public boolean eliminarContenido(Long id) {
-        if (contenidoRepository.existsById(id)) {
-            contenidoRepository.deleteById(id);
-            return true;
+        boolean eliminado = contenidoRepository.eliminarPorId(id) > 0;
+        if (eliminado) {
+            indiceBusqueda.eliminar(IndiceBusqueda.CONTENIDO, id);
         }
-        return false;
+        return eliminado;
+    }
+
+    public int eliminarContenidos(Collection<Long> ids) {
+        int eliminados = EliminacionPorLotes.eliminar(ids, contenidoRepository::eliminarPorIds);
+        ids.forEach(id -> indiceBusqueda.eliminar(IndiceBusqueda.CONTENIDO, id));
+        return eliminados;
     }
 }
 
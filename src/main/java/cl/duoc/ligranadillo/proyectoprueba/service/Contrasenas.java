@@ -0,0 +1,108 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Guarda las contraseñas como hash bcrypt de costo {@code contrasenas.costo}. Las filas anteriores
+ * tienen la contraseña en texto plano; {@link #requiereActualizar} indica cuándo reemplazarla por
+ * un hash (también si el hash tiene un costo menor al configurado) después de un login correcto.
+ * <p>
+ * Verificar un hash cuesta decenas de milisegundos de CPU, así que los logins se verifican en un
+ * pool propio de {@code contrasenas.hilos} hilos con una cola de {@code contrasenas.cola} tareas:
+ * una ráfaga de logins no ocupa los hilos de Tomcat y, con la cola llena, se rechaza en vez de
+ * acumularse. El pool publica sus métricas como {@code executor_*{name="verificacion-contrasenas"}}.
+ */
+@Component
+public class Contrasenas {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    private final BCryptPasswordEncoder encoder;
+    private final ExecutorService verificaciones;
+    private final Counter rechazadas;
+    // Se compara contra este hash cuando el usuario no existe, para que la respuesta tarde lo mismo
+    private final String hashFicticio;
+
+    @Autowired
+    public Contrasenas(@Value("${contrasenas.costo:10}") int costo,
+                       @Value("${contrasenas.hilos:0}") int hilos,
+                       @Value("${contrasenas.cola:100}") int cola,
+                       ObjectProvider<MeterRegistry> registry) {
+        this(costo, hilos, cola, registry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    // Con hilos = 0 se usa un hilo por CPU: la verificación solo usa CPU
+    public Contrasenas(int costo, int hilos, int cola, MeterRegistry registry) {
+        int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.encoder = new BCryptPasswordEncoder(costo);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(tamano, tamano, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(cola),
+                Thread.ofPlatform().name("verificacion-contrasenas-", 1).daemon().factory());
+        this.verificaciones = ExecutorServiceMetrics.monitor(registry, pool, "verificacion-contrasenas");
+        this.rechazadas = Counter.builder("contrasenas.verificaciones.rechazadas")
+                .description("Logins rechazados con la cola de verificación llena")
+                .register(registry);
+        this.hashFicticio = encoder.encode("");
+    }
+
+    public String codificar(String contrasena) {
+        return contrasena == null ? null : encoder.encode(contrasena);
+    }
+
+    public boolean verificar(String contrasena, String almacenada) {
+        if (contrasena == null || almacenada == null) {
+            encoder.matches("", hashFicticio);
+            return false;
+        }
+        if (esHash(almacenada)) {
+            return encoder.matches(contrasena, almacenada);
+        }
+        return MessageDigest.isEqual(contrasena.getBytes(StandardCharsets.UTF_8), almacenada.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean requiereActualizar(String almacenada) {
+        return almacenada != null && (!esHash(almacenada) || encoder.upgradeEncoding(almacenada));
+    }
+
+    /**
+     * Ejecuta la tarea en el pool de verificación.
+     *
+     * @throws RejectedExecutionException si la cola está llena
+     */
+    public <T> CompletableFuture<T> enPool(Supplier<T> tarea) {
+        try {
+            return CompletableFuture.supplyAsync(tarea, verificaciones);
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        verificaciones.shutdown();
+    }
+
+    private static boolean esHash(String almacenada) {
+        return BCRYPT.matcher(almacenada).matches();
+    }
+}
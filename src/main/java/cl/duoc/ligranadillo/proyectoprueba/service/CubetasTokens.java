@@ -0,0 +1,135 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Una cubeta de tokens por clave: cada clave tiene hasta {@code capacidad} tokens y recupera
+ * {@code capacidad} por {@code periodo}. Las cubetas se reparten en franjas con su propio lock
+ * para que solicitudes con claves distintas no compitan entre sí.
+ * <p>
+ * Una cubeta sin uso durante un periodo completo está llena, igual que una nueva, así que se
+ * descarta al pasar por su franja. Además cada franja guarda a lo más
+ * {@code maximoCubetas / franjas} cubetas y desaloja la usada hace más tiempo, para que una
+ * ráfaga de claves distintas no haga crecer la memoria sin límite.
+ */
+public class CubetasTokens {
+
+    private final int capacidad;
+    private final long periodoNanos;
+    private final double nanosPorToken;
+    private final int maximoPorFranja;
+    private final LongSupplier reloj;
+    private final Franja[] franjas;
+
+    public CubetasTokens(int capacidad, Duration periodo, int franjas, int maximoCubetas) {
+        this(capacidad, periodo, franjas, maximoCubetas, System::nanoTime);
+    }
+
+    CubetasTokens(int capacidad, Duration periodo, int franjas, int maximoCubetas, LongSupplier reloj) {
+        if (capacidad < 1 || periodo.isNegative() || periodo.isZero()) {
+            throw new IllegalArgumentException("La capacidad y el periodo de las cubetas deben ser positivos");
+        }
+        // Potencia de dos, para elegir la franja con una máscara
+        int cantidad = franjas <= 1 ? 1 : Integer.highestOneBit(franjas - 1) << 1;
+        this.capacidad = capacidad;
+        this.periodoNanos = periodo.toNanos();
+        this.nanosPorToken = (double) periodoNanos / capacidad;
+        this.maximoPorFranja = Math.max(1, maximoCubetas / cantidad);
+        this.reloj = reloj;
+        this.franjas = new Franja[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            this.franjas[i] = new Franja();
+        }
+    }
+
+    /**
+     * Toma un token de la cubeta de la clave.
+     *
+     * @return 0 si había un token, o los nanosegundos que faltan para el siguiente
+     */
+    public long consumir(String clave) {
+        Franja franja = franja(clave);
+        synchronized (franja) {
+            long ahora = reloj.getAsLong();
+            Cubeta cubeta = franja.cubetas.get(clave);
+            if (cubeta == null) {
+                cubeta = new Cubeta(capacidad, ahora);
+                franja.cubetas.put(clave, cubeta);
+            } else {
+                cubeta.recargar(ahora);
+            }
+            franja.descartarInactivas(ahora);
+            if (cubeta.tokens >= 1) {
+                cubeta.tokens--;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - cubeta.tokens) * nanosPorToken));
+        }
+    }
+
+    /**
+     * Devuelve un token tomado con {@link #consumir} que finalmente no se usó.
+     */
+    public void devolver(String clave) {
+        Franja franja = franja(clave);
+        synchronized (franja) {
+            Cubeta cubeta = franja.cubetas.get(clave);
+            if (cubeta != null) {
+                cubeta.tokens = Math.min(capacidad, cubeta.tokens + 1);
+            }
+        }
+    }
+
+    public int tamano() {
+        int tamano = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                tamano += franja.cubetas.size();
+            }
+        }
+        return tamano;
+    }
+
+    private Franja franja(String clave) {
+        int h = clave.hashCode();
+        return franjas[(h ^ (h >>> 16)) & (franjas.length - 1)];
+    }
+
+    private final class Franja {
+
+        // En orden de acceso: las primeras son las usadas hace más tiempo
+        private final LinkedHashMap<String, Cubeta> cubetas = new LinkedHashMap<>(16, 0.75f, true);
+
+        void descartarInactivas(long ahora) {
+            Iterator<Cubeta> iterador = cubetas.values().iterator();
+            int tamano = cubetas.size();
+            while (iterador.hasNext()) {
+                Cubeta cubeta = iterador.next();
+                if (tamano <= maximoPorFranja && ahora - cubeta.ultimaRecarga < periodoNanos) {
+                    return;
+                }
+                iterador.remove();
+                tamano--;
+            }
+        }
+    }
+
+    private final class Cubeta {
+
+        private double tokens;
+        private long ultimaRecarga;
+
+        Cubeta(double tokens, long ahora) {
+            this.tokens = tokens;
+            this.ultimaRecarga = ahora;
+        }
+
+        void recargar(long ahora) {
+            tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) / nanosPorToken);
+            ultimaRecarga = ahora;
+        }
+    }
+}
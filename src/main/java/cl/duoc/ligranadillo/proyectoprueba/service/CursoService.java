@@ -1,50 +1,183 @@
 package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
 import cl.duoc.ligranadillo.proyectoprueba.repository.CursoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CursoService {
 
     private final CursoRepository cursoRepository;
+    private final CacheLocal<Evaluacion> cacheEvaluaciones;
+    private final InsercionPorLotes insercionPorLotes;
+    private final IndiceBusqueda indiceBusqueda;
 
-    public CursoService(CursoRepository cursoRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CursoService(CursoRepository cursoRepository, CacheLocal<Evaluacion> cacheEvaluaciones,
+                        InsercionPorLotes insercionPorLotes, IndiceBusqueda indiceBusqueda) {
         this.cursoRepository = cursoRepository;
+        this.cacheEvaluaciones = cacheEvaluaciones;
+        this.insercionPorLotes = insercionPorLotes;
+        this.indiceBusqueda = indiceBusqueda;
     }
 
     public Curso guardarCurso(Curso curso) {
-        return cursoRepository.save(curso);
+        Curso guardado = cursoRepository.save(curso);
+        indiceBusqueda.indexar(guardado);
+        return guardado;
+    }
+
+    public List<ResultadoLote> guardarCursos(List<Curso> cursos) {
+        List<ResultadoLote> resultados = insercionPorLotes.insertar(cursos, Curso::getId, Curso::setId);
+        resultados.stream()
+                .filter(ResultadoLote::exitoso)
+                .forEach(resultado -> indiceBusqueda.indexar(cursos.get(resultado.indice())));
+        return resultados;
     }
 
+    @Transactional(readOnly = true)
     public List<Curso> obtenerCursos() {
         return cursoRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Pagina<Curso> obtenerCursos(String cursor, int tamano) {
+        long desde = Pagina.decodificarCursor(cursor);
+        List<Curso> filas = cursoRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(tamano + 1));
+        return Pagina.de(filas, tamano, Curso::getId);
+    }
+
+    /**
+     * Cursos que se están dictando el día indicado, ordenados por fecha de término.
+     */
+    @Transactional(readOnly = true)
+    public Pagina<Curso> buscarCursosActivos(LocalDate dia, String cursor, int tamano) {
+        Pagina.CursorFecha desde = desdeCursor(cursor, dia);
+        List<Curso> filas = cursoRepository.buscarActivos(dia, desde.fecha(), desde.id(), Limit.of(tamano + 1));
+        return Pagina.conCursor(filas, tamano, curso -> Pagina.codificarCursor(curso.getFechaFin(), curso.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public Pagina<Curso> buscarCursosPorInicio(LocalDate desde, LocalDate hasta, String cursor, int tamano) {
+        Pagina.CursorFecha inicio = desdeCursor(cursor, desde);
+        List<Curso> filas = cursoRepository.buscarPorInicio(inicio.fecha(), inicio.id(), hasta, Limit.of(tamano + 1));
+        return Pagina.conCursor(filas, tamano, curso -> Pagina.codificarCursor(curso.getFechaInicio(), curso.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public Pagina<Curso> buscarCursosPorFin(LocalDate desde, LocalDate hasta, String cursor, int tamano) {
+        Pagina.CursorFecha inicio = desdeCursor(cursor, desde);
+        List<Curso> filas = cursoRepository.buscarPorFin(inicio.fecha(), inicio.id(), hasta, Limit.of(tamano + 1));
+        return Pagina.conCursor(filas, tamano, curso -> Pagina.codificarCursor(curso.getFechaFin(), curso.getId()));
+    }
+
+    /**
+     * Sin cursor se parte desde el límite inferior del rango; un cursor anterior a ese límite
+     * no puede ampliar el rango pedido.
+     */
+    private static Pagina.CursorFecha desdeCursor(String cursor, LocalDate minimo) {
+        Pagina.CursorFecha decodificado = Pagina.decodificarCursorFecha(cursor);
+        if (decodificado == null || decodificado.fecha().isBefore(minimo)) {
+            return new Pagina.CursorFecha(minimo, 0L);
+        }
+        return decodificado;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarCursos(Consumer<Curso> consumidor) {
+        try (Stream<Curso> filas = cursoRepository.streamAllByOrderByIdAsc()) {
+            filas.forEach(curso -> {
+                consumidor.accept(curso);
+                entityManager.detach(curso);
+            });
+        }
+    }
+
+    // La cache de segundo nivel (región curso) resuelve la lectura sin SQL y Hibernate la
+    // invalida con cada escritura. No va a la réplica: el resultado queda en la cache y una
+    // réplica atrasada dejaría ahí una versión vieja del curso
+    @Transactional
     public Optional<Curso> obtenerCursoPorId(Long id) {
         return cursoRepository.findById(id);
     }
 
     public Optional<Curso> actualizarCurso(Long id, Curso cursoActualizado) {
+        return actualizarCurso(id, cursoActualizado, null);
+    }
+
+    /**
+     * Si se indica {@code versionEsperada} y el curso ya cambió, se rechaza con
+     * {@link OptimisticLockingFailureException}; el {@code @Version} cubre además un cambio
+     * concurrente entre la lectura y el UPDATE.
+     */
+    public Optional<Curso> actualizarCurso(Long id, Curso cursoActualizado, Long versionEsperada) {
         return cursoRepository.findById(id).map(cursoExistente -> {
+            if (versionEsperada != null && cursoExistente.getVersion() != versionEsperada) {
+                throw new OptimisticLockingFailureException("El curso con ID " + id + " fue modificado por otra solicitud");
+            }
             cursoExistente.setNombre(cursoActualizado.getNombre());
             cursoExistente.setDescripcion(cursoActualizado.getDescripcion());
             cursoExistente.setCategoria(cursoActualizado.getCategoria());
             cursoExistente.setFechaInicio(cursoActualizado.getFechaInicio());
             cursoExistente.setFechaFin(cursoActualizado.getFechaFin());
             cursoExistente.setInstructor(cursoActualizado.getInstructor());
-            return cursoRepository.save(cursoExistente);
+            Curso guardado = cursoRepository.save(cursoExistente);
+            indiceBusqueda.indexar(guardado);
+            return guardado;
         });
     }
 
+    /**
+     * Aplica los cambios con un único UPDATE, sin leer antes el curso, y devuelve las filas
+     * afectadas. Dos PATCH simultáneos sobre campos distintos no se pisan, a diferencia de
+     * {@link #actualizarCurso(Long, Curso, Long)}, que reescribe la fila completa leída.
+     */
+    public int actualizarCursoParcial(Long id, CambiosCurso cambios, Long versionEsperada) {
+        int filas = cursoRepository.actualizarParcial(id, versionEsperada, cambios.nombre(), cambios.descripcion(),
+                cambios.categoria(), cambios.fechaInicio(), cambios.fechaFin(), cambios.instructor());
+        if (filas == 0 && versionEsperada != null && cursoRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("El curso con ID " + id + " fue modificado por otra solicitud");
+        }
+        // El índice necesita el texto completo; solo se relee cuando cambió lo que se indexa
+        if (filas > 0 && cambios.modificaTextoIndexado()) {
+            cursoRepository.findById(id).ifPresent(indiceBusqueda::indexar);
+        }
+        return filas;
+    }
+
     public boolean eliminarCurso(Long id) {
-        if (cursoRepository.existsById(id)) {
-            cursoRepository.deleteById(id);
-            return true;
+        boolean eliminado = cursoRepository.eliminarPorId(id) > 0;
+        if (eliminado) {
+            // fk_evaluacion_curso deja sin curso sus evaluaciones (ON DELETE SET NULL)
+            cacheEvaluaciones.invalidarSi(evaluacion -> id.equals(evaluacion.getCursoId()));
+            indiceBusqueda.eliminar(IndiceBusqueda.CURSO, id);
         }
-        return false;
+        return eliminado;
+    }
+
+    public int eliminarCursos(Collection<Long> ids) {
+        int eliminados = EliminacionPorLotes.eliminar(ids, cursoRepository::eliminarPorIds);
+        // HashSet y no Set.copyOf: contains(null) debe responder false para evaluaciones sin curso
+        Set<Long> cursosEliminados = new HashSet<>(ids);
+        cacheEvaluaciones.invalidarSi(evaluacion -> cursosEliminados.contains(evaluacion.getCursoId()));
+        ids.forEach(id -> indiceBusqueda.eliminar(IndiceBusqueda.CURSO, id));
+        return eliminados;
     }
 }
@@ -0,0 +1,27 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Divide una lista de ids en sentencias {@code DELETE ... WHERE id IN (...)} de a lo más
+ * {@link #TAMANO_CHUNK} ids, cada una en su propia transacción, para acotar el tamaño de la
+ * sentencia y el tiempo que se mantienen los bloqueos.
+ */
+final class EliminacionPorLotes {
+
+    static final int TAMANO_CHUNK = 500;
+
+    private EliminacionPorLotes() {
+    }
+
+    static int eliminar(Collection<Long> ids, ToIntFunction<List<Long>> eliminarChunk) {
+        List<Long> distintos = ids.stream().distinct().toList();
+        int eliminados = 0;
+        for (int inicio = 0; inicio < distintos.size(); inicio += TAMANO_CHUNK) {
+            eliminados += eliminarChunk.applyAsInt(distintos.subList(inicio, Math.min(inicio + TAMANO_CHUNK, distintos.size())));
+        }
+        return eliminados;
+    }
+}
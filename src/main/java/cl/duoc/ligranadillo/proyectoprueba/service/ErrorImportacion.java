@@ -0,0 +1,7 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+/**
+ * Fila del archivo (contando desde 1, sin el encabezado del CSV) que no se pudo importar.
+ */
+public record ErrorImportacion(long fila, String error) {
+}
@@ -0,0 +1,5 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+public record EstadisticasCache(String nombre, int tamano, int tamanoMaximo,
+                                long aciertos, long fallos, long desalojos) {
+}
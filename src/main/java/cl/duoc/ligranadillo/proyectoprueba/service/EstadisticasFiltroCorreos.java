@@ -0,0 +1,4 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+public record EstadisticasFiltroCorreos(long bits, int funciones, long correos, double probabilidadFalsoPositivo) {
+}
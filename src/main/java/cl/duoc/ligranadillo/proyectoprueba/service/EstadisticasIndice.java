@@ -0,0 +1,4 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+public record EstadisticasIndice(int documentos, int terminos) {
+}
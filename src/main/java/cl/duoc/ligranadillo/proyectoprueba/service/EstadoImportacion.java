@@ -0,0 +1,16 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EstadoImportacion(UUID id, String tipo, FormatoImportacion formato, Estado estado,
+                                long filasProcesadas, long filasCreadas, long filasFallidas,
+                                double filasPorSegundo, Instant creada, Instant iniciada, Instant terminada,
+                                String error, List<ErrorImportacion> errores) {
+
+    public enum Estado { EN_COLA, PROCESANDO, COMPLETADA, FALLIDA }
+}
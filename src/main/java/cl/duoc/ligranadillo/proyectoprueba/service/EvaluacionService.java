@@ -2,49 +2,141 @@ package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
 import cl.duoc.ligranadillo.proyectoprueba.repository.EvaluacionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class EvaluacionService {
 
     private final EvaluacionRepository evaluacionRepository;
+    private final CacheLocal<Evaluacion> cache;
+    private final InsercionPorLotes insercionPorLotes;
+    private final IndiceBusqueda indiceBusqueda;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public EvaluacionService(EvaluacionRepository evaluacionRepository) {
+    public EvaluacionService(EvaluacionRepository evaluacionRepository, CacheLocal<Evaluacion> cache,
+                             InsercionPorLotes insercionPorLotes, IndiceBusqueda indiceBusqueda) {
         this.evaluacionRepository = evaluacionRepository;
+        this.cache = cache;
+        this.insercionPorLotes = insercionPorLotes;
+        this.indiceBusqueda = indiceBusqueda;
     }
 
     public Evaluacion guardarEvaluacion(Evaluacion evaluacion) {
-        return evaluacionRepository.save(evaluacion);
+        Evaluacion guardado = evaluacionRepository.save(evaluacion);
+        cache.invalidar(guardado.getId());
+        indiceBusqueda.indexar(guardado);
+        return guardado;
+    }
+
+    public List<ResultadoLote> guardarEvaluaciones(List<Evaluacion> evaluaciones) {
+        List<ResultadoLote> resultados = insercionPorLotes.insertar(evaluaciones, Evaluacion::getId, Evaluacion::setId);
+        resultados.stream()
+                .filter(ResultadoLote::exitoso)
+                .forEach(resultado -> indiceBusqueda.indexar(evaluaciones.get(resultado.indice())));
+        return resultados;
     }
 
+    @Transactional(readOnly = true)
     public List<Evaluacion> obtenerEvaluaciones() {
         return evaluacionRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Pagina<Evaluacion> obtenerEvaluaciones(String cursor, int tamano) {
+        long desde = Pagina.decodificarCursor(cursor);
+        List<Evaluacion> filas = evaluacionRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(tamano + 1));
+        return Pagina.de(filas, tamano, Evaluacion::getId);
+    }
+
+    /**
+     * Evaluaciones de un curso paginadas por id; se resuelve con el índice (curso_id, id).
+     */
+    @Transactional(readOnly = true)
+    public Pagina<Evaluacion> obtenerEvaluacionesPorCurso(Long cursoId, String cursor, int tamano) {
+        long desde = Pagina.decodificarCursor(cursor);
+        List<Evaluacion> filas = evaluacionRepository.findByCursoIdAndIdGreaterThanOrderByIdAsc(
+                cursoId, desde, Limit.of(tamano + 1));
+        return Pagina.de(filas, tamano, Evaluacion::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarEvaluaciones(Consumer<Evaluacion> consumidor) {
+        try (Stream<Evaluacion> filas = evaluacionRepository.streamAllByOrderByIdAsc()) {
+            filas.forEach(evaluacion -> {
+                consumidor.accept(evaluacion);
+                entityManager.detach(evaluacion);
+            });
+        }
+    }
+
+    @Transactional
     public Optional<Evaluacion> obtenerEvaluacionPorId(Long id) {
-        return evaluacionRepository.findById(id);
+        return cache.obtener(id, evaluacionRepository::findById);
     }
 
     public Optional<Evaluacion> actualizarEvaluacion(Long id, Evaluacion evaluacionActualizada) {
+        return actualizarEvaluacion(id, evaluacionActualizada, null);
+    }
+
+    public Optional<Evaluacion> actualizarEvaluacion(Long id, Evaluacion evaluacionActualizada, Long versionEsperada) {
         return evaluacionRepository.findById(id).map(evaluacionExistente -> {
+            if (versionEsperada != null && evaluacionExistente.getVersion() != versionEsperada) {
+                throw new OptimisticLockingFailureException("La evaluación con ID " + id + " fue modificada por otra solicitud");
+            }
             evaluacionExistente.setTitulo(evaluacionActualizada.getTitulo());
             evaluacionExistente.setTipo(evaluacionActualizada.getTipo());
             evaluacionExistente.setPuntajeMaximo(evaluacionActualizada.getPuntajeMaximo());
             evaluacionExistente.setCursoId(evaluacionActualizada.getCursoId());
-            return evaluacionRepository.save(evaluacionExistente);
+            Evaluacion guardado = evaluacionRepository.save(evaluacionExistente);
+            cache.invalidar(id);
+            indiceBusqueda.indexar(guardado);
+            return guardado;
         });
     }
 
+    public int actualizarEvaluacionParcial(Long id, CambiosEvaluacion cambios, Long versionEsperada) {
+        int filas = evaluacionRepository.actualizarParcial(id, versionEsperada,
+                cambios.titulo(), cambios.tipo(), cambios.puntajeMaximo(), cambios.cursoId());
+        cache.invalidar(id);
+        if (filas == 0 && versionEsperada != null && evaluacionRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("La evaluación con ID " + id + " fue modificada por otra solicitud");
+        }
+        if (filas > 0 && cambios.modificaTextoIndexado()) {
+            evaluacionRepository.findById(id).ifPresent(indiceBusqueda::indexar);
+        }
+        return filas;
+    }
+
     public boolean eliminarEvaluacion(Long id) {
-        if (evaluacionRepository.existsById(id)) {
-            evaluacionRepository.deleteById(id);
-            return true;
+        boolean eliminado = evaluacionRepository.eliminarPorId(id) > 0;
+        cache.invalidar(id);
+        if (eliminado) {
+            indiceBusqueda.eliminar(IndiceBusqueda.EVALUACION, id);
         }
-        return false;
+        return eliminado;
+    }
+
+    public int eliminarEvaluaciones(Collection<Long> ids) {
+        int eliminados = EliminacionPorLotes.eliminar(ids, evaluacionRepository::eliminarPorIds);
+        ids.forEach(id -> {
+            cache.invalidar(id);
+            indiceBusqueda.eliminar(IndiceBusqueda.EVALUACION, id);
+        });
+        return eliminados;
     }
 }
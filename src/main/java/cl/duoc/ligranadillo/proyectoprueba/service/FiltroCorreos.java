@@ -0,0 +1,275 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import cl.duoc.ligranadillo.proyectoprueba.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom con los correos registrados, para que el login descarte sin consultar la base
+ * los correos que seguro no existen. Puede responder que un correo existe sin que exista (con
+ * probabilidad cercana a {@code filtro-correos.probabilidad-falsos-positivos}), pero nunca lo
+ * contrario. Se construye al iniciar el contexto y {@link UserService} le agrega los correos que
+ * guarda; como un filtro de Bloom no permite quitar elementos, se reconstruye cada
+ * {@code filtro-correos.reconstruccion} para olvidar los correos eliminados o modificados.
+ */
+@Component
+public class FiltroCorreos implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroCorreos.class);
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacidadMinima;
+    private final double probabilidad;
+    private final Duration intervalo;
+    private final Counter falsosPositivos;
+    private final Object reconstruccion = new Object();
+
+    // null hasta la primera construcción: mientras tanto todos los correos pueden existir
+    private volatile Bloom filtro;
+    // Filtro que se está construyendo; los correos nuevos también se le agregan
+    private volatile Bloom enConstruccion;
+    private ScheduledExecutorService programador;
+    private volatile boolean iniciado;
+
+    @Autowired
+    public FiltroCorreos(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                         @Value("${filtro-correos.capacidad:10000}") int capacidadMinima,
+                         @Value("${filtro-correos.probabilidad-falsos-positivos:0.01}") double probabilidad,
+                         @Value("${filtro-correos.reconstruccion:1h}") Duration intervalo,
+                         ObjectProvider<MeterRegistry> registry) {
+        this(userRepository, transactionManager, capacidadMinima, probabilidad, intervalo,
+                registry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public FiltroCorreos(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                         int capacidadMinima, double probabilidad, Duration intervalo, MeterRegistry registry) {
+        this.userRepository = userRepository;
+        // Sin readOnly, para leer de la primaria: la réplica podría no tener los últimos correos
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacidadMinima = capacidadMinima;
+        this.probabilidad = probabilidad;
+        this.intervalo = intervalo;
+        this.falsosPositivos = Counter.builder("filtro.correos.falsos.positivos")
+                .description("Logins con un correo que el filtro no descartó y que no existe")
+                .register(registry);
+        Gauge.builder("filtro.correos.bits", this, f -> f.estadisticas().bits())
+                .description("Tamaño del filtro de correos")
+                .baseUnit("bits")
+                .register(registry);
+        Gauge.builder("filtro.correos.elementos", this, f -> f.estadisticas().correos())
+                .description("Correos agregados al filtro desde su última construcción")
+                .register(registry);
+        Gauge.builder("filtro.correos.probabilidad.falso.positivo", this, f -> f.estadisticas().probabilidadFalsoPositivo())
+                .description("Probabilidad estimada de que el filtro no descarte un correo inexistente")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        reconstruir();
+        if (!intervalo.isZero()) {
+            programador = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("reconstruccion-filtro-correos").daemon().factory());
+            programador.scheduleWithFixedDelay(this::reconstruirProgramado,
+                    intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        iniciado = true;
+    }
+
+    @Override
+    public void stop() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+        iniciado = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return iniciado;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public boolean puedeExistir(String email) {
+        Bloom actual = filtro;
+        return email == null || actual == null || actual.contiene(normalizar(email));
+    }
+
+    // Se llama después de confirmar la escritura; ver reconstruir()
+    public void agregar(String email) {
+        if (email == null) {
+            return;
+        }
+        String normalizado = normalizar(email);
+        Bloom nuevo = enConstruccion;
+        Bloom actual = filtro;
+        if (nuevo != null) {
+            nuevo.agregar(normalizado);
+        }
+        if (actual != null) {
+            actual.agregar(normalizado);
+        }
+    }
+
+    public void registrarFalsoPositivo() {
+        falsosPositivos.increment();
+    }
+
+    /**
+     * Arma un filtro nuevo leyendo los correos de la tabla y lo reemplaza al terminar. Los correos
+     * agregados mientras tanto van a ambos filtros: se publica el filtro nuevo antes de dejar de
+     * agregarle correos, así que {@link #agregar} siempre alcanza a uno que queda vigente.
+     */
+    public EstadisticasFiltroCorreos reconstruir() {
+        synchronized (reconstruccion) {
+            long usuarios = transactionTemplate.execute(estado -> userRepository.count());
+            Bloom nuevo = new Bloom(Math.max(capacidadMinima, 2 * usuarios), probabilidad);
+            // Se publica antes de abrir la transacción de lectura: lo que se confirme después de su
+            // snapshot ya se está agregando también al filtro nuevo
+            enConstruccion = nuevo;
+            try {
+                transactionTemplate.executeWithoutResult(estado -> {
+                    try (Stream<String> correos = userRepository.streamEmails()) {
+                        correos.forEach(this::agregarAlNuevo);
+                    }
+                });
+                filtro = nuevo;
+            } finally {
+                enConstruccion = null;
+            }
+            return estadisticas();
+        }
+    }
+
+    public EstadisticasFiltroCorreos estadisticas() {
+        Bloom actual = filtro;
+        if (actual == null) {
+            return new EstadisticasFiltroCorreos(0, 0, 0, 1);
+        }
+        return new EstadisticasFiltroCorreos(actual.bits, actual.funciones, actual.elementos.get(),
+                actual.probabilidadFalsoPositivo());
+    }
+
+    private void agregarAlNuevo(String email) {
+        Bloom nuevo = enConstruccion;
+        if (email != null && nuevo != null) {
+            nuevo.agregar(normalizar(email));
+        }
+    }
+
+    private void reconstruirProgramado() {
+        try {
+            EstadisticasFiltroCorreos estadisticas = reconstruir();
+            log.debug("Filtro de correos reconstruido: {}", estadisticas);
+        } catch (RuntimeException e) {
+            // Se mantiene el filtro anterior y se vuelve a intentar en el siguiente intervalo
+            log.warn("No se pudo reconstruir el filtro de correos", e);
+        }
+    }
+
+    /**
+     * MySQL compara los correos sin distinguir mayúsculas ni tildes y sin los espacios finales;
+     * dos correos que la base considera iguales deben dar el mismo elemento en el filtro.
+     */
+    static String normalizar(String email) {
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(email.strip(), Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+
+    static final class Bloom {
+
+        private final long bits;
+        private final int funciones;
+        private final AtomicLongArray palabras;
+        private final AtomicLong elementos = new AtomicLong();
+        private final AtomicLong bitsEncendidos = new AtomicLong();
+
+        // m = -n ln p / (ln 2)^2 y k = m / n ln 2
+        Bloom(long capacidad, double probabilidad) {
+            long calculados = (long) Math.ceil(-capacidad * Math.log(probabilidad) / (Math.log(2) * Math.log(2)));
+            this.bits = Math.max(64, (calculados + 63) / 64 * 64);
+            this.funciones = Math.max(1, (int) Math.round((double) bits / capacidad * Math.log(2)));
+            this.palabras = new AtomicLongArray((int) (bits / 64));
+        }
+
+        void agregar(String elemento) {
+            long h1 = hash(elemento);
+            long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < funciones; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int palabra = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long anterior = palabras.getAndAccumulate(palabra, mascara, (a, b) -> a | b);
+                if ((anterior & mascara) == 0) {
+                    bitsEncendidos.incrementAndGet();
+                }
+            }
+            elementos.incrementAndGet();
+        }
+
+        boolean contiene(String elemento) {
+            long h1 = hash(elemento);
+            long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < funciones; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((palabras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Con la fracción real de bits encendidos, no con la cantidad de elementos, porque los
+        // correos repetidos entre reconstrucciones no encienden bits nuevos
+        double probabilidadFalsoPositivo() {
+            return Math.pow((double) bitsEncendidos.get() / bits, funciones);
+        }
+
+        // FNV-1a de 64 bits seguido del mezclado final de MurmurHash3
+        private static long hash(String elemento) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < elemento.length(); i++) {
+                h = (h ^ elemento.charAt(i)) * 0x100000001b3L;
+            }
+            return mezclar(h);
+        }
+
+        private static long mezclar(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
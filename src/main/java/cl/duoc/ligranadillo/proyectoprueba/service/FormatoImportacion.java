@@ -0,0 +1,30 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.util.Locale;
+import java.util.Optional;
+
+public enum FormatoImportacion {
+    CSV, JSON;
+
+    /**
+     * Se decide por la extensión del archivo y, si no la tiene, por su tipo de contenido. JSON
+     * acepta tanto un arreglo como un objeto por línea, el formato de las exportaciones NDJSON.
+     */
+    public static Optional<FormatoImportacion> de(String nombreArchivo, String contentType) {
+        String nombre = nombreArchivo == null ? "" : nombreArchivo.toLowerCase(Locale.ROOT);
+        String tipo = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".csv")) {
+            return Optional.of(CSV);
+        }
+        if (nombre.endsWith(".json") || nombre.endsWith(".ndjson")) {
+            return Optional.of(JSON);
+        }
+        if (tipo.startsWith("text/csv")) {
+            return Optional.of(CSV);
+        }
+        if (tipo.startsWith("application/json") || tipo.startsWith("application/x-ndjson")) {
+            return Optional.of(JSON);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,90 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progreso de una importación. La actualiza solo el hilo que la procesa; {@link #estado()}
+ * entrega una copia consistente para las consultas.
+ */
+final class Importacion {
+
+    static final int MAXIMO_ERRORES = 100;
+
+    private final UUID id = UUID.randomUUID();
+    private final String tipo;
+    private final FormatoImportacion formato;
+    private final Instant creada = Instant.now();
+    private final List<ErrorImportacion> errores = new ArrayList<>();
+
+    private EstadoImportacion.Estado estado = EstadoImportacion.Estado.EN_COLA;
+    private Instant iniciada;
+    private Instant terminada;
+    private long procesadas;
+    private long creadas;
+    private long fallidas;
+    private String error;
+
+    Importacion(String tipo, FormatoImportacion formato) {
+        this.tipo = tipo;
+        this.formato = formato;
+    }
+
+    UUID id() {
+        return id;
+    }
+
+    FormatoImportacion formato() {
+        return formato;
+    }
+
+    synchronized void iniciar() {
+        estado = EstadoImportacion.Estado.PROCESANDO;
+        iniciada = Instant.now();
+    }
+
+    synchronized void creada() {
+        procesadas++;
+        creadas++;
+    }
+
+    // Se cuentan todos los fallos, pero solo se guarda el detalle de los primeros
+    synchronized void fallo(long fila, String mensaje) {
+        procesadas++;
+        fallidas++;
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add(new ErrorImportacion(fila, mensaje));
+        }
+    }
+
+    synchronized void completar() {
+        estado = EstadoImportacion.Estado.COMPLETADA;
+        terminada = Instant.now();
+    }
+
+    synchronized void fallar(String mensaje) {
+        estado = EstadoImportacion.Estado.FALLIDA;
+        error = mensaje;
+        terminada = Instant.now();
+    }
+
+    synchronized boolean terminadaAntesDe(Instant limite) {
+        return terminada != null && terminada.isBefore(limite);
+    }
+
+    synchronized EstadoImportacion estado() {
+        return new EstadoImportacion(id, tipo, formato, estado, procesadas, creadas, fallidas, filasPorSegundo(),
+                creada, iniciada, terminada, error, List.copyOf(errores));
+    }
+
+    private double filasPorSegundo() {
+        if (iniciada == null) {
+            return 0;
+        }
+        long milisegundos = Duration.between(iniciada, terminada == null ? Instant.now() : terminada).toMillis();
+        return milisegundos == 0 ? 0 : procesadas * 1000.0 / milisegundos;
+    }
+}
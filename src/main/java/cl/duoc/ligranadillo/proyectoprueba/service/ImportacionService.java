@@ -0,0 +1,198 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Importa archivos CSV o JSON en segundo plano. El archivo se lee fila por fila y se inserta en
+ * chunks de {@code importaciones.tamano-chunk} filas con {@link InsercionPorLotes}, de modo que
+ * la memoria usada no depende del tamaño del archivo. Una fila que no se puede leer o insertar
+ * se registra como fallida y la importación continúa con la siguiente.
+ */
+@Service
+public class ImportacionService {
+
+    private final Map<String, Destino<?>> destinos;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final Executor executor;
+    private final int tamanoChunk;
+    private final Duration retencion;
+    private final Map<UUID, Importacion> importaciones = new ConcurrentHashMap<>();
+
+    // Pool propio y no un bean Executor, para no desplazar al executor que Spring Boot configura para MVC
+    @Autowired
+    public ImportacionService(CursoService cursoService, ContenidoService contenidoService,
+                              EvaluacionService evaluacionService, ObjectMapper objectMapper,
+                              @Value("${importaciones.hilos:2}") int hilos,
+                              @Value("${importaciones.cola:20}") int cola,
+                              @Value("${importaciones.tamano-chunk:500}") int tamanoChunk,
+                              @Value("${importaciones.retencion:1h}") Duration retencion) {
+        this(cursoService, contenidoService, evaluacionService, objectMapper,
+                new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(cola),
+                        Thread.ofPlatform().name("importacion-", 1).factory()),
+                tamanoChunk, retencion);
+    }
+
+    ImportacionService(CursoService cursoService, ContenidoService contenidoService,
+                       EvaluacionService evaluacionService, ObjectMapper objectMapper,
+                       Executor executor, int tamanoChunk, Duration retencion) {
+        this.destinos = Map.of(
+                "cursos", new Destino<>(Curso.class, cursoService::guardarCursos),
+                "contenidos", new Destino<>(Contenido.class, contenidoService::guardarContenidos),
+                "evaluaciones", new Destino<>(Evaluacion.class, evaluacionService::guardarEvaluaciones));
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.tamanoChunk = tamanoChunk;
+        this.retencion = retencion;
+    }
+
+    public boolean admite(String tipo) {
+        return destinos.containsKey(tipo);
+    }
+
+    /**
+     * Copia el contenido a un archivo temporal, porque el archivo subido se elimina al terminar
+     * la solicitud, y encola la importación.
+     *
+     * @throws RejectedExecutionException si la cola de importaciones está llena
+     */
+    public EstadoImportacion iniciar(String tipo, FormatoImportacion formato, InputStream contenido) throws IOException {
+        Destino<?> destino = destinos.get(tipo);
+        if (destino == null) {
+            throw new IllegalArgumentException("Tipo de importación desconocido: " + tipo);
+        }
+        descartarTerminadas();
+        Path archivo = Files.createTempFile("importacion-", "." + formato.name().toLowerCase());
+        try {
+            Files.copy(contenido, archivo, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(archivo);
+            throw e;
+        }
+        Importacion importacion = new Importacion(tipo, formato);
+        importaciones.put(importacion.id(), importacion);
+        try {
+            executor.execute(() -> procesar(importacion, destino, archivo));
+        } catch (RejectedExecutionException e) {
+            importaciones.remove(importacion.id());
+            Files.deleteIfExists(archivo);
+            throw e;
+        }
+        return importacion.estado();
+    }
+
+    public Optional<EstadoImportacion> obtener(UUID id) {
+        return Optional.ofNullable(importaciones.get(id)).map(Importacion::estado);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (executor instanceof ExecutorService servicio) {
+            servicio.shutdownNow();
+        }
+    }
+
+    private <T> void procesar(Importacion importacion, Destino<T> destino, Path archivo) {
+        importacion.iniciar();
+        try (MappingIterator<JsonNode> filas = lector(importacion.formato()).readValues(archivo.toFile())) {
+            List<T> chunk = new ArrayList<>(tamanoChunk);
+            List<Long> numeros = new ArrayList<>(tamanoChunk);
+            long fila = 0;
+            while (filas.hasNextValue()) {
+                JsonNode nodo = filas.nextValue();
+                fila++;
+                T entidad;
+                try {
+                    entidad = objectMapper.treeToValue(nodo, destino.tipo());
+                } catch (JsonProcessingException e) {
+                    importacion.fallo(fila, e.getOriginalMessage());
+                    continue;
+                }
+                if (entidad == null) {
+                    importacion.fallo(fila, "Fila vacía");
+                    continue;
+                }
+                chunk.add(entidad);
+                numeros.add(fila);
+                if (chunk.size() == tamanoChunk) {
+                    guardar(importacion, destino, chunk, numeros);
+                }
+            }
+            guardar(importacion, destino, chunk, numeros);
+            importacion.completar();
+        } catch (IOException | RuntimeException e) {
+            importacion.fallar(e instanceof JsonProcessingException j ? j.getOriginalMessage() : e.getMessage());
+        } finally {
+            archivo.toFile().delete();
+        }
+    }
+
+    private <T> void guardar(Importacion importacion, Destino<T> destino, List<T> chunk, List<Long> numeros) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        for (ResultadoLote resultado : destino.guardar().apply(chunk)) {
+            if (resultado.exitoso()) {
+                importacion.creada();
+            } else {
+                importacion.fallo(numeros.get(resultado.indice()), resultado.error());
+            }
+        }
+        chunk.clear();
+        numeros.clear();
+    }
+
+    // Las filas se leen como árboles y se convierten aparte, para que un valor inválido descarte
+    // solo su fila sin desalinear la lectura del resto del archivo
+    private ObjectReader lector(FormatoImportacion formato) {
+        if (formato == FormatoImportacion.CSV) {
+            return csvMapper.readerFor(JsonNode.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .with(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+        }
+        return objectMapper.readerFor(JsonNode.class);
+    }
+
+    private void descartarTerminadas() {
+        Instant limite = Instant.now().minus(retencion);
+        importaciones.values().removeIf(importacion -> importacion.terminadaAntesDe(limite));
+    }
+
+    private record Destino<T>(Class<T> tipo, Function<List<T>, List<ResultadoLote>> guardar) {
+    }
+}
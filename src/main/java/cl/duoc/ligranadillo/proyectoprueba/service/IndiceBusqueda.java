@@ -0,0 +1,286 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.repository.ContenidoRepository;
+import cl.duoc.ligranadillo.proyectoprueba.repository.CursoRepository;
+import cl.duoc.ligranadillo.proyectoprueba.repository.EvaluacionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Índice invertido en memoria sobre cursos (nombre, descripción), contenidos (título,
+ * descripción) y evaluaciones (título), con ranking BM25. Se construye desde los repositorios
+ * al iniciar el contexto, antes de que el servidor web acepte solicitudes, y los servicios lo
+ * mantienen al día al guardar, actualizar o eliminar.
+ */
+@Component
+public class IndiceBusqueda implements SmartLifecycle {
+
+    public static final String CURSO = "curso";
+    public static final String CONTENIDO = "contenido";
+    public static final String EVALUACION = "evaluacion";
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Una coincidencia en el nombre o título cuenta como dos en la descripción
+    private static final int PESO_TITULO = 2;
+    private static final int TAMANO_PAGINA_CARGA = 500;
+
+    private final CursoRepository cursoRepository;
+    private final ContenidoRepository contenidoRepository;
+    private final EvaluacionRepository evaluacionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object reconstruccion = new Object();
+    private Indice indice = new Indice();
+    // Cambios recibidos mientras se reconstruye; se reaplican sobre el índice nuevo
+    private List<Consumer<Indice>> pendientes;
+    private volatile boolean construido;
+
+    public IndiceBusqueda(CursoRepository cursoRepository, ContenidoRepository contenidoRepository,
+                          EvaluacionRepository evaluacionRepository, PlatformTransactionManager transactionManager) {
+        this.cursoRepository = cursoRepository;
+        this.contenidoRepository = contenidoRepository;
+        this.evaluacionRepository = evaluacionRepository;
+        // Transacción propia y sin readOnly, para leer de la primaria aunque quien reconstruye esté en una
+        // de solo lectura: lo confirmado antes de reconstruir que la réplica aún no tiene quedaría fuera
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void start() {
+        reconstruir();
+        construido = true;
+    }
+
+    @Override
+    public void stop() {
+        construido = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return construido;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public void indexar(Curso curso) {
+        Documento documento = documento(curso.getNombre(), curso.getDescripcion());
+        aplicar(indice -> indice.agregar(new Clave(CURSO, curso.getId()), documento));
+    }
+
+    public void indexar(Contenido contenido) {
+        Documento documento = documento(contenido.getTitulo(), contenido.getDescripcion());
+        aplicar(indice -> indice.agregar(new Clave(CONTENIDO, contenido.getId()), documento));
+    }
+
+    public void indexar(Evaluacion evaluacion) {
+        Documento documento = documento(evaluacion.getTitulo(), null);
+        aplicar(indice -> indice.agregar(new Clave(EVALUACION, evaluacion.getId()), documento));
+    }
+
+    public void eliminar(String tipo, Long id) {
+        aplicar(indice -> indice.quitar(new Clave(tipo, id)));
+    }
+
+    /**
+     * Arma un índice nuevo leyendo las tablas por páginas y lo reemplaza al terminar; las
+     * búsquedas siguen atendiéndose con el índice anterior mientras tanto.
+     */
+    public EstadisticasIndice reconstruir() {
+        synchronized (reconstruccion) {
+            lock.writeLock().lock();
+            try {
+                pendientes = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Indice nuevo = new Indice();
+            boolean completo = false;
+            try {
+                cargar(nuevo, cursoRepository::findParaIndiceByIdGreaterThanOrderByIdAsc, Curso::getId, CURSO,
+                        curso -> documento(curso.getNombre(), curso.getDescripcion()));
+                cargar(nuevo, contenidoRepository::findParaIndiceByIdGreaterThanOrderByIdAsc, Contenido::getId, CONTENIDO,
+                        contenido -> documento(contenido.getTitulo(), contenido.getDescripcion()));
+                cargar(nuevo, evaluacionRepository::findByIdGreaterThanOrderByIdAsc, Evaluacion::getId, EVALUACION,
+                        evaluacion -> documento(evaluacion.getTitulo(), null));
+                completo = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (completo) {
+                        pendientes.forEach(cambio -> cambio.accept(nuevo));
+                        indice = nuevo;
+                    }
+                    pendientes = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            return estadisticas();
+        }
+    }
+
+    public EstadisticasIndice estadisticas() {
+        lock.readLock().lock();
+        try {
+            return new EstadisticasIndice(indice.documentos.size(), indice.postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ResultadoBusqueda> buscar(String consulta, int limite) {
+        List<String> terminos = new ArrayList<>(new LinkedHashSet<>(Tokenizador.tokenizar(consulta)));
+        if (terminos.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int total = indice.documentos.size();
+            if (total == 0) {
+                return List.of();
+            }
+            double longitudPromedio = (double) indice.longitudTotal / total;
+            Map<Clave, Double> puntajes = new HashMap<>();
+            for (String termino : terminos) {
+                Map<Clave, Integer> postings = indice.postings.get(termino);
+                if (postings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (total - postings.size() + 0.5) / (postings.size() + 0.5));
+                postings.forEach((clave, frecuencia) -> {
+                    int longitud = indice.documentos.get(clave).longitud();
+                    double tf = frecuencia * (K1 + 1)
+                            / (frecuencia + K1 * (1 - B + B * longitud / longitudPromedio));
+                    puntajes.merge(clave, idf * tf, Double::sum);
+                });
+            }
+            return mejores(puntajes, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ResultadoBusqueda> mejores(Map<Clave, Double> puntajes, int limite) {
+        Comparator<Map.Entry<Clave, Double>> orden = Map.Entry.<Clave, Double>comparingByValue()
+                .thenComparing(entrada -> entrada.getKey().tipo(), Comparator.reverseOrder())
+                .thenComparing(entrada -> entrada.getKey().id(), Comparator.reverseOrder());
+        // Montículo con los peores arriba para quedarse solo con los mejores sin ordenar todo
+        PriorityQueue<Map.Entry<Clave, Double>> mejores = new PriorityQueue<>(orden);
+        for (Map.Entry<Clave, Double> entrada : puntajes.entrySet()) {
+            mejores.offer(entrada);
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+        List<ResultadoBusqueda> resultados = new ArrayList<>(mejores.size());
+        while (!mejores.isEmpty()) {
+            Map.Entry<Clave, Double> entrada = mejores.poll();
+            Clave clave = entrada.getKey();
+            resultados.add(0, new ResultadoBusqueda(clave.tipo(), clave.id(),
+                    indice.documentos.get(clave).titulo(), entrada.getValue()));
+        }
+        return resultados;
+    }
+
+    private void aplicar(Consumer<Indice> cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.accept(indice);
+            if (pendientes != null) {
+                pendientes.add(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> void cargar(Indice destino, BiFunction<Long, Limit, List<T>> pagina, Function<T, Long> id,
+                            String tipo, Function<T, Documento> documento) {
+        long desde = 0;
+        List<T> filas;
+        do {
+            long ultimo = desde;
+            filas = transactionTemplate.execute(estado -> pagina.apply(ultimo, Limit.of(TAMANO_PAGINA_CARGA)));
+            for (T fila : filas) {
+                destino.agregar(new Clave(tipo, id.apply(fila)), documento.apply(fila));
+                desde = id.apply(fila);
+            }
+            // Si hay un contexto de persistencia abierto (p. ej. en una solicitud) no se acumulan las filas
+            entityManager.clear();
+        } while (filas.size() == TAMANO_PAGINA_CARGA);
+    }
+
+    private static Documento documento(String titulo, String descripcion) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        Tokenizador.tokenizar(titulo).forEach(termino -> frecuencias.merge(termino, PESO_TITULO, Integer::sum));
+        Tokenizador.tokenizar(descripcion).forEach(termino -> frecuencias.merge(termino, 1, Integer::sum));
+        int longitud = frecuencias.values().stream().mapToInt(Integer::intValue).sum();
+        return new Documento(titulo, frecuencias, longitud);
+    }
+
+    private record Clave(String tipo, Long id) {
+    }
+
+    private record Documento(String titulo, Map<String, Integer> frecuencias, int longitud) {
+    }
+
+    private static final class Indice {
+        private final Map<String, Map<Clave, Integer>> postings = new HashMap<>();
+        private final Map<Clave, Documento> documentos = new HashMap<>();
+        private long longitudTotal;
+
+        void agregar(Clave clave, Documento documento) {
+            quitar(clave);
+            documentos.put(clave, documento);
+            longitudTotal += documento.longitud();
+            documento.frecuencias().forEach((termino, frecuencia) ->
+                    postings.computeIfAbsent(termino, t -> new HashMap<>()).put(clave, frecuencia));
+        }
+
+        void quitar(Clave clave) {
+            Documento anterior = documentos.remove(clave);
+            if (anterior == null) {
+                return;
+            }
+            longitudTotal -= anterior.longitud();
+            anterior.frecuencias().keySet().forEach(termino -> {
+                Map<Clave, Integer> postings = this.postings.get(termino);
+                postings.remove(clave);
+                if (postings.isEmpty()) {
+                    this.postings.remove(termino);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Inserta entidades en transacciones de {@code lotes.tamano-chunk} filas. Hibernate agrupa los
+ * INSERT de cada transacción en lotes JDBC; si un chunk falla se reintenta fila por fila para
+ * informar cuál de ellas produjo el error.
+ */
+@Component
+public class InsercionPorLotes {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoChunk;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public InsercionPorLotes(PlatformTransactionManager transactionManager,
+                             @Value("${lotes.tamano-chunk:50}") int tamanoChunk) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoChunk = tamanoChunk;
+    }
+
+    public <T> List<ResultadoLote> insertar(List<T> entidades, Function<T, Long> id, BiConsumer<T, Long> asignarId) {
+        List<ResultadoLote> resultados = new ArrayList<>(entidades.size());
+        for (int inicio = 0; inicio < entidades.size(); inicio += tamanoChunk) {
+            List<T> chunk = entidades.subList(inicio, Math.min(inicio + tamanoChunk, entidades.size()));
+            try {
+                persistir(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    resultados.add(ResultadoLote.exito(inicio + i, id.apply(chunk.get(i))));
+                }
+            } catch (RuntimeException e) {
+                chunk.stream().filter(Objects::nonNull).forEach(entidad -> asignarId.accept(entidad, null));
+                for (int i = 0; i < chunk.size(); i++) {
+                    resultados.add(insertarUna(inicio + i, chunk.get(i), id, asignarId));
+                }
+            }
+        }
+        return resultados;
+    }
+
+    private <T> ResultadoLote insertarUna(int indice, T entidad, Function<T, Long> id, BiConsumer<T, Long> asignarId) {
+        if (entidad == null) {
+            return ResultadoLote.fallo(indice, "Elemento vacío");
+        }
+        try {
+            persistir(List.of(entidad));
+            return ResultadoLote.exito(indice, id.apply(entidad));
+        } catch (RuntimeException e) {
+            asignarId.accept(entidad, null);
+            return ResultadoLote.fallo(indice, causaRaiz(e).getMessage());
+        }
+    }
+
+    private <T> void persistir(List<T> chunk) {
+        transactionTemplate.executeWithoutResult(estado -> {
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static Throwable causaRaiz(Throwable e) {
+        Throwable causa = e;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+}
@@ -0,0 +1,85 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita los intentos de login por dirección del cliente y por correo con {@link CubetasTokens},
+ * antes de consultar la base de datos o verificar la contraseña. Un intento rechazado por el
+ * correo devuelve el token de la dirección, para que los intentos contra una cuenta bloqueada no
+ * agoten también el límite de los demás usuarios detrás de la misma dirección.
+ */
+@Component
+public class LimiteLogins {
+
+    private final CubetasTokens porCorreo;
+    private final CubetasTokens porDireccion;
+    private final Counter limitadosPorCorreo;
+    private final Counter limitadosPorDireccion;
+
+    @Autowired
+    public LimiteLogins(@Value("${limite-logins.por-correo.capacidad:5}") int capacidadCorreo,
+                        @Value("${limite-logins.por-correo.periodo:1m}") Duration periodoCorreo,
+                        @Value("${limite-logins.por-direccion.capacidad:20}") int capacidadDireccion,
+                        @Value("${limite-logins.por-direccion.periodo:1m}") Duration periodoDireccion,
+                        @Value("${limite-logins.franjas:64}") int franjas,
+                        @Value("${limite-logins.maximo-cubetas:100000}") int maximoCubetas,
+                        ObjectProvider<MeterRegistry> registry) {
+        this(new CubetasTokens(capacidadCorreo, periodoCorreo, franjas, maximoCubetas),
+                new CubetasTokens(capacidadDireccion, periodoDireccion, franjas, maximoCubetas),
+                registry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    LimiteLogins(CubetasTokens porCorreo, CubetasTokens porDireccion, MeterRegistry registry) {
+        this.porCorreo = porCorreo;
+        this.porDireccion = porDireccion;
+        this.limitadosPorCorreo = limitados(registry, "correo");
+        this.limitadosPorDireccion = limitados(registry, "direccion");
+        Gauge.builder("logins.limite.cubetas", this, limite -> limite.porCorreo.tamano() + limite.porDireccion.tamano())
+                .description("Cubetas de tokens en memoria del límite de logins")
+                .register(registry);
+    }
+
+    /**
+     * Registra un intento de login.
+     *
+     * @return 0 si el intento puede continuar, o los segundos que el cliente debe esperar
+     */
+    public long segundosDeEspera(String email, String direccion) {
+        String claveDireccion = direccion == null ? "" : direccion;
+        long espera = porDireccion.consumir(claveDireccion);
+        if (espera > 0) {
+            limitadosPorDireccion.increment();
+            return segundos(espera);
+        }
+        // La columna email se compara sin distinguir mayúsculas
+        espera = porCorreo.consumir(email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+        if (espera > 0) {
+            porDireccion.devolver(claveDireccion);
+            limitadosPorCorreo.increment();
+            return segundos(espera);
+        }
+        return 0;
+    }
+
+    private static long segundos(long nanos) {
+        return TimeUnit.NANOSECONDS.toSeconds(nanos - 1) + 1;
+    }
+
+    private static Counter limitados(MeterRegistry registry, String clave) {
+        return Counter.builder("logins.limitados")
+                .description("Intentos de login rechazados por el límite de intentos")
+                .tag("clave", clave)
+                .register(registry);
+    }
+}
@@ -0,0 +1,92 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados obtenida por keyset sobre el id, o sobre (fecha, id) en las búsquedas
+ * por rango de fechas. {@code next} es el cursor opaco para pedir la siguiente página, o
+ * {@code null} si no quedan más filas.
+ */
+public record Pagina<T>(List<T> data, String next) {
+
+    private static final String PREFIJO_CURSOR = "id:";
+    private static final String PREFIJO_CURSOR_FECHA = "fecha:";
+
+    /**
+     * Construye la página a partir de las filas leídas con {@code tamano + 1} como límite:
+     * la fila extra solo indica que existe una página siguiente y no se devuelve.
+     */
+    public static <T> Pagina<T> de(List<T> filas, int tamano, Function<T, Long> id) {
+        return conCursor(filas, tamano, fila -> codificarCursor(id.apply(fila)));
+    }
+
+    /**
+     * Igual que {@link #de}, pero el cursor de la última fila lo arma el llamador.
+     */
+    public static <T> Pagina<T> conCursor(List<T> filas, int tamano, Function<T, String> cursor) {
+        if (filas.size() <= tamano) {
+            return new Pagina<>(filas, null);
+        }
+        List<T> data = filas.subList(0, tamano);
+        return new Pagina<>(data, cursor.apply(data.get(tamano - 1)));
+    }
+
+    public static int tamanoValido(int solicitado, int maximo) {
+        return Math.max(1, Math.min(solicitado, maximo));
+    }
+
+    public static String codificarCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIJO_CURSOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO_CURSOR)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return Long.parseLong(valor.substring(PREFIJO_CURSOR.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public static String codificarCursor(LocalDate fecha, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIJO_CURSOR_FECHA + fecha + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve {@code null} si no se indicó cursor, es decir, si se pide la primera página.
+     */
+    public static CursorFecha decodificarCursorFecha(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO_CURSOR_FECHA)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            String[] partes = valor.substring(PREFIJO_CURSOR_FECHA.length()).split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorFecha(LocalDate.parse(partes[0]), Long.parseLong(partes[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public record CursorFecha(LocalDate fecha, long id) {
+    }
+}
@@ -0,0 +1,4 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+public record ResultadoBusqueda(String tipo, Long id, String titulo, double puntaje) {
+}
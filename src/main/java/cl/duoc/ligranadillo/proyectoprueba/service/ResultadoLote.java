@@ -0,0 +1,19 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResultadoLote(int indice, Long id, String error) {
+
+    public static ResultadoLote exito(int indice, Long id) {
+        return new ResultadoLote(indice, id, null);
+    }
+
+    public static ResultadoLote fallo(int indice, String error) {
+        return new ResultadoLote(indice, null, error);
+    }
+
+    public boolean exitoso() {
+        return error == null;
+    }
+}
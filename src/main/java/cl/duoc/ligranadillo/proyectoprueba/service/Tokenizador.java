@@ -0,0 +1,43 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Separa un texto en términos de búsqueda: minúsculas, sin tildes ni diéresis ("Programación"
+ * y "programacion" son el mismo término) y sin palabras vacías del español.
+ */
+final class Tokenizador {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Ya sin tildes, porque se comparan después de normalizar
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "al", "como", "con", "de", "del", "el", "en", "entre", "es", "la", "las", "lo", "los",
+            "mas", "para", "pero", "por", "que", "se", "sin", "sobre", "su", "sus", "un", "una",
+            "unas", "unos");
+
+    private Tokenizador() {
+    }
+
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String plano = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terminos = new ArrayList<>();
+        for (String termino : SEPARADOR.split(plano)) {
+            if (termino.length() > 1 && !PALABRAS_VACIAS.contains(termino)) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+}
@@ -0,0 +1,186 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * Emite y valida los tokens de sesión que entrega el login, sin guardar estado: el token lleva el
+ * id del usuario y su vencimiento firmados con HMAC-SHA256, así que validarlo no consulta la base.
+ * El formato es {@code <clave>.<datos>.<firma>} en Base64 URL sin relleno.
+ * <p>
+ * {@code sesiones.claves} es una lista {@code id:secreto} con los secretos en Base64 de al menos
+ * 32 bytes. Se firma con la primera y se aceptan todas, de modo que para rotar se agrega la clave
+ * nueva al principio y la anterior se quita cuando vencieron los tokens firmados con ella
+ * ({@code sesiones.duracion}). Sin claves configuradas se genera una al iniciar, válida solo en
+ * esta instancia y hasta que se reinicie.
+ */
+@Component
+public class TokensSesion {
+
+    private static final Logger log = LoggerFactory.getLogger(TokensSesion.class);
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int LARGO_MINIMO_SECRETO = 32;
+    // id del usuario y vencimiento en segundos desde la época
+    private static final int LARGO_DATOS = 16;
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    private final Map<String, Clave> claves;
+    private final Clave activa;
+    private final Duration duracion;
+    private final LongSupplier reloj;
+
+    @Autowired
+    public TokensSesion(@Value("${sesiones.claves:}") String claves,
+                        @Value("${sesiones.duracion:1h}") Duration duracion) {
+        this(claves, duracion, System::currentTimeMillis);
+    }
+
+    TokensSesion(String claves, Duration duracion, LongSupplier reloj) {
+        this.claves = leerClaves(claves);
+        this.activa = this.claves.values().iterator().next();
+        this.duracion = duracion;
+        this.reloj = reloj;
+    }
+
+    public TokenSesion emitir(long usuarioId) {
+        long expira = Math.floorDiv(reloj.getAsLong(), 1000) + duracion.toSeconds();
+        byte[] datos = ByteBuffer.allocate(LARGO_DATOS).putLong(usuarioId).putLong(expira).array();
+        String firmado = activa.id() + "." + CODIFICADOR.encodeToString(datos);
+        return new TokenSesion(firmado + "." + CODIFICADOR.encodeToString(activa.firmar(firmado)), duracion.toSeconds());
+    }
+
+    /**
+     * @return el id del usuario, o vacío si el token está mal formado, vencido, firmado con una
+     * clave desconocida o con una firma que no corresponde
+     */
+    public OptionalLong validar(String token) {
+        if (token == null) {
+            return OptionalLong.empty();
+        }
+        int primerPunto = token.indexOf('.');
+        int segundoPunto = token.indexOf('.', primerPunto + 1);
+        if (primerPunto < 0 || segundoPunto < 0 || token.indexOf('.', segundoPunto + 1) >= 0) {
+            return OptionalLong.empty();
+        }
+        Clave clave = claves.get(token.substring(0, primerPunto));
+        if (clave == null) {
+            return OptionalLong.empty();
+        }
+        byte[] datos;
+        byte[] firma;
+        try {
+            datos = DECODIFICADOR.decode(token.substring(primerPunto + 1, segundoPunto));
+            firma = DECODIFICADOR.decode(token.substring(segundoPunto + 1));
+        } catch (IllegalArgumentException e) {
+            return OptionalLong.empty();
+        }
+        if (datos.length != LARGO_DATOS || !MessageDigest.isEqual(firma, clave.firmar(token.substring(0, segundoPunto)))) {
+            return OptionalLong.empty();
+        }
+        ByteBuffer contenido = ByteBuffer.wrap(datos);
+        long usuarioId = contenido.getLong();
+        long expira = contenido.getLong();
+        if (Math.floorDiv(reloj.getAsLong(), 1000) >= expira) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(usuarioId);
+    }
+
+    private static Map<String, Clave> leerClaves(String configuracion) {
+        Map<String, Clave> claves = new LinkedHashMap<>();
+        for (String entrada : configuracion.split(",")) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            int separador = entrada.indexOf(':');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Cada clave de sesiones.claves debe tener la forma id:secreto");
+            }
+            String id = entrada.substring(0, separador).strip();
+            if (id.contains(".")) {
+                throw new IllegalArgumentException("El id de la clave " + id + " no puede contener puntos");
+            }
+            byte[] secreto = Base64.getDecoder().decode(entrada.substring(separador + 1).strip());
+            if (secreto.length < LARGO_MINIMO_SECRETO) {
+                throw new IllegalArgumentException("El secreto de la clave " + id + " debe tener al menos "
+                        + LARGO_MINIMO_SECRETO + " bytes");
+            }
+            if (claves.put(id, new Clave(id, secreto)) != null) {
+                throw new IllegalArgumentException("La clave " + id + " está repetida en sesiones.claves");
+            }
+        }
+        if (claves.isEmpty()) {
+            log.warn("Sin sesiones.claves: los tokens de sesión se firman con una clave generada al iniciar, "
+                    + "que no comparten otras instancias y se pierde al reiniciar");
+            byte[] secreto = new byte[LARGO_MINIMO_SECRETO];
+            new SecureRandom().nextBytes(secreto);
+            claves.put("local", new Clave("local", secreto));
+        }
+        return claves;
+    }
+
+    /**
+     * Mac no admite uso concurrente y crearlo cuesta más que firmar un token, así que cada clave
+     * guarda las instancias libres para reutilizarlas (también desde hilos virtuales).
+     */
+    private static final class Clave {
+
+        private final String id;
+        private final SecretKeySpec secreto;
+        private final Queue<Mac> libres = new ConcurrentLinkedQueue<>();
+
+        Clave(String id, byte[] secreto) {
+            this.id = id;
+            this.secreto = new SecretKeySpec(secreto, ALGORITMO);
+            libres.offer(nuevoMac());
+        }
+
+        String id() {
+            return id;
+        }
+
+        byte[] firmar(String contenido) {
+            Mac mac = libres.poll();
+            if (mac == null) {
+                mac = nuevoMac();
+            }
+            try {
+                return mac.doFinal(contenido.getBytes(StandardCharsets.UTF_8));
+            } finally {
+                libres.offer(mac);
+            }
+        }
+
+        private Mac nuevoMac() {
+            try {
+                Mac mac = Mac.getInstance(ALGORITMO);
+                mac.init(secreto);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("No se pudo inicializar " + ALGORITMO, e);
+            }
+        }
+    }
+}
@@ -2,59 +2,170 @@ package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.User;
 import cl.duoc.ligranadillo.proyectoprueba.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CacheLocal<User> cache;
+    private final InsercionPorLotes insercionPorLotes;
+    private final Contrasenas contrasenas;
+    private final FiltroCorreos filtroCorreos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, CacheLocal<User> cache,
+                       InsercionPorLotes insercionPorLotes, Contrasenas contrasenas, FiltroCorreos filtroCorreos) {
         this.userRepository = userRepository;
+        this.cache = cache;
+        this.insercionPorLotes = insercionPorLotes;
+        this.contrasenas = contrasenas;
+        this.filtroCorreos = filtroCorreos;
     }
 
     public User guardarUser(User user) {
-        return userRepository.save(user);
+        user.setPassword(contrasenas.codificar(user.getPassword()));
+        User guardado = userRepository.save(user);
+        cache.invalidar(guardado.getId());
+        filtroCorreos.agregar(guardado.getEmail());
+        return guardado;
+    }
+
+    public List<ResultadoLote> guardarUsers(List<User> users) {
+        users.stream().filter(Objects::nonNull).forEach(user -> user.setPassword(contrasenas.codificar(user.getPassword())));
+        List<ResultadoLote> resultados = insercionPorLotes.insertar(users, User::getId, User::setId);
+        resultados.stream().filter(ResultadoLote::exitoso)
+                .forEach(resultado -> filtroCorreos.agregar(users.get(resultado.indice()).getEmail()));
+        return resultados;
     }
 
+    @Transactional(readOnly = true)
     public List<User> obtenerUsers() {
         return userRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public Pagina<User> obtenerUsers(String cursor, int tamano) {
+        long desde = Pagina.decodificarCursor(cursor);
+        List<User> filas = userRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(tamano + 1));
+        return Pagina.de(filas, tamano, User::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportarUsers(Consumer<User> consumidor) {
+        try (Stream<User> filas = userRepository.streamAllByOrderByIdAsc()) {
+            filas.forEach(user -> {
+                consumidor.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+
+    @Transactional
     public Optional<User> obtenerUserPorId(Long id) {
-        return userRepository.findById(id);
+        return cache.obtener(id, userRepository::findById);
     }
 
     public Optional<User> actualizarUser(Long id, User userActualizado) {
+        return actualizarUser(id, userActualizado, null);
+    }
+
+    public Optional<User> actualizarUser(Long id, User userActualizado, Long versionEsperada) {
         return userRepository.findById(id).map(userExistente -> {
+            if (versionEsperada != null && userExistente.getVersion() != versionEsperada) {
+                throw new OptimisticLockingFailureException("El usuario con ID " + id + " fue modificado por otra solicitud");
+            }
             userExistente.setNombre(userActualizado.getNombre());
-            userExistente.setPassword(userActualizado.getPassword());
+            // La contraseña no se entrega en las respuestas; si no viene se conserva, como en el PATCH
+            if (userActualizado.getPassword() != null) {
+                userExistente.setPassword(contrasenas.codificar(userActualizado.getPassword()));
+            }
             userExistente.setEmail(userActualizado.getEmail());
             userExistente.setValidated(userActualizado.isValidated());
-            return userRepository.save(userExistente);
+            User guardado = userRepository.save(userExistente);
+            cache.invalidar(id);
+            filtroCorreos.agregar(guardado.getEmail());
+            return guardado;
         });
     }
 
+    public int actualizarUserParcial(Long id, CambiosUser cambios, Long versionEsperada) {
+        int filas = userRepository.actualizarParcial(id, versionEsperada,
+                cambios.nombre(), contrasenas.codificar(cambios.password()), cambios.email(), cambios.validated());
+        cache.invalidar(id);
+        if (filas > 0) {
+            filtroCorreos.agregar(cambios.email());
+        }
+        if (filas == 0 && versionEsperada != null && userRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("El usuario con ID " + id + " fue modificado por otra solicitud");
+        }
+        return filas;
+    }
 
     public boolean eliminarUser(Long id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        boolean eliminado = userRepository.eliminarPorId(id) > 0;
+        cache.invalidar(id);
+        return eliminado;
+    }
+
+    public int eliminarUsers(Collection<Long> ids) {
+        int eliminados = EliminacionPorLotes.eliminar(ids, userRepository::eliminarPorIds);
+        ids.forEach(cache::invalidar);
+        return eliminados;
     }
 
-    public Optional<User> login(String email, String password) {
+    /**
+     * Busca el usuario en la transacción de la solicitud, salvo que {@link FiltroCorreos} descarte
+     * el correo, y verifica la contraseña en el pool de {@link Contrasenas}. Si la contraseña guardada está en texto plano o con un costo menor al
+     * configurado, la reemplaza por un hash nuevo.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException si el pool de verificación está lleno
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<Optional<User>> login(String email, String password) {
+        if (!filtroCorreos.puedeExistir(email)) {
+            // Se verifica igual contra un hash ficticio para que tarde lo mismo que un correo existente
+            return contrasenas.enPool(() -> {
+                contrasenas.verificar(password, null);
+                return Optional.empty();
+            });
+        }
         Optional<User> userOpt = userRepository.findByEmail(email);
-        if (userOpt.isPresent() && userOpt.get().getPassword().equals(password)) {
-            return userOpt;
+        if (userOpt.isEmpty()) {
+            filtroCorreos.registrarFalsoPositivo();
         }
-        return Optional.empty();
+        String almacenada = userOpt.map(User::getPassword).orElse(null);
+        return contrasenas.enPool(() -> {
+            if (!contrasenas.verificar(password, almacenada)) {
+                return Optional.empty();
+            }
+            User user = userOpt.get();
+            if (contrasenas.requiereActualizar(almacenada)) {
+                String hash = contrasenas.codificar(password);
+                if (userRepository.actualizarPassword(user.getId(), almacenada, hash) > 0) {
+                    user.setPassword(hash);
+                    cache.invalidar(user.getId());
+                }
+            }
+            return userOpt;
+        });
     }
 
 }
@@ -0,0 +1,43 @@
+-- Esquema que creaba ddl-auto=update en la primera versión de la aplicación: ids AUTO_INCREMENT,
+-- sin columnas version, y evaluacion.curso_id y las fechas de curso como texto. En una base nueva
+-- Flyway lo crea y aplica sobre él las migraciones siguientes; una base existente ya lo tiene y se
+-- registra en la versión 1 (spring.flyway.baseline-version), así que recibe desde V002.
+
+CREATE TABLE curso (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255),
+    descripcion VARCHAR(255),
+    categoria VARCHAR(255),
+    fecha_inicio VARCHAR(255),
+    fecha_fin VARCHAR(255),
+    instructor VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE contenido (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    titulo VARCHAR(255),
+    tipo VARCHAR(255),
+    url VARCHAR(255),
+    descripcion VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE evaluacion (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    titulo VARCHAR(255),
+    tipo VARCHAR(255),
+    puntaje_maximo INTEGER NOT NULL,
+    curso_id VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nombre VARCHAR(255),
+    username VARCHAR(255),
+    password VARCHAR(255),
+    email VARCHAR(255),
+    validated BIT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
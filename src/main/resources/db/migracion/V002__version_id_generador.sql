@@ -0,0 +1,35 @@
+-- Las entidades pasan de IDENTITY a un generador de tabla (id_generador) y agregan @Version.
+-- Las filas existentes parten en la versión 0.
+
+ALTER TABLE curso
+    MODIFY id BIGINT NOT NULL,
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE contenido
+    MODIFY id BIGINT NOT NULL,
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE evaluacion
+    MODIFY id BIGINT NOT NULL,
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE user
+    MODIFY id BIGINT NOT NULL,
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE id_generador (
+    entidad VARCHAR(255) NOT NULL,
+    siguiente_valor BIGINT,
+    PRIMARY KEY (entidad)
+) ENGINE = InnoDB;
+
+-- El primer bloque de cada entidad parte sobre el mayor id que asignó AUTO_INCREMENT, con el
+-- mismo margen que InicializadorIdGenerador (un bloque de 50), que lo vuelve a comprobar al iniciar.
+INSERT INTO id_generador (entidad, siguiente_valor)
+SELECT 'curso', COALESCE(MAX(id), 0) + 50 FROM curso
+UNION ALL
+SELECT 'contenido', COALESCE(MAX(id), 0) + 50 FROM contenido
+UNION ALL
+SELECT 'evaluacion', COALESCE(MAX(id), 0) + 50 FROM evaluacion
+UNION ALL
+SELECT 'user', COALESCE(MAX(id), 0) + 50 FROM user;
@@ -0,0 +1,16 @@
+-- Evaluacion.cursoId pasa de texto libre a referencia numérica a curso. Flyway la aplica al
+-- iniciar, antes de que Hibernate valide que curso_id es BIGINT (ddl-auto=validate).
+
+-- Los valores que no corresponden a un curso existente quedan sin curso.
+UPDATE evaluacion e
+LEFT JOIN curso c ON TRIM(e.curso_id) REGEXP '^[0-9]+$' AND c.id = CAST(TRIM(e.curso_id) AS UNSIGNED)
+SET e.curso_id = CASE WHEN c.id IS NULL THEN NULL ELSE c.id END
+WHERE e.curso_id IS NOT NULL;
+
+ALTER TABLE evaluacion MODIFY curso_id BIGINT NULL;
+
+CREATE INDEX idx_evaluacion_curso_id ON evaluacion (curso_id, id);
+
+-- Eliminar un curso conserva sus evaluaciones, sin curso asociado.
+ALTER TABLE evaluacion
+    ADD CONSTRAINT fk_evaluacion_curso FOREIGN KEY (curso_id) REFERENCES curso (id) ON DELETE SET NULL;
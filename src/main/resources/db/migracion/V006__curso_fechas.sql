@@ -0,0 +1,56 @@
+-- Curso.fechaInicio y fechaFin pasan de texto a DATE. Flyway la aplica al iniciar, antes de que
+-- Hibernate valide que las columnas son DATE (ddl-auto=validate).
+-- Se aceptan los formatos aaaa-mm-dd, aaaa-mm (primer día del mes) y dd/mm/aaaa o dd-mm-aaaa;
+-- los valores vacíos quedan en NULL.
+
+-- MySQL no revierte el DDL: si alguna fecha no se puede convertir, la migración falla aquí, antes
+-- de modificar la tabla, en vez de perder el valor. Hay que corregir esas filas y volver a iniciar.
+DROP PROCEDURE IF EXISTS verificar_fechas_curso;
+
+DELIMITER //
+CREATE PROCEDURE verificar_fechas_curso()
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM curso
+               WHERE (NULLIF(TRIM(fecha_inicio), '') IS NOT NULL
+                      AND TRIM(fecha_inicio) NOT REGEXP '^[0-9]{4}-[0-9]{2}(-[0-9]{2})?$|^[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}$')
+                  OR (NULLIF(TRIM(fecha_fin), '') IS NOT NULL
+                      AND TRIM(fecha_fin) NOT REGEXP '^[0-9]{4}-[0-9]{2}(-[0-9]{2})?$|^[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}$')) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'V006: hay cursos con fecha_inicio o fecha_fin en un formato que no se puede convertir a DATE';
+    END IF;
+END //
+DELIMITER ;
+
+CALL verificar_fechas_curso();
+DROP PROCEDURE verificar_fechas_curso;
+
+ALTER TABLE curso
+    ADD COLUMN fecha_inicio_nueva DATE NULL,
+    ADD COLUMN fecha_fin_nueva DATE NULL;
+
+UPDATE curso SET
+    fecha_inicio_nueva = CASE
+        WHEN TRIM(fecha_inicio) REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' THEN STR_TO_DATE(TRIM(fecha_inicio), '%Y-%m-%d')
+        WHEN TRIM(fecha_inicio) REGEXP '^[0-9]{4}-[0-9]{2}$' THEN STR_TO_DATE(CONCAT(TRIM(fecha_inicio), '-01'), '%Y-%m-%d')
+        WHEN TRIM(fecha_inicio) REGEXP '^[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}$'
+            THEN STR_TO_DATE(REPLACE(TRIM(fecha_inicio), '-', '/'), '%d/%m/%Y')
+    END,
+    fecha_fin_nueva = CASE
+        WHEN TRIM(fecha_fin) REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' THEN STR_TO_DATE(TRIM(fecha_fin), '%Y-%m-%d')
+        WHEN TRIM(fecha_fin) REGEXP '^[0-9]{4}-[0-9]{2}$' THEN STR_TO_DATE(CONCAT(TRIM(fecha_fin), '-01'), '%Y-%m-%d')
+        WHEN TRIM(fecha_fin) REGEXP '^[0-9]{2}[-/][0-9]{2}[-/][0-9]{4}$'
+            THEN STR_TO_DATE(REPLACE(TRIM(fecha_fin), '-', '/'), '%d/%m/%Y')
+    END;
+
+ALTER TABLE curso
+    DROP COLUMN fecha_inicio,
+    DROP COLUMN fecha_fin;
+
+ALTER TABLE curso
+    RENAME COLUMN fecha_inicio_nueva TO fecha_inicio,
+    RENAME COLUMN fecha_fin_nueva TO fecha_fin;
+
+-- El id al final permite recorrer el índice en el mismo orden que el cursor (fecha, id).
+CREATE INDEX idx_curso_fecha_inicio ON curso (fecha_inicio, id);
+CREATE INDEX idx_curso_fecha_fin ON curso (fecha_fin, id);
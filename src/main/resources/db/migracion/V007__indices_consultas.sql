@@ -0,0 +1,31 @@
+-- Índices de las consultas que no usan la clave primaria. evaluacion (curso_id, id) ya existe
+-- desde V005. Cada índice está declarado también en @Table de su entidad: IndicesConsultasTest
+-- comprueba con ellos que ninguna consulta de los repositorios recorre una tabla completa.
+
+-- Correos o nombres de usuario repetidos impiden crear los índices únicos. MySQL no revierte el
+-- DDL, así que se comprueba antes del primer índice y la migración falla sin dejarla a medias.
+DROP PROCEDURE IF EXISTS verificar_usuarios_unicos;
+
+DELIMITER //
+CREATE PROCEDURE verificar_usuarios_unicos()
+BEGIN
+    IF EXISTS (SELECT 1 FROM user WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'V007: hay correos repetidos en user; corregirlos antes de crear uk_user_email';
+    END IF;
+    IF EXISTS (SELECT 1 FROM user WHERE username IS NOT NULL GROUP BY username HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'V007: hay nombres de usuario repetidos en user; corregirlos antes de crear uk_user_username';
+    END IF;
+END //
+DELIMITER ;
+
+CALL verificar_usuarios_unicos();
+DROP PROCEDURE verificar_usuarios_unicos;
+
+-- Login por correo (UserRepository.findByEmail)
+CREATE UNIQUE INDEX uk_user_email ON user (email);
+CREATE UNIQUE INDEX uk_user_username ON user (username);
+
+-- El id al final permite paginar una categoría por keyset, como los índices de fechas.
+CREATE INDEX idx_curso_categoria ON curso (categoria, id);
@@ -0,0 +1,141 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.ProyectopruebaApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tiempo desde que se lanza la JVM hasta la primera respuesta 200 de /api/v2/cursos/listar,
+ * con la configuración por defecto y agregando el perfil {@code produccion}, AOT y el archivo
+ * CDS. Usa la aplicación extraída por {@code mvn package -Pproduccion} en target/aplicacion y
+ * una base H2 en archivo que crea la primera ejecución. Se ejecuta con
+ * {@code mvn test -Pbenchmark -Dtest=ArranqueTest}.
+ */
+@Tag("benchmark")
+public class ArranqueTest {
+
+    private static final int REPETICIONES = Integer.getInteger("arranque.repeticiones", 3);
+    private static final long LIMITE_MS = TimeUnit.MINUTES.toMillis(2);
+
+    private static final Path APLICACION = Paths.get("target", "aplicacion");
+    private static final Path BASE = Paths.get("target", "arranque");
+
+    @Test
+    public void compararArranque() throws Exception {
+        Path jar;
+        try (var archivos = Files.list(APLICACION)) {
+            jar = archivos.filter(archivo -> archivo.toString().endsWith(".jar")).findFirst().orElseThrow();
+        } catch (IOException e) {
+            jar = null;
+        }
+        assumeTrue(jar != null && Files.exists(APLICACION.resolve("aplicacion.jsa")),
+                "Falta target/aplicacion; ejecute antes mvn package -Pproduccion");
+        eliminar(BASE);
+        Files.createDirectories(BASE);
+
+        Map<String, List<String>> variantes = new LinkedHashMap<>();
+        // Las migraciones son de MySQL: sobre H2 el esquema lo crea Hibernate en la primera ejecución
+        variantes.put("por defecto", List.of("-Dspring.jpa.hibernate.ddl-auto=update"));
+        variantes.put("perfil produccion", List.of("-Dspring.profiles.active=produccion"));
+        variantes.put("produccion + AOT", List.of("-Dspring.profiles.active=produccion", "-Dspring.aot.enabled=true"));
+        variantes.put("produccion + AOT + CDS", List.of("-Dspring.profiles.active=produccion", "-Dspring.aot.enabled=true",
+                "-XX:SharedArchiveFile=aplicacion.jsa"));
+
+        Map<String, Long> medianas = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> variante : variantes.entrySet()) {
+            long[] tiempos = new long[REPETICIONES];
+            for (int i = 0; i < REPETICIONES; i++) {
+                tiempos[i] = primeraRespuesta(jar, variante.getKey(), variante.getValue());
+            }
+            Arrays.sort(tiempos);
+            medianas.put(variante.getKey(), tiempos[REPETICIONES / 2]);
+            System.out.printf("%-24s %5d ms hasta la primera respuesta (mediana de %d: %s)%n",
+                    variante.getKey(), tiempos[REPETICIONES / 2], REPETICIONES, Arrays.toString(tiempos));
+        }
+        assertTrue(medianas.get("produccion + AOT + CDS") < medianas.get("por defecto"));
+    }
+
+    private static long primeraRespuesta(Path jar, String variante, List<String> opciones) throws Exception {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opciones);
+        // Se ejecuta desde target/aplicacion con la misma ruta de clases relativa que la ejecución de
+        // entrenamiento; si no coincide, la JVM ignora el archivo CDS sin fallar
+        comando.addAll(List.of("-cp", jar.getFileName() + File.pathSeparator + driverH2(), ProyectopruebaApplication.class.getName(),
+                "--server.port=" + puerto,
+                "--spring.datasource.url=jdbc:h2:file:" + BASE.toAbsolutePath().resolve("bd")
+                        + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.flyway.locations=classpath:sin-migraciones",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        Process proceso = new ProcessBuilder(comando)
+                .directory(APLICACION.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(BASE.toAbsolutePath().resolve(variante.replace(' ', '-') + ".log").toFile())
+                .start();
+        long inicio = System.nanoTime();
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/v2/cursos/listar")).build();
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            while (true) {
+                long transcurrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                if (!proceso.isAlive() || transcurrido > LIMITE_MS) {
+                    throw new IllegalStateException(variante + " no respondió; ver " + BASE.resolve(variante.replace(' ', '-') + ".log"));
+                }
+                try {
+                    if (http.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return transcurrido;
+                    }
+                } catch (ConnectException e) {
+                    // Todavía no escucha
+                }
+                Thread.sleep(10);
+            }
+        } finally {
+            proceso.destroy();
+            proceso.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String driverH2() {
+        String rutaPruebas = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        return Arrays.stream(rutaPruebas.split(File.pathSeparator))
+                .filter(entrada -> Paths.get(entrada).getFileName().toString().startsWith("h2-"))
+                .map(entrada -> Paths.get(entrada).toAbsolutePath().toString())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void eliminar(Path directorio) throws IOException {
+        if (Files.exists(directorio)) {
+            try (var archivos = Files.walk(directorio)) {
+                archivos.sorted((a, b) -> b.compareTo(a)).forEach(archivo -> archivo.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Ejecuta los benchmarks JMH de este paquete y deja los resultados en
+ * {@code target/jmh/resultados.json}. Con {@code -Djmh.incluir=<regex>} se ejecuta solo un
+ * subconjunto, por ejemplo {@code -Djmh.incluir=Login}.
+ */
+@Tag("benchmark")
+public class BenchmarksTest {
+
+    @Test
+    public void ejecutarBenchmarks() throws RunnerException {
+        File resultado = new File(System.getProperty("jmh.resultado", "target/jmh/resultados.json"));
+        resultado.getParentFile().mkdirs();
+
+        Options opciones = new OptionsBuilder()
+                .include(getClass().getPackageName() + "\\." + System.getProperty("jmh.incluir", ""))
+                .warmupIterations(2)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(3)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                // Sin esto el fork hereda el agente de jacoco que surefire recibe de argLine
+                .jvmArgs("-Xms512m", "-Xmx512m")
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultado.getPath())
+                .build();
+
+        Collection<RunResult> resultados = new Runner(opciones).run();
+
+        assertFalse(resultados.isEmpty());
+    }
+}
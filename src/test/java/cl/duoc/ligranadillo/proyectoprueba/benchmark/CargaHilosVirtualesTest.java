@@ -0,0 +1,177 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.ProyectopruebaApplication;
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import cl.duoc.ligranadillo.proyectoprueba.service.ContenidoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.CursoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.EvaluacionService;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoLote;
+import cl.duoc.ligranadillo.proyectoprueba.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de los cuatro controladores con hilos de plataforma (configuración por
+ * defecto) y con el perfil {@code hilos-virtuales}. Cada consulta a la base espera
+ * {@code carga.latencia-ms} para simular MySQL; la mitad de las solicitudes son /listar (van a la
+ * base) y la otra mitad /{id} (se responden desde la cache). Se ejecuta con
+ * {@code mvn test -Pbenchmark -Dtest=CargaHilosVirtualesTest}.
+ */
+@Tag("benchmark")
+public class CargaHilosVirtualesTest {
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 400);
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(Long.getLong("carga.calentamiento", 5));
+    private static final Duration MEDICION = Duration.ofSeconds(Long.getLong("carga.segundos", 15));
+    private static final int POOL_CONEXIONES = 20;
+    private static final int FILAS = 100;
+
+    private static final List<String> RECURSOS = List.of("cursos", "contenidos", "evaluaciones", "users");
+
+    @Test
+    public void compararModelosDeHilos() throws Exception {
+        DriverConLatencia.latenciaMs = Long.getLong("carga.latencia-ms", 5);
+
+        Resultado plataforma = medir(false);
+        Resultado virtuales = medir(true);
+
+        System.out.printf("%d clientes, %d ms por consulta, pool de %d conexiones%n",
+                CLIENTES, DriverConLatencia.latenciaMs, POOL_CONEXIONES);
+        System.out.println("Hilos de plataforma: " + plataforma);
+        System.out.println("Hilos virtuales:     " + virtuales);
+        assertEquals(0, plataforma.errores());
+        assertEquals(0, virtuales.errores());
+        assertTrue(virtuales.porSegundo() > plataforma.porSegundo());
+    }
+
+    private static Resultado medir(boolean hilosVirtuales) throws Exception {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--spring.datasource.url=jdbc:latencia:h2:mem:carga" + hilosVirtuales
+                        + ";MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=" + DriverConLatencia.class.getName(),
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                // Mismo pool en ambos modos: solo cambia el modelo de hilos
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_CONEXIONES,
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        if (hilosVirtuales) {
+            argumentos.add("--spring.profiles.active=hilos-virtuales");
+        }
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ProyectopruebaApplication.class)
+                .run(argumentos.toArray(String[]::new))) {
+            List<URI> uris = uris(((WebServerApplicationContext) contexto).getWebServer().getPort(), precargar(contexto));
+            ejecutar(uris, CALENTAMIENTO);
+            return ejecutar(uris, MEDICION);
+        }
+    }
+
+    private static long precargar(ConfigurableApplicationContext contexto) {
+        List<ResultadoLote> cursos = contexto.getBean(CursoService.class).guardarCursos(IntStream.range(0, FILAS)
+                .mapToObj(i -> new Curso(null, "Curso " + i, "Descripción " + i, "Programación",
+                        LocalDate.of(2025, 3, 1), LocalDate.of(2025, 7, 15), "Juan Pérez", 0L))
+                .toList());
+        long cursoId = cursos.get(0).id();
+        contexto.getBean(ContenidoService.class).guardarContenidos(IntStream.range(0, FILAS)
+                .mapToObj(i -> new Contenido(null, "Clase " + i, "Video", "https://cursos.example.com/" + i, "Clase", 0L))
+                .toList());
+        contexto.getBean(EvaluacionService.class).guardarEvaluaciones(IntStream.range(0, FILAS)
+                .mapToObj(i -> new Evaluacion(null, "Prueba " + i, "Cuestionario", 100, cursoId, 0L))
+                .toList());
+        contexto.getBean(UserService.class).guardarUsers(IntStream.range(0, FILAS)
+                .mapToObj(i -> new User(null, "Usuario " + i, "usuario" + i, "pass123", "usuario" + i + "@example.com", true, 0L))
+                .toList());
+        return cursoId;
+    }
+
+    // Todas las entidades comparten el mismo rango de ids al precargarse en una base vacía
+    private static List<URI> uris(int puerto, long primerId) {
+        List<URI> uris = new ArrayList<>();
+        for (String recurso : RECURSOS) {
+            uris.add(URI.create("http://localhost:" + puerto + "/api/v2/" + recurso + "/listar?tamano=20"));
+            uris.add(URI.create("http://localhost:" + puerto + "/api/v2/" + recurso + "/" + primerId));
+        }
+        return uris;
+    }
+
+    private static Resultado ejecutar(List<URI> uris, Duration duracion) throws Exception {
+        AtomicLong errores = new AtomicLong();
+        long fin = System.nanoTime() + duracion.toNanos();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            List<Future<long[]>> latencias = new ArrayList<>();
+            for (int cliente = 0; cliente < CLIENTES; cliente++) {
+                int desplazamiento = cliente;
+                latencias.add(clientes.submit(() -> {
+                    LongStream.Builder propias = LongStream.builder();
+                    for (int i = desplazamiento; System.nanoTime() < fin; i++) {
+                        HttpRequest solicitud = HttpRequest.newBuilder(uris.get(i % uris.size())).build();
+                        long inicio = System.nanoTime();
+                        try {
+                            int estado = http.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (estado != 200) {
+                                errores.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errores.incrementAndGet();
+                        }
+                        propias.add(System.nanoTime() - inicio);
+                    }
+                    return propias.build().toArray();
+                }));
+            }
+            LongStream todas = LongStream.empty();
+            for (Future<long[]> propias : latencias) {
+                todas = LongStream.concat(todas, Arrays.stream(propias.get()));
+            }
+            long[] ordenadas = todas.sorted().toArray();
+            return new Resultado(ordenadas.length / (double) duracion.toSeconds(),
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), errores.get());
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        return ordenadas[(int) Math.ceil(percentil * ordenadas.length) - 1] / 1_000_000.0;
+    }
+
+    private record Resultado(double porSegundo, double p50Ms, double p99Ms, long errores) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f solicitudes/s, p50 %.1f ms, p99 %.1f ms, %d errores", porSegundo, p50Ms, p99Ms, errores);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Datos {
+
+    private Datos() {
+    }
+
+    static List<Curso> cursos(int cantidad) {
+        List<Curso> cursos = new ArrayList<>(cantidad);
+        for (long id = 1; id <= cantidad; id++) {
+            cursos.add(new Curso(id, "Curso " + id, "Introducción a la programación " + id, "Programación",
+                    LocalDate.of(2025, 3, 1), LocalDate.of(2025, 7, 15), "Juan Pérez", id % 3));
+        }
+        return cursos;
+    }
+
+    static List<Contenido> contenidos(int cantidad) {
+        List<Contenido> contenidos = new ArrayList<>(cantidad);
+        for (long id = 1; id <= cantidad; id++) {
+            contenidos.add(new Contenido(id, "Clase " + id, "Video", "https://cursos.example.com/videos/" + id,
+                    "Explicación de variables, tipos y operadores", id % 3));
+        }
+        return contenidos;
+    }
+}
@@ -0,0 +1,85 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Driver JDBC para URLs {@code jdbc:latencia:<url>} que delega en el driver de {@code jdbc:<url>}
+ * y espera {@link #latenciaMs} antes de cada ejecución de sentencia. Simula el tiempo de red y de
+ * servidor de MySQL sobre una base H2 en memoria, para que las solicitudes pasen la mayor parte
+ * del tiempo bloqueadas como en producción.
+ */
+public class DriverConLatencia implements Driver {
+
+    private static final String PREFIJO = "jdbc:latencia:";
+
+    static volatile long latenciaMs = 5;
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        Connection conexion = DriverManager.getConnection("jdbc:" + url.substring(PREFIJO.length()), info);
+        return envolver(Connection.class, conexion);
+    }
+
+    private static <T> T envolver(Class<T> tipo, Object real) {
+        InvocationHandler manejador = (proxy, metodo, argumentos) -> {
+            if (metodo.getName().startsWith("execute")) {
+                Thread.sleep(latenciaMs);
+            }
+            Object resultado;
+            try {
+                resultado = metodo.invoke(real, argumentos);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            // Las sentencias que crea la conexión también deben esperar al ejecutarse
+            if (tipo == Connection.class && metodo.getName().matches("prepareStatement|prepareCall|createStatement")) {
+                return envolver(metodo.getReturnType(), resultado);
+            }
+            return resultado;
+        };
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, manejador));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIJO);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
@@ -0,0 +1,61 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.config.JacksonConfig;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaCurso;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lo que hacen los controladores después de consultar el servicio: armar la respuesta de
+ * /listar o /{id} y escribirla como JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EnvolturasBenchmark {
+
+    private static final Mensaje CURSOS_OBTENIDOS = Mensaje.de("Cursos obtenidos correctamente");
+    private static final Mensaje CURSO_ENCONTRADO = Mensaje.de("Curso encontrado");
+
+    private ObjectMapper mapper;
+    private List<Curso> filas;
+    private Curso curso;
+
+    @Setup
+    public void preparar() {
+        mapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new JacksonConfig().blackbirdModule()).build();
+        // Una fila más que el tamaño de página, como la que entrega el repositorio
+        filas = Datos.cursos(21);
+        curso = filas.get(0);
+    }
+
+    @Benchmark
+    public RespuestaPagina<Curso> construirPagina() {
+        return RespuestaPagina.de(CURSOS_OBTENIDOS, Pagina.de(filas, 20, Curso::getId));
+    }
+
+    @Benchmark
+    public byte[] responderListar() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(RespuestaPagina.de(CURSOS_OBTENIDOS, Pagina.de(filas, 20, Curso::getId)));
+    }
+
+    @Benchmark
+    public byte[] responderPorId() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new RespuestaCurso(CURSO_ENCONTRADO, curso));
+    }
+}
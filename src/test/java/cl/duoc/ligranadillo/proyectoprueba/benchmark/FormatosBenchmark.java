@@ -0,0 +1,100 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.config.JacksonConfig;
+import cl.duoc.ligranadillo.proyectoprueba.config.RespuestaProtobufConverter;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificación de una página de cursos de /listar en JSON, CBOR, Smile y protobuf, sin comprimir
+ * y con gzip como lo hace el servidor. El tamaño de cada variante se imprime al preparar el
+ * benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatosBenchmark {
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String formato;
+
+    @Param({"20", "100"})
+    private int tamano;
+
+    private Codificador codificador;
+    private RespuestaPagina<Curso> respuesta;
+
+    @Setup
+    public void preparar() throws IOException {
+        codificador = codificador(formato);
+        respuesta = RespuestaPagina.de(Mensaje.de("Cursos obtenidos correctamente"),
+                Pagina.de(Datos.cursos(tamano + 1), tamano, Curso::getId));
+        System.out.printf("%n%s, %d cursos: %d bytes, %d bytes con gzip%n",
+                formato, tamano, codificar().length, codificarGzip().length);
+    }
+
+    @Benchmark
+    public byte[] codificar() throws IOException {
+        return codificador.codificar(respuesta);
+    }
+
+    @Benchmark
+    public byte[] codificarGzip() throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(codificador.codificar(respuesta));
+        }
+        return salida.toByteArray();
+    }
+
+    private static Codificador codificador(String formato) throws IOException {
+        if (formato.equals("protobuf")) {
+            RespuestaProtobufConverter converter = new RespuestaProtobufConverter(builder(new ProtobufFactory()).build());
+            return respuesta -> {
+                MockHttpOutputMessage salida = new MockHttpOutputMessage();
+                converter.write(respuesta, RespuestaProtobufConverter.PROTOBUF, salida);
+                return salida.getBodyAsBytes();
+            };
+        }
+        JsonFactory factory = switch (formato) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        return builder(factory).build()::writeValueAsBytes;
+    }
+
+    // Las mismas opciones que aplica Spring Boot al ObjectMapper de la aplicación
+    private static Jackson2ObjectMapperBuilder builder(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .modulesToInstall(new JacksonConfig().blackbirdModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private interface Codificador {
+        byte[] codificar(RespuestaPagina<Curso> respuesta) throws IOException;
+    }
+}
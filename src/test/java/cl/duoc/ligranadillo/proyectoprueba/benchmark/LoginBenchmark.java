@@ -0,0 +1,97 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import cl.duoc.ligranadillo.proyectoprueba.repository.UserRepository;
+import cl.duoc.ligranadillo.proyectoprueba.service.CacheLocal;
+import cl.duoc.ligranadillo.proyectoprueba.service.Contrasenas;
+import cl.duoc.ligranadillo.proyectoprueba.service.FiltroCorreos;
+import cl.duoc.ligranadillo.proyectoprueba.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Logins por segundo de {@link UserService#login} sin base de datos, con contraseñas bcrypt de
+ * distintos costos: el repositorio responde desde memoria, de modo que el resultado refleja la
+ * verificación en el pool de {@link Contrasenas}. Cada punto de costo duplica el tiempo de
+ * verificación, y un email inexistente, que {@link FiltroCorreos} descarta sin consultar el
+ * repositorio, cuesta lo mismo que una contraseña incorrecta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoginBenchmark {
+
+    private static final String EMAIL = "juanito@example.com";
+    private static final String PASSWORD = "pass123";
+
+    @Param({"4", "8", "10", "12"})
+    public int costo;
+
+    private Contrasenas contrasenas;
+    private UserService userService;
+
+    @Setup
+    public void preparar() {
+        contrasenas = new Contrasenas(costo, 0, 100, new SimpleMeterRegistry());
+        User user = new User(1L, "Juan Pérez", "juanito", contrasenas.codificar(PASSWORD), EMAIL, true, 0L);
+        UserRepository repositorio = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("findByEmail")) {
+                        return EMAIL.equals(argumentos[0]) ? Optional.of(user) : Optional.empty();
+                    }
+                    if (metodo.getName().equals("count")) {
+                        return 1L;
+                    }
+                    if (metodo.getName().equals("streamEmails")) {
+                        return Stream.of(EMAIL);
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+        // Sin base de datos no hay transacciones que abrir ni confirmar
+        PlatformTransactionManager transacciones = (PlatformTransactionManager) Proxy.newProxyInstance(
+                PlatformTransactionManager.class.getClassLoader(), new Class<?>[]{PlatformTransactionManager.class},
+                (proxy, metodo, argumentos) -> null);
+        FiltroCorreos filtroCorreos = new FiltroCorreos(repositorio, transacciones,
+                100, 0.01, Duration.ZERO, new SimpleMeterRegistry());
+        filtroCorreos.reconstruir();
+        userService = new UserService(repositorio, new CacheLocal<>("users", 100, Duration.ofMinutes(1)), null,
+                contrasenas, filtroCorreos);
+    }
+
+    @TearDown
+    public void detener() {
+        contrasenas.detener();
+    }
+
+    @Benchmark
+    public Optional<User> loginCorrecto() {
+        return userService.login(EMAIL, PASSWORD).join();
+    }
+
+    @Benchmark
+    public Optional<User> loginPasswordIncorrecta() {
+        return userService.login(EMAIL, "otra123").join();
+    }
+
+    @Benchmark
+    public Optional<User> loginEmailInexistente() {
+        return userService.login("nadie@example.com", PASSWORD).join();
+    }
+
+}
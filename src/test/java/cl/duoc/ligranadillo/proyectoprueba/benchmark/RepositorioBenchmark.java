@@ -0,0 +1,93 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.ProyectopruebaApplication;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.repository.CursoRepository;
+import cl.duoc.ligranadillo.proyectoprueba.service.CursoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoLote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas y escrituras de cursos a través de los repositorios de la aplicación, contra una
+ * base H2 en memoria precargada con {@value #CURSOS} cursos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositorioBenchmark {
+
+    static final int CURSOS = 10_000;
+    private static final int TAMANO_PAGINA = 20;
+
+    private ConfigurableApplicationContext contexto;
+    private CursoRepository cursoRepository;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        // Los argumentos tienen prioridad sobre application.properties, que apunta a MySQL
+        contexto = new SpringApplicationBuilder(ProyectopruebaApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        cursoRepository = contexto.getBean(CursoRepository.class);
+
+        List<ResultadoLote> resultados = contexto.getBean(CursoService.class).guardarCursos(Datos.cursos(CURSOS).stream()
+                .peek(curso -> curso.setId(null))
+                .toList());
+        ids = resultados.stream().mapToLong(ResultadoLote::id).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Curso> obtenerPorId() {
+        return cursoRepository.findById(idAleatorio());
+    }
+
+    @Benchmark
+    public List<Curso> listarPagina() {
+        return cursoRepository.findByIdGreaterThanOrderByIdAsc(idAleatorio(), Limit.of(TAMANO_PAGINA + 1));
+    }
+
+    @Benchmark
+    public Curso insertar() {
+        return cursoRepository.save(new Curso(null, "Curso nuevo", "Creado durante el benchmark", "Programación",
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 7, 15), "Juan Pérez", 0L));
+    }
+
+    @Benchmark
+    public int actualizarParcial() {
+        return cursoRepository.actualizarParcial(idAleatorio(), null, null, null, null, null, null, "María López");
+    }
+
+    private long idAleatorio() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
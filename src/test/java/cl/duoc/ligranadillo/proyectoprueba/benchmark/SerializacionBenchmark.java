@@ -0,0 +1,53 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.config.JacksonConfig;
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización a JSON de listas de cursos y contenidos con el ObjectMapper configurado como en
+ * la aplicación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacionBenchmark {
+
+    @Param({"1", "20", "100"})
+    private int tamano;
+
+    private ObjectMapper mapper;
+    private List<Curso> cursos;
+    private List<Contenido> contenidos;
+
+    @Setup
+    public void preparar() {
+        mapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new JacksonConfig().blackbirdModule()).build();
+        cursos = Datos.cursos(tamano);
+        contenidos = Datos.contenidos(tamano);
+    }
+
+    @Benchmark
+    public byte[] cursos() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(cursos);
+    }
+
+    @Benchmark
+    public byte[] contenidos() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(contenidos);
+    }
+}
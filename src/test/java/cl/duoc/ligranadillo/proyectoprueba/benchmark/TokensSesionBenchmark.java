@@ -0,0 +1,77 @@
+package cl.duoc.ligranadillo.proyectoprueba.benchmark;
+
+import cl.duoc.ligranadillo.proyectoprueba.config.SesionFilter;
+import cl.duoc.ligranadillo.proyectoprueba.service.TokenSesion;
+import cl.duoc.ligranadillo.proyectoprueba.service.TokensSesion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por solicitud de la sesión con token: validar la firma HMAC y el vencimiento (con la
+ * clave activa y con la anterior durante una rotación) y pasar por {@link SesionFilter}, frente a
+ * emitir el token en el login. Ninguno consulta la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokensSesionBenchmark {
+
+    private TokensSesion tokensSesion;
+    private SesionFilter filtro;
+    private String token;
+    private String tokenClaveAnterior;
+    private String tokenAlterado;
+
+    @Setup
+    public void preparar() {
+        String nueva = "v2:" + Base64.getEncoder().encodeToString(new byte[32]);
+        String anterior = "v1:" + Base64.getEncoder().encodeToString(new byte[48]);
+        tokensSesion = new TokensSesion(nueva + "," + anterior, Duration.ofHours(1));
+        filtro = new SesionFilter(tokensSesion, new ObjectMapper());
+        token = tokensSesion.emitir(42L).token();
+        tokenClaveAnterior = new TokensSesion(anterior, Duration.ofHours(1)).emitir(42L).token();
+        tokenAlterado = token.substring(0, token.lastIndexOf('.') + 1) + "A".repeat(43);
+    }
+
+    @Benchmark
+    public TokenSesion emitir() {
+        return tokensSesion.emitir(42L);
+    }
+
+    @Benchmark
+    public OptionalLong validar() {
+        return tokensSesion.validar(token);
+    }
+
+    @Benchmark
+    public OptionalLong validarClaveAnterior() {
+        return tokensSesion.validar(tokenClaveAnterior);
+    }
+
+    @Benchmark
+    public OptionalLong validarFirmaAlterada() {
+        return tokensSesion.validar(tokenAlterado);
+    }
+
+    @Benchmark
+    public Object filtrarSolicitud() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/users/sesion");
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return request.getAttribute(SesionFilter.USUARIO);
+    }
+}
@@ -0,0 +1,192 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.service.CursoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.FiltroCorreos;
+import cl.duoc.ligranadillo.proyectoprueba.service.IndiceBusqueda;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoBusqueda;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primaria y réplica son dos bases H2 en memoria independientes, sin replicación entre ellas:
+ * lo que se lee indica a cuál de las dos fue cada consulta.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.replica.jdbc-url=jdbc:h2:mem:replica;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.replica.username=sa",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureMockMvc
+public class EnrutamientoReplicaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private FiltroCorreos filtroCorreos;
+
+    @Autowired
+    private IndiceBusqueda indiceBusqueda;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primariaDataSource")
+    private DataSource primariaDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primaria;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setUp() {
+        primaria = new JdbcTemplate(primariaDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        // Hibernate solo crea el esquema en la primaria; la réplica recibe las mismas tablas
+        Integer tablas = replica.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'CURSO'", Integer.class);
+        if (tablas == 0) {
+            primaria.queryForList("script nodata", String.class).stream()
+                    .filter(sentencia -> sentencia.startsWith("CREATE"))
+                    .forEach(replica::execute);
+        }
+    }
+
+    @AfterEach
+    public void limpiar() {
+        primaria.update("delete from curso");
+        replica.update("delete from curso");
+        primaria.update("delete from user");
+        replica.update("delete from user");
+    }
+
+    @Test
+    public void testLecturasDeSoloLecturaVanALaReplica() {
+        replica.update("insert into curso (id, nombre, descripcion, categoria, fecha_inicio, fecha_fin, instructor, version) "
+                + "values (900, 'Solo en la réplica', 'desc', 'Programación', date '2025-08-01', date '2025-10-01', 'Ana', 0)");
+
+        List<Curso> cursos = cursoService.obtenerCursos(null, 20).data();
+
+        assertEquals(1, cursos.size());
+        assertEquals("Solo en la réplica", cursos.get(0).getNombre());
+    }
+
+    @Test
+    public void testEscriturasVanALaPrimaria() {
+        cursoService.guardarCurso(curso());
+
+        assertEquals(1, primaria.queryForObject("select count(*) from curso", Integer.class));
+        assertEquals(0, replica.queryForObject("select count(*) from curso", Integer.class));
+    }
+
+    @Test
+    public void testClienteLeeSusPropiasEscriturasDuranteLaVentana() throws Exception {
+        Cookie escritura = mockMvc.perform(post("/api/v2/cursos/crear")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(curso())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getCookie(LecturaPropiasEscriturasFilter.COOKIE);
+        assertNotNull(escritura);
+
+        mockMvc.perform(get("/api/v2/cursos/listar").cookie(escritura))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1));
+        mockMvc.perform(get("/api/v2/cursos/listar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+    }
+
+    @Test
+    public void testCookieVencidaLeeDeLaReplica() throws Exception {
+        cursoService.guardarCurso(curso());
+        Cookie vencida = new Cookie(LecturaPropiasEscriturasFilter.COOKIE, String.valueOf(System.currentTimeMillis() - 1));
+
+        mockMvc.perform(get("/api/v2/cursos/listar").cookie(vencida))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+    }
+
+    @Test
+    public void testLoginLeeDeLaReplicaSinFijarLaPrimaria() throws Exception {
+        // Misma fila con distinta contraseña en cada base: solo la de la réplica permite entrar
+        String insertar = "insert into user (id, nombre, username, password, email, validated, version) "
+                + "values (900, 'Ana', 'ana', ?, 'ana@mail.com', true, 0)";
+        primaria.update(insertar, "en-primaria");
+        replica.update(insertar, "en-replica");
+        filtroCorreos.reconstruir();
+
+        MvcResult resultado = mockMvc.perform(post("/api/v2/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"ana@mail.com\",\"password\":\"en-replica\"}"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk());
+
+        assertNull(resultado.getResponse().getCookie(LecturaPropiasEscriturasFilter.COOKIE));
+    }
+
+    @Test
+    public void testReconstruccionDelIndiceLeeDeLaPrimaria() {
+        // Una fila que la réplica todavía no recibió
+        primaria.update("insert into curso (id, nombre, descripcion, categoria, fecha_inicio, fecha_fin, instructor, version) "
+                + "values (900, 'Kotlin multiplataforma', 'desc', 'Programación', date '2025-08-01', date '2025-10-01', 'Ana', 0)");
+
+        // Quien reconstruye puede estar dentro de una transacción de solo lectura
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        soloLectura.executeWithoutResult(estado -> indiceBusqueda.reconstruir());
+
+        List<ResultadoBusqueda> resultados = indiceBusqueda.buscar("kotlin", 10);
+        assertEquals(1, resultados.size());
+        assertEquals(900L, resultados.get(0).id());
+    }
+
+    private static Curso curso() {
+        return new Curso(null, "Spring Boot", "Curso avanzado", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L);
+    }
+}
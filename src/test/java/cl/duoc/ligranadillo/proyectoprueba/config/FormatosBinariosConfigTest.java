@@ -0,0 +1,208 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.controller.ContenidoController;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.service.ContenidoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ContenidoController.class)
+@Import(FormatosBinariosConfig.class)
+public class FormatosBinariosConfigTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final List<Contenido> contenidos = List.of(
+            new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico", 0L),
+            new Contenido(2L, "Streams", "PDF", "https://url2.com", "Intermedio", 3L));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder builder;
+
+    @MockBean
+    private ContenidoService contenidoService;
+
+    @Test
+    void testListarEnCborEsMasCompacto() throws Exception {
+        Mockito.when(contenidoService.obtenerContenidos(any(), Mockito.anyInt()))
+                .thenReturn(new Pagina<>(contenidos, Pagina.codificarCursor(2L)));
+
+        byte[] cbor = mockMvc.perform(get("/api/v2/contenidos/listar").accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/api/v2/contenidos/listar"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode respuesta = new CBORMapper().readTree(cbor);
+        assertEquals(objectMapper.readTree(json), respuesta);
+        assertEquals("Streams", respuesta.at("/data/1/titulo").asText());
+        assertTrue(cbor.length < json.length);
+    }
+
+    @Test
+    void testCrearYResponderEnSmile() throws Exception {
+        Contenido contenido = contenidos.get(0);
+        Mockito.when(contenidoService.guardarContenido(any(Contenido.class))).thenReturn(contenido);
+        SmileMapper smile = new SmileMapper();
+
+        byte[] cuerpo = mockMvc.perform(post("/api/v2/contenidos/crear")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smile.writeValueAsBytes(objectMapper.convertValue(contenido, JsonNode.class))))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode respuesta = smile.readTree(cuerpo);
+        assertEquals("Contenido creado exitosamente", respuesta.get("message").asText());
+        assertEquals("Intro Java", respuesta.at("/contenido/titulo").asText());
+    }
+
+    @Test
+    void testListarEnProtobuf() throws Exception {
+        Mockito.when(contenidoService.obtenerContenidos(any(), Mockito.anyInt()))
+                .thenReturn(new Pagina<>(contenidos, Pagina.codificarCursor(2L)));
+
+        byte[] cuerpo = mockMvc.perform(get("/api/v2/contenidos/listar").accept(RespuestaProtobufConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(RespuestaProtobufConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode respuesta = leerProtobuf("PaginaContenidos", cuerpo);
+        assertEquals("Contenidos obtenidos correctamente", respuesta.get("message").asText());
+        assertEquals(2, respuesta.get("total").asInt());
+        assertEquals("https://url2.com", respuesta.at("/data/1/url").asText());
+        assertEquals(3, respuesta.at("/data/1/version").asLong());
+        assertEquals(Pagina.codificarCursor(2L), respuesta.get("next").asText());
+    }
+
+    @Test
+    void testProtobufEnErrores() throws Exception {
+        Mockito.when(contenidoService.obtenerContenidoPorId(9L)).thenReturn(Optional.empty());
+
+        byte[] cuerpo = mockMvc.perform(get("/api/v2/contenidos/9").accept(RespuestaProtobufConverter.PROTOBUF))
+                .andExpect(status().isNotFound())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals("Contenido con ID 9 no encontrado", leerProtobuf("RespuestaMensaje", cuerpo).get("message").asText());
+    }
+
+    @Test
+    void testProtobufSinEsquemaNoEsAceptable() throws Exception {
+        mockMvc.perform(post("/api/v2/contenidos/crear/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(RespuestaProtobufConverter.PROTOBUF)
+                        .content("[]"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void testProtobufEscribeFechasIso() throws Exception {
+        Curso curso = new Curso(1L, "Java", "Intro", "Programación",
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 7, 15), "Juan Pérez", 0L);
+        MockHttpOutputMessage salida = new MockHttpOutputMessage();
+        RespuestaProtobufConverter converter = new RespuestaProtobufConverter(builder.factory(new ProtobufFactory()).build());
+
+        converter.write(RespuestaPagina.de(Mensaje.de("Cursos"), new Pagina<>(List.of(curso), null)),
+                RespuestaProtobufConverter.PROTOBUF, salida);
+
+        JsonNode respuesta = leerProtobuf("PaginaCursos", salida.getBodyAsBytes());
+        assertEquals("2025-03-01", respuesta.at("/data/0/fechaInicio").asText());
+        assertTrue(respuesta.path("next").isMissingNode());
+    }
+
+    @Test
+    void testEtagDeEntidadSegunFormato() throws Exception {
+        Mockito.when(contenidoService.obtenerContenidoPorId(2L)).thenReturn(Optional.of(contenidos.get(1)));
+
+        mockMvc.perform(get("/api/v2/contenidos/2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-3\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get("/api/v2/contenidos/2").header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-3.cbor\""));
+
+        // La copia en JSON no sirve para quien pide CBOR
+        mockMvc.perform(get("/api/v2/contenidos/2").accept(CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"2-3\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v2/contenidos/2").accept(CBOR).header(HttpHeaders.IF_NONE_MATCH, "\"2-3.cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void testIfMatchConEtagDeOtroFormato() throws Exception {
+        Contenido actualizado = new Contenido(2L, "Streams", "PDF", "https://url2.com", "Intermedio", 4L);
+        Mockito.when(contenidoService.actualizarContenido(eq(2L), any(Contenido.class), eq(3L)))
+                .thenReturn(Optional.of(actualizado));
+
+        mockMvc.perform(put("/api/v2/contenidos/2")
+                        .header(HttpHeaders.IF_MATCH, "\"2-3.smile\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(SMILE)
+                        .content(objectMapper.writeValueAsString(actualizado)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-4.smile\""));
+    }
+
+    @Test
+    void testListarVariaSegunAccept() throws Exception {
+        Mockito.when(contenidoService.obtenerContenidos(any(), Mockito.anyInt()))
+                .thenReturn(new Pagina<>(contenidos, null));
+
+        mockMvc.perform(get("/api/v2/contenidos/listar").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    private static JsonNode leerProtobuf(String tipo, byte[] cuerpo) throws Exception {
+        NativeProtobufSchema esquema = ProtobufSchemaLoader.std.loadNative(
+                new ClassPathResource(RespuestaProtobufConverter.ESQUEMA).getInputStream(), true);
+        return new ProtobufMapper().readerFor(JsonNode.class).with(esquema.forType(tipo)).readValue(cuerpo);
+    }
+}
@@ -0,0 +1,69 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MetricasSolicitudFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private MetricasSolicitudFilter filtro;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        filtro = new MetricasSolicitudFilter(registry);
+    }
+
+    @Test
+    public void testRegistraBytesYSentenciasPorRuta() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v2/cursos/lote");
+        request.setContent("[{\"nombre\":\"Java\"}]".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ContadorSentencias inspector = new ContadorSentencias();
+
+        filtro.doFilter(request, response, (req, res) -> {
+            req.getInputStream().readAllBytes();
+            inspector.inspect("insert into curso ...");
+            inspector.inspect("update id_generador ...");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v2/cursos/lote");
+            res.getOutputStream().write("{\"message\":\"Lote procesado\"}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals(19.0, resumen("http.server.request.size").totalAmount());
+        assertEquals(28.0, resumen("http.server.response.size").totalAmount());
+        assertEquals(2.0, resumen("http.server.request.statements").totalAmount());
+    }
+
+    @Test
+    public void testSinRutaNiCuerpo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/no-existe");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, (req, res) -> ((MockHttpServletResponse) response).setStatus(404));
+
+        DistributionSummary respuesta = registry.get("http.server.response.size")
+                .tags("method", "GET", "uri", "UNKNOWN", "status", "404").summary();
+        assertEquals(1, respuesta.count());
+        assertEquals(0.0, respuesta.totalAmount());
+    }
+
+    @Test
+    public void testNoCuentaSentenciasFueraDeSolicitudes() {
+        new ContadorSentencias().inspect("select 1");
+
+        assertEquals(0, ContadorSentencias.terminar());
+    }
+
+    private DistributionSummary resumen(String nombre) {
+        return registry.get(nombre).tags("method", "POST", "uri", "/api/v2/cursos/lote", "status", "200").summary();
+    }
+}
@@ -0,0 +1,115 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegistroSentenciasTest {
+
+    private final BlockingQueue<RegistroSentencias.Entrada> registradas = new LinkedBlockingQueue<>();
+    private RegistroSentencias registro;
+
+    @AfterEach
+    void detener() {
+        registro.detener();
+    }
+
+    @Test
+    void testNormalizarColapsaLiteralesYListas() {
+        registro = new RegistroSentencias(Duration.ofSeconds(1), 0, 10, 10, registradas::add);
+
+        assertEquals("select c1_0.id from curso c1_0 where c1_0.id in (?, ...) and c1_0.titulo = ?",
+                RegistroSentencias.normalizar("select c1_0.id from curso c1_0\n  where c1_0.id in (?,?, ?) and c1_0.titulo = 'It''s'"));
+        assertEquals("select coalesce(max(id), ?) from curso",
+                RegistroSentencias.normalizar("select coalesce(max(id), 0) from curso"));
+    }
+
+    @Test
+    void testAcumulaPorFormaYRegistraSoloLasLentas() throws Exception {
+        registro = new RegistroSentencias(Duration.ofHours(1), 0, 10, 10, registradas::add);
+        DataSource dataSource = new DataSourceCronometrado(h2(), registro);
+
+        try (Connection conexion = dataSource.getConnection()) {
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("create table curso (id bigint primary key)");
+            }
+            for (int cantidad = 1; cantidad <= 3; cantidad++) {
+                String marcadores = String.join(",", "?".repeat(cantidad).split(""));
+                try (PreparedStatement sentencia = conexion.prepareStatement("select id from curso where id in (" + marcadores + ")")) {
+                    for (int i = 1; i <= cantidad; i++) {
+                        sentencia.setLong(i, i);
+                    }
+                    sentencia.executeQuery().close();
+                }
+            }
+        }
+
+        List<EstadisticasSentencia> estadisticas = registro.estadisticas();
+        assertEquals(2, estadisticas.size());
+        EstadisticasSentencia consulta = estadisticas.stream()
+                .filter(e -> e.forma().equals("select id from curso where id in (?, ...)"))
+                .findFirst().orElseThrow();
+        assertEquals(3, consulta.ejecuciones());
+        assertTrue(consulta.tiempoMaximoMs() <= consulta.tiempoTotalMs());
+        assertNull(registradas.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRegistraLasLentasEnSegundoPlano() throws Exception {
+        registro = new RegistroSentencias(Duration.ofMillis(5), 0, 10, 10, registradas::add);
+
+        registro.registrar("select 1", Duration.ofMillis(1).toNanos());
+        registro.registrar("select 2", Duration.ofMillis(50).toNanos());
+
+        RegistroSentencias.Entrada entrada = registradas.poll(5, TimeUnit.SECONDS);
+        assertNotNull(entrada);
+        assertEquals("select 2", entrada.sql());
+        assertTrue(entrada.lenta());
+        assertEquals(50.0, entrada.milisegundos());
+        assertNull(registradas.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testMuestreaLasRapidas() throws Exception {
+        registro = new RegistroSentencias(Duration.ofHours(1), 1.0, 10, 10, registradas::add);
+
+        registro.registrar("select 1", 1_000);
+
+        RegistroSentencias.Entrada entrada = registradas.poll(5, TimeUnit.SECONDS);
+        assertNotNull(entrada);
+        assertFalse(entrada.lenta());
+    }
+
+    @Test
+    void testFormasSobreElMaximoSeAcumulanJuntas() {
+        registro = new RegistroSentencias(Duration.ofHours(1), 0, 10, 2, registradas::add);
+
+        registro.registrar("select a from curso", 10);
+        registro.registrar("select b from curso", 10);
+        registro.registrar("select c from curso", 10);
+        registro.registrar("select d from curso", 10);
+
+        List<EstadisticasSentencia> estadisticas = registro.estadisticas();
+        assertEquals(3, estadisticas.size());
+        assertEquals(2, estadisticas.get(0).ejecuciones());
+        assertEquals(RegistroSentencias.OTRAS, estadisticas.get(0).forma());
+    }
+
+    private static DataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sentencias;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
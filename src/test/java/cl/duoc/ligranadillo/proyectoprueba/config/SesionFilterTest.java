@@ -0,0 +1,69 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.TokensSesion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class SesionFilterTest {
+
+    private TokensSesion tokensSesion;
+    private SesionFilter filtro;
+
+    @BeforeEach
+    public void setUp() {
+        tokensSesion = Mockito.mock(TokensSesion.class);
+        filtro = new SesionFilter(tokensSesion, new ObjectMapper());
+    }
+
+    @Test
+    public void testTokenValidoDejaElUsuarioEnLaSolicitud() throws Exception {
+        when(tokensSesion.validar("v1.datos.firma")).thenReturn(OptionalLong.of(7L));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/users/sesion");
+        request.addHeader("Authorization", "Bearer v1.datos.firma");
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(7L, request.getAttribute(SesionFilter.USUARIO));
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    public void testTokenInvalidoRespondeSinLlegarAlControlador() throws Exception {
+        when(tokensSesion.validar("v1.datos.otra")).thenReturn(OptionalLong.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/cursos/listar");
+        request.addHeader("Authorization", "bearer v1.datos.otra");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer error=\"invalid_token\"", response.getHeader("WWW-Authenticate"));
+        assertTrue(response.getContentAsString().contains("\"message\""));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    public void testSinTokenSigueIgual() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/cursos/listar");
+        request.addHeader("Authorization", "Basic dXNlcjpwYXNz");
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(request.getAttribute(SesionFilter.USUARIO));
+        assertNotNull(chain.getRequest());
+        Mockito.verifyNoInteractions(tokensSesion);
+    }
+}
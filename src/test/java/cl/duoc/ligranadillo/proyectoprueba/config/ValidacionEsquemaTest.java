@@ -0,0 +1,56 @@
+package cl.duoc.ligranadillo.proyectoprueba.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ValidacionEsquemaTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testEsquemaPendienteAntesDeValidar() {
+        assertEquals(Status.UNKNOWN, new ValidacionEsquema(entityManagerFactory).health().getStatus());
+    }
+
+    @Test
+    public void testEsquemaCoincideConEntidades() {
+        ValidacionEsquema validacion = new ValidacionEsquema(entityManagerFactory);
+
+        validacion.validar();
+
+        assertEquals(Status.UP, validacion.health().getStatus());
+    }
+
+    @Test
+    @DirtiesContext
+    public void testColumnaFaltante() {
+        jdbcTemplate.execute("alter table evaluacion drop column puntaje_maximo");
+        ValidacionEsquema validacion = new ValidacionEsquema(entityManagerFactory);
+
+        validacion.validar();
+
+        assertEquals(Status.DOWN, validacion.health().getStatus());
+        assertTrue(validacion.health().getDetails().get("error").toString().contains("puntaje_maximo"));
+    }
+}
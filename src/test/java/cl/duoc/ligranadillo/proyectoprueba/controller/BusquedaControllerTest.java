@@ -0,0 +1,68 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.EstadisticasIndice;
+import cl.duoc.ligranadillo.proyectoprueba.service.IndiceBusqueda;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoBusqueda;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BusquedaController.class)
+public class BusquedaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IndiceBusqueda indiceBusqueda;
+
+    @Test
+    void testBuscar() throws Exception {
+        Mockito.when(indiceBusqueda.buscar("java", 20)).thenReturn(List.of(
+                new ResultadoBusqueda("curso", 1L, "Programación en Java", 2.5),
+                new ResultadoBusqueda("evaluacion", 4L, "Prueba de Java", 1.2)));
+
+        mockMvc.perform(get("/api/v2/buscar").param("q", "java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Búsqueda realizada correctamente"))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.data[0].tipo").value("curso"))
+                .andExpect(jsonPath("$.data[0].titulo").value("Programación en Java"))
+                .andExpect(jsonPath("$.data[1].id").value(4));
+    }
+
+    @Test
+    void testBuscarLimitaCantidad() throws Exception {
+        Mockito.when(indiceBusqueda.buscar("java", 100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v2/buscar").param("q", "java").param("limite", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+    }
+
+    @Test
+    void testBuscarSinTermino() throws Exception {
+        mockMvc.perform(get("/api/v2/buscar").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Debe indicar un término de búsqueda"));
+    }
+
+    @Test
+    void testReconstruirIndice() throws Exception {
+        Mockito.when(indiceBusqueda.reconstruir()).thenReturn(new EstadisticasIndice(12, 80));
+
+        mockMvc.perform(post("/api/v2/buscar/indice/reconstruir"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Índice de búsqueda reconstruido correctamente"))
+                .andExpect(jsonPath("$.data.documentos").value(12))
+                .andExpect(jsonPath("$.data.terminos").value(80));
+    }
+}
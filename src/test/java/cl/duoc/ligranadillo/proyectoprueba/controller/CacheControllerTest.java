@@ -0,0 +1,45 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.CacheLocal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+public class CacheControllerTest {
+
+    @TestConfiguration
+    static class Caches {
+        @Bean
+        CacheLocal<String> cachePrueba() {
+            CacheLocal<String> cache = new CacheLocal<>("prueba", 10, Duration.ofMinutes(1));
+            cache.obtener(1L, id -> Optional.of("uno"));
+            cache.obtener(1L, id -> Optional.of("uno"));
+            return cache;
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testEstadisticas() throws Exception {
+        mockMvc.perform(get("/api/v2/cache/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Estadísticas de cache obtenidas correctamente"))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].nombre").value("prueba"))
+                .andExpect(jsonPath("$.data[0].aciertos").value(1))
+                .andExpect(jsonPath("$.data[0].fallos").value(1));
+    }
+}
@@ -0,0 +1,100 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.repository.CursoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc no pasa por el conector de Tomcat, que es quien comprime: las solicitudes van por HTTP
+ * al servidor embebido.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compresion;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class CompresionRespuestasTest {
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() {
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            cursos.add(new Curso(null, "Curso " + i, "Descripción del curso " + i, "Programación",
+                    LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L));
+        }
+        cursoRepository.saveAll(cursos);
+    }
+
+    @AfterEach
+    public void limpiar() {
+        cursoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void testListarSeComprimeConGzip() throws Exception {
+        HttpResponse<byte[]> respuesta = listar("gzip");
+
+        assertEquals(200, respuesta.statusCode());
+        assertEquals("gzip", respuesta.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertTrue(respuesta.headers().firstValue(HttpHeaders.ETAG).orElseThrow().startsWith("W/"));
+        String cuerpo = descomprimir(respuesta.body());
+        assertTrue(cuerpo.contains("\"Curso 99\""));
+        assertTrue(respuesta.body().length < cuerpo.length() / 4);
+    }
+
+    @Test
+    public void testListarSinAcceptEncodingNoSeComprime() throws Exception {
+        HttpResponse<byte[]> respuesta = listar(null);
+
+        assertEquals(200, respuesta.statusCode());
+        assertTrue(respuesta.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertTrue(new String(respuesta.body(), StandardCharsets.UTF_8).contains("\"Curso 99\""));
+    }
+
+    private HttpResponse<byte[]> listar(String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest.Builder solicitud = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + puerto + "/api/v2/cursos/listar?tamano=100"));
+        if (acceptEncoding != null) {
+            solicitud.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return cliente.send(solicitud.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String descomprimir(byte[] gzip) throws IOException {
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
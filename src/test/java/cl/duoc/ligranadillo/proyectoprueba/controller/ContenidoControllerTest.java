@@ -1,25 +1,36 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.service.CambiosContenido;
 import cl.duoc.ligranadillo.proyectoprueba.service.ContenidoService;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoLote;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(ContenidoController.class)
+@WebMvcTest(value = ContenidoController.class, properties = "lotes.tamano-maximo=3")
 public class ContenidoControllerTest {
 
     @Autowired
@@ -33,7 +44,7 @@ public class ContenidoControllerTest {
 
     @Test
     void testCrearContenido() throws Exception {
-        Contenido contenido = new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico");
+        Contenido contenido = new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico", 0L);
         Mockito.when(contenidoService.guardarContenido(any(Contenido.class))).thenReturn(contenido);
 
         mockMvc.perform(post("/api/v2/contenidos/crear")
@@ -44,23 +55,130 @@ public class ContenidoControllerTest {
                 .andExpect(jsonPath("$.contenido.titulo").value("Intro Java"));
     }
 
+    @Test
+    void testCrearContenidosEnLote() throws Exception {
+        List<Contenido> contenidos = List.of(
+                new Contenido(null, "Intro Java", "Video", "https://url.com", "Basico", 0L),
+                new Contenido(null, "Streams", "PDF", "https://url2.com", "Intermedio", 0L));
+        Mockito.when(contenidoService.guardarContenidos(any()))
+                .thenReturn(List.of(ResultadoLote.exito(0, 51L), ResultadoLote.exito(1, 52L)));
+
+        mockMvc.perform(post("/api/v2/contenidos/crear/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(contenidos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.creados").value(2))
+                .andExpect(jsonPath("$.fallidos").value(0))
+                .andExpect(jsonPath("$.resultados[1].id").value(52))
+                .andExpect(jsonPath("$.resultados[1].error").doesNotExist());
+    }
+
+    @Test
+    void testCrearContenidosEnLoteParcial() throws Exception {
+        Mockito.when(contenidoService.guardarContenidos(any()))
+                .thenReturn(List.of(ResultadoLote.exito(0, 51L), ResultadoLote.fallo(1, "Elemento vacío")));
+
+        mockMvc.perform(post("/api/v2/contenidos/crear/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"titulo\":\"Intro Java\"}, null]"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.fallidos").value(1))
+                .andExpect(jsonPath("$.resultados[1].indice").value(1))
+                .andExpect(jsonPath("$.resultados[1].error").value("Elemento vacío"));
+    }
+
+    @Test
+    void testCrearContenidosEnLoteExcedeMaximo() throws Exception {
+        mockMvc.perform(post("/api/v2/contenidos/crear/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{}, {}, {}, {}]"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.message").value("El lote supera el máximo de 3 contenidos"));
+
+        Mockito.verify(contenidoService, Mockito.never()).guardarContenidos(any());
+    }
+
     @Test
     void testListarContenidos() throws Exception {
         List<Contenido> lista = List.of(
-                new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico"),
-                new Contenido(2L, "Spring Boot", "Doc", "https://url.com/2", "Avanzado")
+                new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico", 0L),
+                new Contenido(2L, "Spring Boot", "Doc", "https://url.com/2", "Avanzado", 0L)
         );
-        Mockito.when(contenidoService.obtenerContenidos()).thenReturn(lista);
+        Mockito.when(contenidoService.obtenerContenidos(null, 20)).thenReturn(new Pagina<>(lista, null));
 
         mockMvc.perform(get("/api/v2/contenidos/listar"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.total").value(2))
-                .andExpect(jsonPath("$.message").value("Contenidos obtenidos correctamente"));
+                .andExpect(jsonPath("$.message").value("Contenidos obtenidos correctamente"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void testListarContenidosConCursor() throws Exception {
+        String cursor = Pagina.codificarCursor(1L);
+        List<Contenido> lista = List.of(new Contenido(2L, "Spring Boot", "Doc", "https://url.com/2", "Avanzado", 0L));
+        Mockito.when(contenidoService.obtenerContenidos(cursor, 1))
+                .thenReturn(new Pagina<>(lista, Pagina.codificarCursor(2L)));
+
+        mockMvc.perform(get("/api/v2/contenidos/listar").param("cursor", cursor).param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(2))
+                .andExpect(jsonPath("$.next").value(Pagina.codificarCursor(2L)));
+    }
+
+    @Test
+    void testListarContenidosLimitaTamano() throws Exception {
+        Mockito.when(contenidoService.obtenerContenidos(null, 100)).thenReturn(new Pagina<>(List.of(), null));
+
+        mockMvc.perform(get("/api/v2/contenidos/listar").param("tamano", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+
+        Mockito.verify(contenidoService).obtenerContenidos(null, 100);
+    }
+
+    @Test
+    void testListarContenidosCursorInvalido() throws Exception {
+        Mockito.when(contenidoService.obtenerContenidos(eq("xyz"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        mockMvc.perform(get("/api/v2/contenidos/listar").param("cursor", "xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+    }
+
+    @Test
+    void testExportarContenidosNdjson() throws Exception {
+        List<Contenido> lista = List.of(
+                new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico", 0L),
+                new Contenido(2L, "Spring Boot", "Doc", "https://url.com/2", "Avanzado", 0L)
+        );
+        Mockito.doAnswer(invocation -> {
+            Consumer<Contenido> consumidor = invocation.getArgument(0);
+            lista.forEach(consumidor);
+            return null;
+        }).when(contenidoService).exportarContenidos(any());
+
+        MvcResult resultado = mockMvc.perform(get("/api/v2/contenidos/listar").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("Intro Java", objectMapper.readTree(lineas[0]).get("titulo").asText());
+        assertEquals("Spring Boot", objectMapper.readTree(lineas[1]).get("titulo").asText());
     }
 
     @Test
     void testObtenerContenidoPorIdEncontrado() throws Exception {
-        Contenido contenido = new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico");
+        Contenido contenido = new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico", 0L);
         Mockito.when(contenidoService.obtenerContenidoPorId(1L)).thenReturn(Optional.of(contenido));
 
         mockMvc.perform(get("/api/v2/contenidos/1"))
@@ -78,10 +196,86 @@ public class ContenidoControllerTest {
                 .andExpect(jsonPath("$.message").value("Contenido con ID 1 no encontrado"));
     }
 
+    @Test
+    void testObtenerContenidoNoModificado() throws Exception {
+        Contenido contenido = new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico", 3L);
+        Mockito.when(contenidoService.obtenerContenidoPorId(1L)).thenReturn(Optional.of(contenido));
+
+        mockMvc.perform(get("/api/v2/contenidos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+        mockMvc.perform(get("/api/v2/contenidos/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-2\", W/\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testListarContenidosNoModificado() throws Exception {
+        List<Contenido> lista = List.of(new Contenido(1L, "Intro Java", "Video", "https://url.com", "Basico", 0L));
+        Mockito.when(contenidoService.obtenerContenidos(null, 20)).thenReturn(new Pagina<>(lista, null));
+
+        String etag = mockMvc.perform(get("/api/v2/contenidos/listar"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v2/contenidos/listar").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        List<Contenido> modificada = List.of(new Contenido(1L, "Intro Java 2", "Video", "https://url.com", "Basico", 1L));
+        Mockito.when(contenidoService.obtenerContenidos(null, 20)).thenReturn(new Pagina<>(modificada, null));
+
+        String nuevaEtag = mockMvc.perform(get("/api/v2/contenidos/listar").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].titulo").value("Intro Java 2"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nuevaEtag);
+    }
+
+    @Test
+    void testActualizarContenidoConIfMatch() throws Exception {
+        Contenido actualizado = new Contenido(1L, "Java Avanzado", "Video", "https://url2.com", "Avanzado", 4L);
+        Mockito.when(contenidoService.actualizarContenido(eq(1L), any(Contenido.class), eq(3L)))
+                .thenReturn(Optional.of(actualizado));
+
+        mockMvc.perform(put("/api/v2/contenidos/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(actualizado)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+    }
+
+    @Test
+    void testActualizarContenidoVersionDesactualizada() throws Exception {
+        Mockito.when(contenidoService.actualizarContenido(eq(1L), any(Contenido.class), eq(2L)))
+                .thenThrow(new OptimisticLockingFailureException("El contenido con ID 1 fue modificado por otra solicitud"));
+
+        mockMvc.perform(put("/api/v2/contenidos/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Java\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("El contenido fue modificado por otra solicitud; vuelva a obtenerlo"));
+    }
+
+    @Test
+    void testActualizarContenidoIfMatchDeOtroRecurso() throws Exception {
+        Mockito.when(contenidoService.actualizarContenido(eq(1L), any(Contenido.class), eq(-1L)))
+                .thenThrow(new OptimisticLockingFailureException("El contenido con ID 1 fue modificado por otra solicitud"));
+
+        mockMvc.perform(put("/api/v2/contenidos/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Java\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testActualizarContenidoExiste() throws Exception {
-        Contenido actualizado = new Contenido(1L, "Java Avanzado", "Video", "https://url2.com", "Avanzado");
-        Mockito.when(contenidoService.actualizarContenido(eq(1L), any(Contenido.class)))
+        Contenido actualizado = new Contenido(1L, "Java Avanzado", "Video", "https://url2.com", "Avanzado", 0L);
+        Mockito.when(contenidoService.actualizarContenido(eq(1L), any(Contenido.class), isNull()))
                 .thenReturn(Optional.of(actualizado));
 
         mockMvc.perform(put("/api/v2/contenidos/1")
@@ -94,8 +288,8 @@ public class ContenidoControllerTest {
 
     @Test
     void testActualizarContenidoNoExiste() throws Exception {
-        Contenido contenido = new Contenido(null, "Java Avanzado", "Video", "https://url2.com", "Avanzado");
-        Mockito.when(contenidoService.actualizarContenido(eq(1L), any(Contenido.class)))
+        Contenido contenido = new Contenido(null, "Java Avanzado", "Video", "https://url2.com", "Avanzado", 0L);
+        Mockito.when(contenidoService.actualizarContenido(eq(1L), any(Contenido.class), isNull()))
                 .thenReturn(Optional.empty());
 
         mockMvc.perform(put("/api/v2/contenidos/1")
@@ -105,6 +299,54 @@ public class ContenidoControllerTest {
                 .andExpect(jsonPath("$.message").value("No se pudo actualizar: contenido con ID 1 no encontrado"));
     }
 
+    @Test
+    void testActualizarContenidoParcial() throws Exception {
+        Mockito.when(contenidoService.actualizarContenidoParcial(eq(1L),
+                        eq(new CambiosContenido(null, null, "https://nueva.com", null)), isNull()))
+                .thenReturn(1);
+
+        mockMvc.perform(patch("/api/v2/contenidos/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"url\":\"https://nueva.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Contenido actualizado correctamente"))
+                .andExpect(jsonPath("$.actualizados").value(1));
+    }
+
+    @Test
+    void testActualizarContenidoParcialSinCampos() throws Exception {
+        mockMvc.perform(patch("/api/v2/contenidos/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(contenidoService);
+    }
+
+    @Test
+    void testActualizarContenidoParcialNoExiste() throws Exception {
+        Mockito.when(contenidoService.actualizarContenidoParcial(eq(9L), any(CambiosContenido.class), isNull()))
+                .thenReturn(0);
+
+        mockMvc.perform(patch("/api/v2/contenidos/9")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Java\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("No se pudo actualizar: contenido con ID 9 no encontrado"));
+    }
+
+    @Test
+    void testActualizarContenidoParcialVersionDesactualizada() throws Exception {
+        Mockito.when(contenidoService.actualizarContenidoParcial(eq(1L), any(CambiosContenido.class), eq(2L)))
+                .thenThrow(new OptimisticLockingFailureException("El contenido con ID 1 fue modificado por otra solicitud"));
+
+        mockMvc.perform(patch("/api/v2/contenidos/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"titulo\":\"Java\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void testEliminarContenidoExiste() throws Exception {
         Mockito.when(contenidoService.eliminarContenido(1L)).thenReturn(true);
@@ -122,4 +364,22 @@ public class ContenidoControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Contenido con ID 1 no encontrado"));
     }
+
+    @Test
+    void testEliminarContenidosEnLote() throws Exception {
+        Mockito.when(contenidoService.eliminarContenidos(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/v2/contenidos").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Contenidos eliminados"))
+                .andExpect(jsonPath("$.eliminados").value(2));
+    }
+
+    @Test
+    void testEliminarContenidosEnLoteExcedeMaximo() throws Exception {
+        mockMvc.perform(delete("/api/v2/contenidos").param("ids", "1,2,3,4"))
+                .andExpect(status().isPayloadTooLarge());
+
+        Mockito.verifyNoInteractions(contenidoService);
+    }
 }
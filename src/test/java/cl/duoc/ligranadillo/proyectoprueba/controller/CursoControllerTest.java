@@ -1,17 +1,25 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
 import cl.duoc.ligranadillo.proyectoprueba.repository.CursoRepository;
+import cl.duoc.ligranadillo.proyectoprueba.repository.EvaluacionRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,18 +33,22 @@ public class CursoControllerTest {
     @Autowired
     private CursoRepository cursoRepository;
 
+    @Autowired
+    private EvaluacionRepository evaluacionRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @BeforeEach
     public void setup() {
+        evaluacionRepository.deleteAll();
         cursoRepository.deleteAll();
     }
 
     @Test
     public void testCrearCurso() throws Exception {
         Curso curso = new Curso(null, "Spring Boot", "Curso avanzado", "Programación",
-                "2025-08-01", "2025-10-01", "Juan");
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L);
 
         mockMvc.perform(post("/api/v2/cursos/crear")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -46,12 +58,31 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.curso.nombre").value("Spring Boot"));
     }
 
+    @Test
+    public void testCrearCursosEnLote() throws Exception {
+        List<Curso> cursos = List.of(
+                new Curso(null, "Java", "Intro Java", "Programación", LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L),
+                new Curso(null, "Python", "Intro Python", "Programación", LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L),
+                new Curso(null, "SQL", "Intro SQL", "Datos", LocalDate.of(2025, 9, 15), LocalDate.of(2025, 11, 15), "Marta", 0L));
+
+        mockMvc.perform(post("/api/v2/cursos/crear/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cursos)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.message").value("Lote de cursos procesado"))
+                .andExpect(jsonPath("$.creados").value(3))
+                .andExpect(jsonPath("$.fallidos").value(0))
+                .andExpect(jsonPath("$.resultados[*].id", everyItem(notNullValue())));
+
+        assertEquals(3, cursoRepository.count());
+    }
+
     @Test
     public void testListarCursos() throws Exception {
         cursoRepository.save(new Curso(null, "Java", "Intro Java", "Programación",
-                "2025-08-01", "2025-10-01", "Ana"));
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
         cursoRepository.save(new Curso(null, "Python", "Intro Python", "Programación",
-                "2025-09-01", "2025-11-01", "Carlos"));
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L));
 
         mockMvc.perform(get("/api/v2/cursos/listar"))
                 .andExpect(status().isOk())
@@ -60,10 +91,119 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.data", hasSize(2)));
     }
 
+    @Test
+    public void testListarCursosPaginado() throws Exception {
+        cursoRepository.save(new Curso(null, "Java", "Intro Java", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
+        Curso segundo = cursoRepository.save(new Curso(null, "Python", "Intro Python", "Programación",
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L));
+
+        String respuesta = mockMvc.perform(get("/api/v2/cursos/listar").param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.data[0].nombre").value("Java"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(respuesta).get("next").asText();
+
+        mockMvc.perform(get("/api/v2/cursos/listar").param("tamano", "1").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(segundo.getId()))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    public void testListarCursosCursorInvalido() throws Exception {
+        mockMvc.perform(get("/api/v2/cursos/listar").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor inválido"));
+    }
+
+    @Test
+    public void testExportarCursosNdjson() throws Exception {
+        cursoRepository.save(new Curso(null, "Java", "Intro Java", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
+        cursoRepository.save(new Curso(null, "Python", "Intro Python", "Programación",
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L));
+
+        MvcResult resultado = mockMvc.perform(get("/api/v2/cursos/listar").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("Java", objectMapper.readTree(lineas[0]).get("nombre").asText());
+        assertEquals("Python", objectMapper.readTree(lineas[1]).get("nombre").asText());
+    }
+
+    @Test
+    public void testBuscarCursosActivosEnFecha() throws Exception {
+        cursoRepository.save(new Curso(null, "Java", "Intro Java", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
+        cursoRepository.save(new Curso(null, "Python", "Intro Python", "Programación",
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L));
+        cursoRepository.save(new Curso(null, "SQL", "Intro SQL", "Datos",
+                LocalDate.of(2025, 10, 15), LocalDate.of(2025, 12, 1), "Marta", 0L));
+
+        String respuesta = mockMvc.perform(get("/api/v2/cursos/por-fecha")
+                        .param("activoEn", "2025-09-15").param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].nombre").value("Java"))
+                .andExpect(jsonPath("$.data[0].fechaFin").value("2025-10-01"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(respuesta).get("next").asText();
+
+        mockMvc.perform(get("/api/v2/cursos/por-fecha")
+                        .param("activoEn", "2025-09-15").param("tamano", "1").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].nombre").value("Python"))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    public void testBuscarCursosPorRangoDeInicioYTermino() throws Exception {
+        cursoRepository.save(new Curso(null, "Java", "Intro Java", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
+        cursoRepository.save(new Curso(null, "Python", "Intro Python", "Programación",
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L));
+        cursoRepository.save(new Curso(null, "SQL", "Intro SQL", "Datos",
+                LocalDate.of(2025, 10, 15), LocalDate.of(2025, 12, 1), "Marta", 0L));
+
+        mockMvc.perform(get("/api/v2/cursos/por-fecha")
+                        .param("iniciaDesde", "2025-09-01").param("iniciaHasta", "2025-10-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.data[*].nombre", contains("Python", "SQL")));
+
+        mockMvc.perform(get("/api/v2/cursos/por-fecha")
+                        .param("terminaDesde", "2025-10-01").param("terminaHasta", "2025-11-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].nombre", contains("Java", "Python")));
+    }
+
+    @Test
+    public void testBuscarCursosPorFechaCriterioInvalido() throws Exception {
+        mockMvc.perform(get("/api/v2/cursos/por-fecha")
+                        .param("activoEn", "2025-09-15").param("iniciaDesde", "2025-09-01").param("iniciaHasta", "2025-09-30"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/v2/cursos/por-fecha")
+                        .param("terminaDesde", "2025-12-01").param("terminaHasta", "2025-11-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("El rango requiere fecha desde y hasta, con desde anterior o igual a hasta"));
+    }
+
     @Test
     public void testObtenerCurso() throws Exception {
         Curso curso = cursoRepository.save(new Curso(null, "Spring", "Spring desc", "Programación",
-                "2025-08-01", "2025-10-01", "Juan"));
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L));
 
         mockMvc.perform(get("/api/v2/cursos/" + curso.getId()))
                 .andExpect(status().isOk())
@@ -71,6 +211,37 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.curso.nombre").value("Spring"));
     }
 
+    @Test
+    public void testListarEvaluacionesDelCurso() throws Exception {
+        Curso java = cursoRepository.save(new Curso(null, "Java", "Intro Java", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
+        Curso python = cursoRepository.save(new Curso(null, "Python", "Intro Python", "Programación",
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L));
+        evaluacionRepository.save(new Evaluacion(null, "Parcial Java", "Cuestionario", 100, java.getId(), 0L));
+        evaluacionRepository.save(new Evaluacion(null, "Parcial Python", "Cuestionario", 100, python.getId(), 0L));
+        evaluacionRepository.save(new Evaluacion(null, "Final Java", "Proyecto", 100, java.getId(), 0L));
+
+        String respuesta = mockMvc.perform(get("/api/v2/cursos/" + java.getId() + "/evaluaciones").param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Evaluaciones del curso obtenidas correctamente"))
+                .andExpect(jsonPath("$.data[0].titulo").value("Parcial Java"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(respuesta).get("next").asText();
+
+        mockMvc.perform(get("/api/v2/cursos/" + java.getId() + "/evaluaciones").param("tamano", "1").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].titulo").value("Final Java"))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    public void testListarEvaluacionesDeCursoNoExistente() throws Exception {
+        mockMvc.perform(get("/api/v2/cursos/9999/evaluaciones"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Curso con ID 9999 no encontrado"));
+    }
+
     @Test
     public void testObtenerCursoNoExistente() throws Exception {
         mockMvc.perform(get("/api/v2/cursos/9999"))
@@ -81,10 +252,10 @@ public class CursoControllerTest {
     @Test
     public void testActualizarCurso() throws Exception {
         Curso curso = cursoRepository.save(new Curso(null, "Java", "desc", "Programación",
-                "2025-08-01", "2025-10-01", "Juan"));
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L));
 
         Curso actualizado = new Curso(null, "Java Avanzado", "desc avanzada", "Programación",
-                "2025-08-01", "2025-12-01", "Juan");
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 12, 1), "Juan", 0L);
 
         mockMvc.perform(put("/api/v2/cursos/" + curso.getId())
                         .contentType(MediaType.APPLICATION_JSON)
@@ -94,10 +265,67 @@ public class CursoControllerTest {
                 .andExpect(jsonPath("$.curso.nombre").value("Java Avanzado"));
     }
 
+    @Test
+    public void testActualizarCursoConEtag() throws Exception {
+        Curso curso = cursoRepository.save(new Curso(null, "Java", "desc", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L));
+        String etagInicial = "\"" + curso.getId() + "-0\"";
+
+        mockMvc.perform(get("/api/v2/cursos/" + curso.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etagInicial));
+
+        mockMvc.perform(get("/api/v2/cursos/" + curso.getId()).header(HttpHeaders.IF_NONE_MATCH, etagInicial))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Curso actualizado = new Curso(null, "Java Avanzado", "desc avanzada", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 12, 1), "Juan", 0L);
+
+        mockMvc.perform(put("/api/v2/cursos/" + curso.getId())
+                        .header(HttpHeaders.IF_MATCH, etagInicial)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(actualizado)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + curso.getId() + "-1\""))
+                .andExpect(jsonPath("$.curso.version").value(1));
+
+        mockMvc.perform(put("/api/v2/cursos/" + curso.getId())
+                        .header(HttpHeaders.IF_MATCH, etagInicial)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(actualizado)))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Java Avanzado", cursoRepository.findById(curso.getId()).orElseThrow().getNombre());
+    }
+
+    @Test
+    public void testActualizarCursoParcial() throws Exception {
+        Curso curso = cursoRepository.save(new Curso(null, "Java", "desc", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L));
+
+        mockMvc.perform(patch("/api/v2/cursos/" + curso.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fechaFin\":\"2025-12-01\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados").value(1));
+
+        Curso actualizado = cursoRepository.findById(curso.getId()).orElseThrow();
+        assertEquals("Java", actualizado.getNombre());
+        assertEquals(LocalDate.of(2025, 12, 1), actualizado.getFechaFin());
+        assertEquals(1L, actualizado.getVersion());
+
+        mockMvc.perform(patch("/api/v2/cursos/" + curso.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + curso.getId() + "-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"Java Avanzado\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     public void testActualizarCursoNoExistente() throws Exception {
         Curso actualizado = new Curso(null, "No existe", "desc", "Programación",
-                "2025-08-01", "2025-12-01", "Juan");
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 12, 1), "Juan", 0L);
 
         mockMvc.perform(put("/api/v2/cursos/9999")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -109,7 +337,7 @@ public class CursoControllerTest {
     @Test
     public void testEliminarCurso() throws Exception {
         Curso curso = cursoRepository.save(new Curso(null, "Python", "desc", "Programación",
-                "2025-08-01", "2025-10-01", "Ana"));
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
 
         mockMvc.perform(delete("/api/v2/cursos/" + curso.getId()))
                 .andExpect(status().isOk())
@@ -122,4 +350,20 @@ public class CursoControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Curso con ID 9999 no encontrado"));
     }
+
+    @Test
+    public void testEliminarCursosEnLote() throws Exception {
+        Curso java = cursoRepository.save(new Curso(null, "Java", "desc", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L));
+        Curso python = cursoRepository.save(new Curso(null, "Python", "desc", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L));
+        Curso sql = cursoRepository.save(new Curso(null, "SQL", "desc", "Datos",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Luis", 0L));
+
+        mockMvc.perform(delete("/api/v2/cursos").param("ids", java.getId() + "," + python.getId() + ",9999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eliminados").value(2));
+
+        assertEquals(List.of(sql.getId()), cursoRepository.findAll().stream().map(Curso::getId).toList());
+    }
 }
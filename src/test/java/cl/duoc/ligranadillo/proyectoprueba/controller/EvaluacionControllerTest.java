@@ -1,12 +1,28 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Respuesta;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaActualizacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaEvaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaLote;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
 import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.service.CambiosEvaluacion;
 import cl.duoc.ligranadillo.proyectoprueba.service.EvaluacionService;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoLote;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,111 +36,206 @@ class EvaluacionControllerTest {
     void setUp() {
         evaluacionService = mock(EvaluacionService.class);
         evaluacionController = new EvaluacionController();
-        // "Hack" para setear el campo privado sin setter
-        var field = EvaluacionController.class.getDeclaredFields()[0];
-        field.setAccessible(true);
-        try {
-            field.set(evaluacionController, evaluacionService);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        ReflectionTestUtils.setField(evaluacionController, "evaluacionService", evaluacionService);
+        ReflectionTestUtils.setField(evaluacionController, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(evaluacionController, "tamanoMaximo", 100);
+        ReflectionTestUtils.setField(evaluacionController, "tamanoMaximoLote", 2);
     }
 
     @Test
     void testCrearEvaluacion() {
-        Evaluacion evaluacion = new Evaluacion(null, "Parcial Spring", "Cuestionario", 100, "5");
-        Evaluacion guardada = new Evaluacion(1L, "Parcial Spring", "Cuestionario", 100, "5");
+        Evaluacion evaluacion = new Evaluacion(null, "Parcial Spring", "Cuestionario", 100, 5L, 0L);
+        Evaluacion guardada = new Evaluacion(1L, "Parcial Spring", "Cuestionario", 100, 5L, 0L);
 
         when(evaluacionService.guardarEvaluacion(evaluacion)).thenReturn(guardada);
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.crearEvaluacion(evaluacion);
+        ResponseEntity<Respuesta> response = evaluacionController.crearEvaluacion(evaluacion);
+
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals("Evaluación creada exitosamente", response.getBody().message().texto());
+        assertEquals(guardada, ((RespuestaEvaluacion) response.getBody()).evaluacion());
+    }
+
+    @Test
+    void testCrearEvaluacionesEnLote() {
+        List<Evaluacion> evaluaciones = List.of(
+                new Evaluacion(null, "Parcial Spring", "Cuestionario", 100, 5L, 0L),
+                new Evaluacion(null, "Final Spring", "Proyecto", 100, 5L, 0L));
+        List<ResultadoLote> resultados = List.of(ResultadoLote.exito(0, 51L), ResultadoLote.exito(1, 52L));
+
+        when(evaluacionService.guardarEvaluaciones(evaluaciones)).thenReturn(resultados);
+
+        ResponseEntity<Respuesta> response = evaluacionController.crearEvaluacionesEnLote(evaluaciones);
 
         assertEquals(201, response.getStatusCodeValue());
-        assertEquals("Evaluación creada exitosamente", response.getBody().get("message"));
-        assertEquals(guardada, response.getBody().get("evaluacion"));
+        assertEquals(2L, ((RespuestaLote) response.getBody()).creados());
+        assertEquals(resultados, ((RespuestaLote) response.getBody()).resultados());
+    }
+
+    @Test
+    void testCrearEvaluacionesEnLoteExcedeMaximo() {
+        List<Evaluacion> evaluaciones = Collections.nCopies(3, new Evaluacion());
+
+        ResponseEntity<Respuesta> response = evaluacionController.crearEvaluacionesEnLote(evaluaciones);
+
+        assertEquals(413, response.getStatusCodeValue());
+        assertEquals("El lote supera el máximo de 2 evaluaciones", response.getBody().message().texto());
+        verify(evaluacionService, never()).guardarEvaluaciones(any());
     }
 
     @Test
     void testListarEvaluaciones() {
         List<Evaluacion> lista = List.of(
-                new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, "2"),
-                new Evaluacion(2L, "Proyecto Final", "Tarea", 200, "3")
+                new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 2L, 0L),
+                new Evaluacion(2L, "Proyecto Final", "Tarea", 200, 3L, 0L)
         );
 
-        when(evaluacionService.obtenerEvaluaciones()).thenReturn(lista);
+        when(evaluacionService.obtenerEvaluaciones(null, 20)).thenReturn(new Pagina<>(lista, null));
+
+        ResponseEntity<Respuesta> response = evaluacionController.listarEvaluaciones(null, 20, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2, ((RespuestaPagina<?>) response.getBody()).total());
+        assertEquals(lista, ((RespuestaPagina<?>) response.getBody()).data());
+        assertNull(((RespuestaPagina<?>) response.getBody()).next());
+    }
+
+    @Test
+    void testListarEvaluacionesLimitaTamano() {
+        String cursor = Pagina.codificarCursor(10L);
+        when(evaluacionService.obtenerEvaluaciones(cursor, 100)).thenReturn(new Pagina<>(List.of(), null));
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.listarEvaluaciones();
+        ResponseEntity<Respuesta> response = evaluacionController.listarEvaluaciones(cursor, 1000, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(2, response.getBody().get("total"));
-        assertEquals(lista, response.getBody().get("data"));
+        verify(evaluacionService).obtenerEvaluaciones(cursor, 100);
+    }
+
+    @Test
+    void testListarEvaluacionesCursorInvalido() {
+        when(evaluacionService.obtenerEvaluaciones(eq("invalido"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        ResponseEntity<Respuesta> response = evaluacionController.listarEvaluaciones("invalido", 20, null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("Cursor inválido", response.getBody().message().texto());
+    }
+
+    @Test
+    void testExportarEvaluacionesNdjson() throws Exception {
+        List<Evaluacion> lista = List.of(
+                new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 2L, 0L),
+                new Evaluacion(2L, "Proyecto Final", "Tarea", 200, 3L, 0L)
+        );
+        doAnswer(invocation -> {
+            Consumer<Evaluacion> consumidor = invocation.getArgument(0);
+            lista.forEach(consumidor);
+            return null;
+        }).when(evaluacionService).exportarEvaluaciones(any());
+
+        ResponseEntity<StreamingResponseBody> response = evaluacionController.exportarEvaluaciones();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        response.getBody().writeTo(salida);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("Proyecto Final", new ObjectMapper().readTree(lineas[1]).get("titulo").asText());
     }
 
     @Test
     void testObtenerEvaluacionExistente() {
-        Evaluacion e = new Evaluacion(1L, "Examen", "Oral", 50, "1");
+        Evaluacion e = new Evaluacion(1L, "Examen", "Oral", 50, 1L, 0L);
 
         when(evaluacionService.obtenerEvaluacionPorId(1L)).thenReturn(Optional.of(e));
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.obtenerEvaluacion(1L);
+        ResponseEntity<Respuesta> response = evaluacionController.obtenerEvaluacion(1L, null, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals("Evaluación encontrada", response.getBody().get("message"));
-        assertEquals(e, response.getBody().get("evaluacion"));
+        assertEquals("Evaluación encontrada", response.getBody().message().texto());
+        assertEquals(e, ((RespuestaEvaluacion) response.getBody()).evaluacion());
     }
 
     @Test
     void testObtenerEvaluacionNoExistente() {
         when(evaluacionService.obtenerEvaluacionPorId(99L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.obtenerEvaluacion(99L);
+        ResponseEntity<Respuesta> response = evaluacionController.obtenerEvaluacion(99L, null, null);
 
         assertEquals(404, response.getStatusCodeValue());
-        assertEquals("Evaluación con ID 99 no encontrada", response.getBody().get("message"));
+        assertEquals("Evaluación con ID 99 no encontrada", response.getBody().message().texto());
     }
 
     @Test
     void testActualizarEvaluacionExistente() {
-        Evaluacion actualizada = new Evaluacion(1L, "Parcial Java Modificado", "Cuestionario", 110, "2");
+        Evaluacion actualizada = new Evaluacion(1L, "Parcial Java Modificado", "Cuestionario", 110, 2L, 0L);
 
-        when(evaluacionService.actualizarEvaluacion(eq(1L), any(Evaluacion.class)))
+        when(evaluacionService.actualizarEvaluacion(eq(1L), any(Evaluacion.class), isNull()))
                 .thenReturn(Optional.of(actualizada));
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.actualizarEvaluacion(1L, actualizada);
+        ResponseEntity<Respuesta> response = evaluacionController.actualizarEvaluacion(1L, actualizada, null, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals("Evaluación actualizada correctamente", response.getBody().get("message"));
-        assertEquals(actualizada, response.getBody().get("evaluacion"));
+        assertEquals("Evaluación actualizada correctamente", response.getBody().message().texto());
+        assertEquals(actualizada, ((RespuestaEvaluacion) response.getBody()).evaluacion());
     }
 
     @Test
     void testActualizarEvaluacionNoExistente() {
-        when(evaluacionService.actualizarEvaluacion(eq(42L), any(Evaluacion.class)))
+        when(evaluacionService.actualizarEvaluacion(eq(42L), any(Evaluacion.class), isNull()))
                 .thenReturn(Optional.empty());
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.actualizarEvaluacion(42L, new Evaluacion());
+        ResponseEntity<Respuesta> response = evaluacionController.actualizarEvaluacion(42L, new Evaluacion(), null, null);
 
         assertEquals(404, response.getStatusCodeValue());
-        assertEquals("No se pudo actualizar: evaluación con ID 42 no encontrada", response.getBody().get("message"));
+        assertEquals("No se pudo actualizar: evaluación con ID 42 no encontrada", response.getBody().message().texto());
+    }
+
+    @Test
+    void testActualizarEvaluacionParcial() {
+        CambiosEvaluacion cambios = new CambiosEvaluacion(null, null, 120, null);
+        when(evaluacionService.actualizarEvaluacionParcial(1L, cambios, null)).thenReturn(1);
+
+        ResponseEntity<Respuesta> response = evaluacionController.actualizarEvaluacionParcial(1L, cambios, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(1, ((RespuestaActualizacion) response.getBody()).actualizados());
+    }
+
+    @Test
+    void testCursoInexistenteResponde400() {
+        Evaluacion evaluacion = new Evaluacion(null, "Parcial Spring", "Cuestionario", 100, 999L, 0L);
+        CambiosEvaluacion cambios = new CambiosEvaluacion(null, null, null, 999L);
+        DataIntegrityViolationException violacion = new DataIntegrityViolationException("fk_evaluacion_curso");
+        when(evaluacionService.guardarEvaluacion(evaluacion)).thenThrow(violacion);
+        when(evaluacionService.actualizarEvaluacion(1L, evaluacion, null)).thenThrow(violacion);
+        when(evaluacionService.actualizarEvaluacionParcial(1L, cambios, null)).thenThrow(violacion);
+
+        assertEquals(400, evaluacionController.crearEvaluacion(evaluacion).getStatusCodeValue());
+        assertEquals(400, evaluacionController.actualizarEvaluacion(1L, evaluacion, null, null).getStatusCodeValue());
+        ResponseEntity<Respuesta> response = evaluacionController.actualizarEvaluacionParcial(1L, cambios, null);
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("El curso indicado en cursoId no existe", response.getBody().message().texto());
     }
 
     @Test
     void testEliminarEvaluacionExistente() {
         when(evaluacionService.eliminarEvaluacion(1L)).thenReturn(true);
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.eliminarEvaluacion(1L);
+        ResponseEntity<Respuesta> response = evaluacionController.eliminarEvaluacion(1L);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals("Evaluación eliminada correctamente", response.getBody().get("message"));
+        assertEquals("Evaluación eliminada correctamente", response.getBody().message().texto());
     }
 
     @Test
     void testEliminarEvaluacionNoExistente() {
         when(evaluacionService.eliminarEvaluacion(100L)).thenReturn(false);
 
-        ResponseEntity<Map<String, Object>> response = evaluacionController.eliminarEvaluacion(100L);
+        ResponseEntity<Respuesta> response = evaluacionController.eliminarEvaluacion(100L);
 
         assertEquals(404, response.getStatusCodeValue());
-        assertEquals("Evaluación con ID 100 no encontrada", response.getBody().get("message"));
+        assertEquals("Evaluación con ID 100 no encontrada", response.getBody().message().texto());
     }
 }
@@ -0,0 +1,101 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.service.EstadoImportacion;
+import cl.duoc.ligranadillo.proyectoprueba.service.FormatoImportacion;
+import cl.duoc.ligranadillo.proyectoprueba.service.ImportacionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportacionController.class)
+public class ImportacionControllerTest {
+
+    private static final UUID ID = UUID.fromString("6f1c2a9e-0d7b-4d1e-9a53-2b1f0c8e4d11");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportacionService importacionService;
+
+    @Test
+    void testImportarEncolaArchivo() throws Exception {
+        Mockito.when(importacionService.admite("cursos")).thenReturn(true);
+        Mockito.when(importacionService.iniciar(eq("cursos"), eq(FormatoImportacion.CSV), any()))
+                .thenReturn(estado(EstadoImportacion.Estado.EN_COLA, 0, 0));
+
+        mockMvc.perform(multipart("/api/v2/importaciones/cursos")
+                        .file(new MockMultipartFile("archivo", "cursos.csv", "text/csv", "nombre\nJava\n".getBytes())))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/v2/importaciones/" + ID))
+                .andExpect(jsonPath("$.message").value("Importación en cola"))
+                .andExpect(jsonPath("$.importacion.estado").value("EN_COLA"));
+    }
+
+    @Test
+    void testImportarTipoDesconocido() throws Exception {
+        mockMvc.perform(multipart("/api/v2/importaciones/usuarios")
+                        .file(new MockMultipartFile("archivo", "usuarios.csv", "text/csv", "nombre\n".getBytes())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testImportarFormatoNoSoportado() throws Exception {
+        Mockito.when(importacionService.admite("cursos")).thenReturn(true);
+
+        mockMvc.perform(multipart("/api/v2/importaciones/cursos")
+                        .file(new MockMultipartFile("archivo", "cursos.xlsx", "application/octet-stream", new byte[]{1})))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.message").value("Formato no soportado; use un archivo .csv o .json"));
+    }
+
+    @Test
+    void testImportarConColaLlena() throws Exception {
+        Mockito.when(importacionService.admite("cursos")).thenReturn(true);
+        Mockito.when(importacionService.iniciar(eq("cursos"), eq(FormatoImportacion.JSON), any()))
+                .thenThrow(new RejectedExecutionException());
+
+        mockMvc.perform(multipart("/api/v2/importaciones/cursos")
+                        .file(new MockMultipartFile("archivo", "cursos.json", "application/json", "[]".getBytes())))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testObtenerImportacion() throws Exception {
+        Mockito.when(importacionService.obtener(ID)).thenReturn(Optional.of(estado(EstadoImportacion.Estado.PROCESANDO, 1500, 3)));
+
+        mockMvc.perform(get("/api/v2/importaciones/" + ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importacion.filasProcesadas").value(1500))
+                .andExpect(jsonPath("$.importacion.filasFallidas").value(3))
+                .andExpect(jsonPath("$.importacion.terminada").doesNotExist());
+    }
+
+    @Test
+    void testObtenerImportacionNoExistente() throws Exception {
+        Mockito.when(importacionService.obtener(ID)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v2/importaciones/" + ID))
+                .andExpect(status().isNotFound());
+    }
+
+    private static EstadoImportacion estado(EstadoImportacion.Estado estado, long procesadas, long fallidas) {
+        return new EstadoImportacion(ID, "cursos", FormatoImportacion.CSV, estado, procesadas, procesadas - fallidas,
+                fallidas, 0, Instant.now(), null, null, null, List.of());
+    }
+}
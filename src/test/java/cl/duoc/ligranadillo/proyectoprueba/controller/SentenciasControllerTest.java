@@ -0,0 +1,44 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.config.RegistroSentencias;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SentenciasController.class)
+@Import(RegistroSentencias.class)
+public class SentenciasControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RegistroSentencias registroSentencias;
+
+    @Test
+    void testEstadisticasYReinicio() throws Exception {
+        registroSentencias.registrar("select * from curso where id = 1", 2_000_000);
+        registroSentencias.registrar("select * from curso where id = 2", 4_000_000);
+
+        mockMvc.perform(get("/api/v2/sentencias/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Estadísticas de sentencias obtenidas correctamente"))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].forma").value("select * from curso where id = ?"))
+                .andExpect(jsonPath("$.data[0].ejecuciones").value(2))
+                .andExpect(jsonPath("$.data[0].tiempoTotalMs").value(6.0))
+                .andExpect(jsonPath("$.data[0].tiempoMaximoMs").value(4.0));
+
+        mockMvc.perform(delete("/api/v2/sentencias/estadisticas"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v2/sentencias/estadisticas"))
+                .andExpect(jsonPath("$.data", hasSize(0)));
+    }
+}
@@ -0,0 +1,108 @@
+package cl.duoc.ligranadillo.proyectoprueba.controller;
+
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.Mensaje;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaCurso;
+import cl.duoc.ligranadillo.proyectoprueba.controller.response.RespuestaPagina;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara serializar las respuestas de /listar y /{id} como {@code Map<String, Object>} con el
+ * ObjectMapper por defecto contra los records de respuesta con mensajes precodificados y
+ * Blackbird. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class SerializacionRespuestasBenchmarkTest {
+
+    private static final int TAMANO_PAGINA = 20;
+    private static final int CALENTAMIENTO = 50_000;
+    private static final int ITERACIONES = 200_000;
+
+    private static final Mensaje CURSOS_OBTENIDOS = Mensaje.de("Cursos obtenidos correctamente");
+    private static final Mensaje CURSO_ENCONTRADO = Mensaje.de("Curso encontrado");
+
+    private final ObjectMapper mapperAnterior = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper mapperActual = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+
+    private final Pagina<Curso> pagina = pagina();
+    private final Curso curso = pagina.data().get(0);
+
+    @Test
+    public void compararListar() throws Exception {
+        comparar("/listar", () -> {
+            Map<String, Object> respuesta = new LinkedHashMap<>();
+            respuesta.put("message", "Cursos obtenidos correctamente");
+            respuesta.put("total", pagina.data().size());
+            respuesta.put("data", pagina.data());
+            respuesta.put("next", pagina.next());
+            return mapperAnterior.writeValueAsBytes(respuesta);
+        }, () -> mapperActual.writeValueAsBytes(RespuestaPagina.de(CURSOS_OBTENIDOS, pagina)));
+    }
+
+    @Test
+    public void compararObtenerPorId() throws Exception {
+        comparar("/{id}",
+                () -> mapperAnterior.writeValueAsBytes(Map.of("message", "Curso encontrado", "curso", curso)),
+                () -> mapperActual.writeValueAsBytes(new RespuestaCurso(CURSO_ENCONTRADO, curso)));
+    }
+
+    private void comparar(String endpoint, Serializacion anterior, Serializacion actual) throws Exception {
+        assertEquals(mapperAnterior.readTree(anterior.ejecutar()), mapperAnterior.readTree(actual.ejecutar()));
+
+        Medicion antes = medir(anterior);
+        Medicion despues = medir(actual);
+
+        System.out.printf("%s: Map %.0f ns y %d bytes por respuesta, records %.0f ns y %d bytes (%.2fx, %.2fx)%n",
+                endpoint, antes.nanos(), antes.bytes(), despues.nanos(), despues.bytes(),
+                antes.nanos() / despues.nanos(), (double) antes.bytes() / despues.bytes());
+        assertTrue(despues.nanos() < antes.nanos());
+        assertTrue(despues.bytes() < antes.bytes());
+    }
+
+    private static Medicion medir(Serializacion serializacion) throws Exception {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            serializacion.ejecutar();
+        }
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        long bytesInicio = hilos.getThreadAllocatedBytes(id);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            serializacion.ejecutar();
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(id) - bytesInicio;
+        return new Medicion((double) nanos / ITERACIONES, bytes / ITERACIONES);
+    }
+
+    private static Pagina<Curso> pagina() {
+        List<Curso> cursos = new ArrayList<>();
+        for (long id = 1; id <= TAMANO_PAGINA + 1; id++) {
+            cursos.add(new Curso(id, "Curso " + id, "Introducción a la programación " + id, "Programación",
+                    LocalDate.of(2025, 3, 1), LocalDate.of(2025, 7, 15), "Juan Pérez", id % 3));
+        }
+        return Pagina.de(cursos, TAMANO_PAGINA, Curso::getId);
+    }
+
+    private interface Serializacion {
+        byte[] ejecutar() throws Exception;
+    }
+
+    private record Medicion(double nanos, long bytes) {
+    }
+}
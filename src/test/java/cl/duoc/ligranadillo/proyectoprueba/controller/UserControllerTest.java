@@ -1,18 +1,32 @@
 package cl.duoc.ligranadillo.proyectoprueba.controller;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import cl.duoc.ligranadillo.proyectoprueba.service.CambiosUser;
+import cl.duoc.ligranadillo.proyectoprueba.service.LimiteLogins;
+import cl.duoc.ligranadillo.proyectoprueba.service.Pagina;
+import cl.duoc.ligranadillo.proyectoprueba.service.ResultadoLote;
+import cl.duoc.ligranadillo.proyectoprueba.service.TokenSesion;
+import cl.duoc.ligranadillo.proyectoprueba.service.TokensSesion;
 import cl.duoc.ligranadillo.proyectoprueba.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.hasSize;
@@ -28,13 +42,19 @@ public class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private LimiteLogins limiteLogins;
+
+    @MockBean
+    private TokensSesion tokensSesion;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Test
     void testCrearUsuario() throws Exception {
-        User user = new User(null, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false);
-        User userGuardado = new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false);
+        User user = new User(null, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false, 0L);
+        User userGuardado = new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false, 0L);
 
         Mockito.when(userService.guardarUser(Mockito.any(User.class))).thenReturn(userGuardado);
 
@@ -46,25 +66,80 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.user.id", is(1)));
     }
 
+    @Test
+    void testCrearUsuarioDuplicado() throws Exception {
+        User user = new User(null, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false, 0L);
+
+        Mockito.when(userService.guardarUser(Mockito.any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'juan@mail.com' for key 'uk_user_email'"));
+
+        mockMvc.perform(post("/api/v2/users/crear")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(user)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Ya existe un usuario con ese correo o nombre de usuario")));
+    }
+
+    @Test
+    void testCrearUsuariosEnLote() throws Exception {
+        List<User> users = List.of(
+                new User(null, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false, 0L),
+                new User(null, "Ana Díaz", "anita", "pass456", "ana@mail.com", false, 0L));
+
+        Mockito.when(userService.guardarUsers(Mockito.anyList()))
+                .thenReturn(List.of(ResultadoLote.exito(0, 51L), ResultadoLote.fallo(1, "Duplicate entry 'ana@mail.com'")));
+
+        mockMvc.perform(post("/api/v2/users/crear/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(users)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.message", is("Lote de usuarios procesado")))
+                .andExpect(jsonPath("$.resultados", hasSize(2)))
+                .andExpect(jsonPath("$.resultados[0].id", is(51)))
+                .andExpect(jsonPath("$.resultados[1].error", is("Duplicate entry 'ana@mail.com'")));
+    }
+
     @Test
     void testListarUsuarios() throws Exception {
         List<User> lista = List.of(
-                new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false),
-                new User(2L, "Ana Ruiz", "anar", "pass456", "ana@mail.com", true)
+                new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false, 0L),
+                new User(2L, "Ana Ruiz", "anar", "pass456", "ana@mail.com", true, 0L)
         );
 
-        Mockito.when(userService.obtenerUsers()).thenReturn(lista);
+        Mockito.when(userService.obtenerUsers(null, 20)).thenReturn(new Pagina<>(lista, Pagina.codificarCursor(2L)));
 
         mockMvc.perform(get("/api/v2/users/listar"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("Usuarios obtenidos correctamente")))
                 .andExpect(jsonPath("$.total", is(2)))
-                .andExpect(jsonPath("$.data", hasSize(2)));
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.next", is(Pagina.codificarCursor(2L))));
+    }
+
+    @Test
+    void testExportarUsuariosNdjson() throws Exception {
+        User user = new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false, 0L);
+        Mockito.doAnswer(invocation -> {
+            Consumer<User> consumidor = invocation.getArgument(0);
+            consumidor.accept(user);
+            return null;
+        }).when(userService).exportarUsers(Mockito.any());
+
+        MvcResult resultado = mockMvc.perform(get("/api/v2/users/listar").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        Assertions.assertEquals(objectMapper.writeValueAsString(user) + "\n", cuerpo);
     }
 
     @Test
     void testObtenerUsuarioPorId() throws Exception {
-        User user = new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false);
+        User user = new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", false, 0L);
 
         Mockito.when(userService.obtenerUserPorId(1L)).thenReturn(Optional.of(user));
 
@@ -74,12 +149,23 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.user.id", is(1)));
     }
 
+    @Test
+    void testActualizarUsuarioParcial() throws Exception {
+        Mockito.when(userService.actualizarUserParcial(1L, new CambiosUser(null, null, null, true), null)).thenReturn(1);
+
+        mockMvc.perform(patch("/api/v2/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"validated\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados", is(1)));
+    }
+
     @Test
     void testActualizarUsuario() throws Exception {
-        User user = new User(null, "Juan Actualizado", "juanito2", "newpass", "juanito2@mail.com", true);
-        User actualizado = new User(1L, "Juan Actualizado", "juanito2", "newpass", "juanito2@mail.com", true);
+        User user = new User(null, "Juan Actualizado", "juanito2", "newpass", "juanito2@mail.com", true, 0L);
+        User actualizado = new User(1L, "Juan Actualizado", "juanito2", "newpass", "juanito2@mail.com", true, 0L);
 
-        Mockito.when(userService.actualizarUser(Mockito.eq(1L), Mockito.any(User.class)))
+        Mockito.when(userService.actualizarUser(Mockito.eq(1L), Mockito.any(User.class), Mockito.isNull()))
                 .thenReturn(Optional.of(actualizado));
 
         mockMvc.perform(put("/api/v2/users/1")
@@ -102,9 +188,10 @@ public class UserControllerTest {
 
     @Test
     void testLoginExitoso() throws Exception {
-        User user = new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", true);
+        User user = new User(1L, "Juan Pérez", "juanito", "pass123", "juan@mail.com", true, 0L);
 
-        Mockito.when(userService.login("juan@mail.com", "pass123")).thenReturn(Optional.of(user));
+        Mockito.when(userService.login("juan@mail.com", "pass123")).thenReturn(CompletableFuture.completedFuture(Optional.of(user)));
+        Mockito.when(tokensSesion.emitir(1L)).thenReturn(new TokenSesion("v1.datos.firma", 3600));
 
         String loginJson = """
                 {
@@ -113,17 +200,24 @@ public class UserControllerTest {
                 }
                 """;
 
-        mockMvc.perform(post("/api/v2/users/login")
+        MvcResult resultado = mockMvc.perform(post("/api/v2/users/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(loginJson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("Usuario logueado correctamente")))
-                .andExpect(jsonPath("$.user.id", is(1)));
+                .andExpect(jsonPath("$.user.id", is(1)))
+                .andExpect(jsonPath("$.user.password").doesNotExist())
+                .andExpect(jsonPath("$.token", is("v1.datos.firma")))
+                .andExpect(jsonPath("$.expiraEn", is(3600)));
     }
 
     @Test
     void testLoginFallido() throws Exception {
-        Mockito.when(userService.login("juan@mail.com", "wrong")).thenReturn(Optional.empty());
+        Mockito.when(userService.login("juan@mail.com", "wrong")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
 
         String loginJson = """
                 {
@@ -132,10 +226,63 @@ public class UserControllerTest {
                 }
                 """;
 
-        mockMvc.perform(post("/api/v2/users/login")
+        MvcResult resultado = mockMvc.perform(post("/api/v2/users/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(loginJson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.message", is("Credenciales inválidas o usuario no encontrado")));
     }
+
+    @Test
+    void testLoginConColaDeVerificacionLlena() throws Exception {
+        Mockito.when(userService.login("juan@mail.com", "pass123")).thenThrow(new RejectedExecutionException());
+
+        MvcResult resultado = mockMvc.perform(post("/api/v2/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", "juan@mail.com", "password", "pass123"))))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void testLoginLimitadoNoConsultaElServicio() throws Exception {
+        Mockito.when(limiteLogins.segundosDeEspera("juan@mail.com", "10.0.0.7")).thenReturn(12L);
+
+        MvcResult resultado = mockMvc.perform(post("/api/v2/users/login")
+                        .with(solicitud -> { solicitud.setRemoteAddr("10.0.0.7"); return solicitud; })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", "juan@mail.com", "password", "pass123"))))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"))
+                .andExpect(jsonPath("$.message", is("Demasiados intentos de inicio de sesión; intente más tarde")));
+
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testSesionConToken() throws Exception {
+        mockMvc.perform(get("/api/v2/users/sesion").requestAttr("sesion.usuario", 7L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is("Sesión válida")))
+                .andExpect(jsonPath("$.userId", is(7)));
+
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testSesionSinToken() throws Exception {
+        mockMvc.perform(get("/api/v2/users/sesion"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"));
+    }
 }
@@ -0,0 +1,124 @@
+package cl.duoc.ligranadillo.proyectoprueba.repository;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ejecuta PATCH concurrentes sobre la misma fila contra una base real. Cada prueba confirma
+ * sus propias transacciones para que los hilos compitan por la fila como en producción.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ActualizacionParcialConcurrenteTest {
+
+    private static final int HILOS = 4;
+    private static final int ACTUALIZACIONES_POR_HILO = 25;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @AfterEach
+    public void limpiar() {
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    public void testPatchConcurrentesSobreCamposDistintosNoPierdenCambios() throws Exception {
+        Long id = cursoRepository.save(new Curso(null, "Java", "desc", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L)).getId();
+
+        // Cada hilo modifica un campo distinto; un read-modify-write devolvería valores viejos
+        // de los otros campos y los sobrescribiría
+        List<Callable<Integer>> tareas = List.of(
+                () -> repetir(i -> cursoRepository.actualizarParcial(id, null, "Java " + i, null, null, null, null, null)),
+                () -> repetir(i -> cursoRepository.actualizarParcial(id, null, null, "desc " + i, null, null, null, null)),
+                () -> repetir(i -> cursoRepository.actualizarParcial(id, null, null, null, "categoría " + i, null, null, null)),
+                () -> repetir(i -> cursoRepository.actualizarParcial(id, null, null, null, null, null, null, "instructor " + i)));
+
+        List<Integer> filas = ejecutarEnParalelo(tareas);
+
+        int ultima = ACTUALIZACIONES_POR_HILO - 1;
+        Curso curso = cursoRepository.findById(id).orElseThrow();
+        assertEquals(List.of(ACTUALIZACIONES_POR_HILO, ACTUALIZACIONES_POR_HILO, ACTUALIZACIONES_POR_HILO, ACTUALIZACIONES_POR_HILO), filas);
+        assertEquals("Java " + ultima, curso.getNombre());
+        assertEquals("desc " + ultima, curso.getDescripcion());
+        assertEquals("categoría " + ultima, curso.getCategoria());
+        assertEquals("instructor " + ultima, curso.getInstructor());
+        assertEquals(LocalDate.of(2025, 8, 1), curso.getFechaInicio());
+        assertEquals((long) HILOS * ACTUALIZACIONES_POR_HILO, curso.getVersion());
+    }
+
+    @Test
+    public void testPatchConcurrentesConMismaVersionSoloUnoSeAplica() throws Exception {
+        Long id = cursoRepository.save(new Curso(null, "Java", "desc", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L)).getId();
+
+        List<Callable<Integer>> tareas = new ArrayList<>();
+        for (int hilo = 0; hilo < HILOS; hilo++) {
+            String nombre = "Java " + hilo;
+            tareas.add(() -> cursoRepository.actualizarParcial(id, 0L, nombre, null, null, null, null, null));
+        }
+
+        List<Integer> filas = ejecutarEnParalelo(tareas);
+
+        assertEquals(1, filas.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(1L, cursoRepository.findById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void testPatchSinVersionDeCursoInexistente() {
+        assertEquals(0, cursoRepository.actualizarParcial(9999L, null, "Java", null, null, null, null, null));
+    }
+
+    private static int repetir(IntUnaryOperator actualizacion) {
+        int filas = 0;
+        for (int i = 0; i < ACTUALIZACIONES_POR_HILO; i++) {
+            filas += actualizacion.applyAsInt(i);
+        }
+        return filas;
+    }
+
+    private static List<Integer> ejecutarEnParalelo(List<Callable<Integer>> tareas) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tareas.size());
+        try {
+            CountDownLatch salida = new CountDownLatch(1);
+            List<Future<Integer>> futuros = new ArrayList<>();
+            for (Callable<Integer> tarea : tareas) {
+                futuros.add(executor.submit(() -> {
+                    salida.await();
+                    return tarea.call();
+                }));
+            }
+            salida.countDown();
+            List<Integer> resultados = new ArrayList<>();
+            for (Future<Integer> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
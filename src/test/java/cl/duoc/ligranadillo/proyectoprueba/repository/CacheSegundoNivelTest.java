@@ -0,0 +1,149 @@
+package cl.duoc.ligranadillo.proyectoprueba.repository;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cada llamada al repositorio abre su propio contexto de persistencia, de modo que una segunda
+ * lectura solo evita la base si la resuelve la cache de segundo nivel o la de consultas.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CacheSegundoNivelTest {
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private ContenidoRepository contenidoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Long cursoId;
+    private Long contenidoId;
+
+    @BeforeEach
+    public void setUp() {
+        cursoId = cursoRepository.save(new Curso(null, "Java", "desc", "Programación",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Juan", 0L)).getId();
+        cursoRepository.save(new Curso(null, "Spring", "desc", "Programación",
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Ana", 0L));
+        contenidoId = contenidoRepository.save(new Contenido(null, "Clase 1", "Video", "https://videos/1", "desc", 0L)).getId();
+
+        // Se parte con la cache vacía: las inserciones también la llenan
+        entityManagerFactory.getCache().evictAll();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    public void limpiar() {
+        cursoRepository.deleteAll();
+        contenidoRepository.deleteAll();
+    }
+
+    @Test
+    public void testLecturaPorIdSinSqlEnCaliente() {
+        cursoRepository.findById(cursoId);
+        contenidoRepository.findById(contenidoId);
+        long enFrio = estadisticas.getPrepareStatementCount();
+
+        estadisticas.clear();
+        assertEquals("Java", cursoRepository.findById(cursoId).orElseThrow().getNombre());
+        assertEquals("Clase 1", contenidoRepository.findById(contenidoId).orElseThrow().getTitulo());
+
+        assertEquals(2, enFrio);
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(2, estadisticas.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    public void testListadosSinSqlEnCaliente() {
+        cursoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21));
+        contenidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21));
+
+        estadisticas.clear();
+        List<Curso> cursos = cursoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21));
+        List<Contenido> contenidos = contenidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21));
+
+        assertEquals(2, cursos.size());
+        assertEquals(1, contenidos.size());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(2, estadisticas.getQueryCacheHitCount());
+    }
+
+    @Test
+    public void testBusquedasPorFechaSinSqlEnCaliente() {
+        LocalDate dia = LocalDate.of(2025, 9, 15);
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        cursoRepository.buscarActivos(dia, dia, 0L, Limit.of(21));
+        cursoRepository.buscarPorInicio(desde, 0L, LocalDate.of(2025, 12, 31), Limit.of(21));
+
+        estadisticas.clear();
+        List<Curso> activos = cursoRepository.buscarActivos(dia, dia, 0L, Limit.of(21));
+        List<Curso> porInicio = cursoRepository.buscarPorInicio(desde, 0L, LocalDate.of(2025, 12, 31), Limit.of(21));
+
+        assertEquals(2, activos.size());
+        assertEquals(2, porInicio.size());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testEliminacionInvalidaLaEntidad() {
+        cursoRepository.findById(cursoId);
+
+        cursoRepository.eliminarPorId(cursoId);
+
+        assertTrue(cursoRepository.findById(cursoId).isEmpty());
+    }
+
+    @Test
+    public void testCargaDelIndiceNoLlenaLaCache() {
+        List<Curso> cursos = cursoRepository.findParaIndiceByIdGreaterThanOrderByIdAsc(0L, Limit.of(500));
+        List<Contenido> contenidos = contenidoRepository.findParaIndiceByIdGreaterThanOrderByIdAsc(0L, Limit.of(500));
+
+        assertEquals(2, cursos.size());
+        assertEquals(1, contenidos.size());
+        assertEquals(0, estadisticas.getSecondLevelCachePutCount());
+        assertEquals(0, estadisticas.getQueryCachePutCount());
+        assertFalse(entityManagerFactory.getCache().contains(Curso.class, cursoId));
+    }
+
+    @Test
+    public void testActualizacionInvalidaEntidadYConsultas() {
+        cursoRepository.findById(cursoId);
+        cursoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21));
+
+        cursoRepository.actualizarParcial(cursoId, null, "Java avanzado", null, null, null, null, null);
+        estadisticas.clear();
+
+        assertEquals("Java avanzado", cursoRepository.findById(cursoId).orElseThrow().getNombre());
+        assertEquals("Java avanzado", cursoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21)).get(0).getNombre());
+        assertTrue(estadisticas.getPrepareStatementCount() > 0);
+    }
+}
@@ -0,0 +1,132 @@
+package cl.duoc.ligranadillo.proyectoprueba.repository;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara obtener las evaluaciones de un curso recorriendo todo {@code /evaluaciones/listar}
+ * y filtrando en el cliente contra la consulta por curso_id. Se ejecuta con {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+public class EvaluacionesPorCursoBenchmarkTest {
+
+    private static final int CURSOS = 200;
+    private static final int EVALUACIONES_POR_CURSO = 250;
+    private static final int TAMANO_PAGINA = 100;
+    private static final long CURSO_BUSCADO = 137L;
+    private static final int CALENTAMIENTO = 3;
+    private static final int ITERACIONES = 10;
+
+    @Autowired
+    private EvaluacionRepository evaluacionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    public void cargarDatos() {
+        List<Object[]> cursos = new ArrayList<>();
+        for (long curso = 1; curso <= CURSOS; curso++) {
+            cursos.add(new Object[]{curso, "Curso " + curso});
+        }
+        jdbcTemplate.batchUpdate("insert into curso (id, nombre) values (?, ?)", cursos);
+
+        List<Object[]> evaluaciones = new ArrayList<>();
+        long id = 1;
+        // Intercaladas por curso, como quedan al crearse en el tiempo
+        for (int i = 0; i < EVALUACIONES_POR_CURSO; i++) {
+            for (long curso = 1; curso <= CURSOS; curso++) {
+                evaluaciones.add(new Object[]{id++, "Evaluación " + i, "Cuestionario", 100, curso});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into evaluacion (id, titulo, tipo, puntaje_maximo, curso_id) values (?, ?, ?, ?, ?)",
+                evaluaciones);
+    }
+
+    @Test
+    public void compararListarYFiltrarContraConsultaPorCurso() {
+        List<Long> esperadas = ids(listarYFiltrar());
+        assertEquals(EVALUACIONES_POR_CURSO, esperadas.size());
+        assertEquals(esperadas, ids(consultarPorCurso()));
+
+        double listarYFiltrar = medir(this::listarYFiltrar);
+        double porCurso = medir(this::consultarPorCurso);
+
+        System.out.printf("Evaluaciones de un curso entre %d filas: listar y filtrar %.2f ms, por curso_id %.2f ms (%.1fx)%n",
+                CURSOS * EVALUACIONES_POR_CURSO, listarYFiltrar, porCurso, listarYFiltrar / porCurso);
+        assertTrue(porCurso < listarYFiltrar);
+    }
+
+    /**
+     * Lo que hacía el cliente: pedir todas las páginas de /listar y quedarse con las del curso.
+     */
+    private List<Evaluacion> listarYFiltrar() {
+        List<Evaluacion> delCurso = new ArrayList<>();
+        long desde = 0;
+        List<Evaluacion> pagina;
+        do {
+            pagina = evaluacionRepository.findByIdGreaterThanOrderByIdAsc(desde, Limit.of(TAMANO_PAGINA));
+            pagina.stream().filter(e -> e.getCursoId() == CURSO_BUSCADO).forEach(delCurso::add);
+            if (!pagina.isEmpty()) {
+                desde = pagina.get(pagina.size() - 1).getId();
+            }
+            entityManager.clear();
+        } while (pagina.size() == TAMANO_PAGINA);
+        return delCurso;
+    }
+
+    private List<Evaluacion> consultarPorCurso() {
+        List<Evaluacion> delCurso = new ArrayList<>();
+        long desde = 0;
+        List<Evaluacion> pagina;
+        do {
+            pagina = evaluacionRepository.findByCursoIdAndIdGreaterThanOrderByIdAsc(
+                    CURSO_BUSCADO, desde, Limit.of(TAMANO_PAGINA));
+            delCurso.addAll(pagina);
+            if (!pagina.isEmpty()) {
+                desde = pagina.get(pagina.size() - 1).getId();
+            }
+            entityManager.clear();
+        } while (pagina.size() == TAMANO_PAGINA);
+        return delCurso;
+    }
+
+    private double medir(Supplier<List<Evaluacion>> consulta) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            consulta.get();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            consulta.get();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / ITERACIONES;
+    }
+
+    private static List<Long> ids(List<Evaluacion> evaluaciones) {
+        return evaluaciones.stream().map(Evaluacion::getId).toList();
+    }
+}
@@ -0,0 +1,190 @@
+package cl.duoc.ligranadillo.proyectoprueba.repository;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.model.User;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta cada método declarado en los repositorios y revisa con EXPLAIN de H2 el plan de cada
+ * sentencia que generó: falla si alguna recorre la tabla completa. El esquema de H2 se crea desde
+ * los índices de {@code @Table} de las entidades, así que también comprueba que esos índices sean
+ * los mismos que crean las migraciones de {@code db/migracion}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "cl.duoc.ligranadillo.proyectoprueba.repository.IndicesConsultasTest$Sentencias"
+})
+public class IndicesConsultasTest {
+
+    private static final Pattern CREAR_INDICE = Pattern.compile(
+            "CREATE\\s+(UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)\\s*\\(([^)]*)\\)", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private ContenidoRepository contenidoRepository;
+
+    @Autowired
+    private EvaluacionRepository evaluacionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testNingunaConsultaRecorreLaTablaCompleta() throws Exception {
+        Map<Class<?>, Object> repositorios = Map.of(
+                CursoRepository.class, cursoRepository,
+                ContenidoRepository.class, contenidoRepository,
+                EvaluacionRepository.class, evaluacionRepository,
+                UserRepository.class, userRepository);
+
+        List<String> sinIndice = new ArrayList<>();
+        for (Map.Entry<Class<?>, Object> repositorio : repositorios.entrySet()) {
+            for (Method metodo : repositorio.getKey().getDeclaredMethods()) {
+                String nombre = repositorio.getKey().getSimpleName() + "." + metodo.getName();
+                Sentencias.EJECUTADAS.clear();
+                invocar(repositorio.getValue(), metodo);
+                assertFalse(Sentencias.EJECUTADAS.isEmpty(), nombre + " no ejecutó ninguna sentencia");
+                for (String sql : Sentencias.EJECUTADAS) {
+                    String plan = plan(sql);
+                    if (plan.contains(".tableScan")) {
+                        sinIndice.add(nombre + ":\n" + plan);
+                    }
+                }
+            }
+        }
+        assertTrue(sinIndice.isEmpty(), "Consultas sin índice:\n" + String.join("\n\n", sinIndice));
+    }
+
+    @Test
+    public void testLasMigracionesCreanLosIndicesDeLasEntidades() throws Exception {
+        Map<String, String> migrados = new HashMap<>();
+        for (Resource migracion : new PathMatchingResourcePatternResolver().getResources("classpath:db/migracion/*.sql")) {
+            Matcher indice = CREAR_INDICE.matcher(migracion.getContentAsString(StandardCharsets.UTF_8));
+            while (indice.find()) {
+                migrados.put(indice.group(2), definicion(indice.group(3), indice.group(4), indice.group(1) != null));
+            }
+        }
+
+        for (Class<?> entidad : List.of(Curso.class, Contenido.class, Evaluacion.class, User.class)) {
+            Table tabla = entidad.getAnnotation(Table.class);
+            if (tabla == null) {
+                continue;
+            }
+            for (Index indice : tabla.indexes()) {
+                assertEquals(definicion(entidad.getSimpleName(), indice.columnList(), indice.unique()),
+                        migrados.get(indice.name()), "Índice " + indice.name() + " de " + entidad.getSimpleName());
+            }
+        }
+    }
+
+    private static void invocar(Object repositorio, Method metodo) throws Exception {
+        Object[] argumentos = new Object[metodo.getParameterCount()];
+        for (int i = 0; i < argumentos.length; i++) {
+            argumentos[i] = ejemplo(metodo.getParameterTypes()[i]);
+        }
+        try {
+            // Los Stream ejecutan la consulta al pedir el primer elemento
+            if (metodo.invoke(repositorio, argumentos) instanceof Stream<?> resultado) {
+                try (resultado) {
+                    resultado.findFirst();
+                }
+            }
+        } catch (InvocationTargetException e) {
+            throw new AssertionError("No se pudo ejecutar " + metodo, e.getCause());
+        }
+    }
+
+    private static Object ejemplo(Class<?> tipo) {
+        if (tipo == Long.class || tipo == long.class) {
+            return 1L;
+        }
+        if (tipo == Integer.class || tipo == int.class) {
+            return 1;
+        }
+        if (tipo == Boolean.class) {
+            return true;
+        }
+        if (tipo == String.class) {
+            return "a";
+        }
+        if (tipo == LocalDate.class) {
+            return LocalDate.of(2025, 1, 1);
+        }
+        if (tipo == Limit.class) {
+            return Limit.of(10);
+        }
+        if (Collection.class.isAssignableFrom(tipo)) {
+            return List.of(1L, 2L);
+        }
+        throw new IllegalArgumentException("Sin valor de ejemplo para " + tipo);
+    }
+
+    private String plan(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexion -> {
+            try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+                int parametros = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parametros; i++) {
+                    explain.setObject(i, null);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private static String definicion(String tabla, String columnas, boolean unico) {
+        return (unico ? "unique " : "") + tabla.toLowerCase() + " (" + columnas.replaceAll("\\s", "").toLowerCase() + ")";
+    }
+
+    public static class Sentencias implements StatementInspector {
+
+        static final List<String> EJECUTADAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            EJECUTADAS.add(sql);
+            return sql;
+        }
+    }
+}
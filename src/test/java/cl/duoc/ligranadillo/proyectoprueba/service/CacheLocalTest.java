@@ -0,0 +1,101 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheLocalTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    private CacheLocal<String> nuevaCache(int tamanoMaximo) {
+        return new CacheLocal<>("prueba", tamanoMaximo, Duration.ofSeconds(10), reloj::get);
+    }
+
+    @Test
+    public void testAciertoNoVuelveACargar() {
+        CacheLocal<String> cache = nuevaCache(10);
+        AtomicInteger cargas = new AtomicInteger();
+
+        cache.obtener(1L, id -> { cargas.incrementAndGet(); return Optional.of("uno"); });
+        Optional<String> valor = cache.obtener(1L, id -> { cargas.incrementAndGet(); return Optional.of("otro"); });
+
+        assertEquals("uno", valor.get());
+        assertEquals(1, cargas.get());
+        EstadisticasCache estadisticas = cache.estadisticas();
+        assertEquals(1, estadisticas.aciertos());
+        assertEquals(1, estadisticas.fallos());
+        assertEquals(1, estadisticas.tamano());
+    }
+
+    @Test
+    public void testNoGuardaResultadosVacios() {
+        CacheLocal<String> cache = nuevaCache(10);
+
+        cache.obtener(1L, id -> Optional.empty());
+        cache.obtener(1L, id -> Optional.empty());
+
+        assertEquals(2, cache.estadisticas().fallos());
+        assertEquals(0, cache.estadisticas().tamano());
+    }
+
+    @Test
+    public void testExpiraPorTiempoDeVida() {
+        CacheLocal<String> cache = nuevaCache(10);
+        cache.obtener(1L, id -> Optional.of("viejo"));
+
+        reloj.addAndGet(Duration.ofSeconds(11).toNanos());
+        Optional<String> valor = cache.obtener(1L, id -> Optional.of("nuevo"));
+
+        assertEquals("nuevo", valor.get());
+        assertEquals(1, cache.estadisticas().desalojos());
+    }
+
+    @Test
+    public void testDesalojaLaMenosUsadaAlSuperarElTamano() {
+        CacheLocal<String> cache = nuevaCache(2);
+        cache.obtener(1L, id -> Optional.of("uno"));
+        cache.obtener(2L, id -> Optional.of("dos"));
+        cache.obtener(1L, id -> Optional.of("uno"));
+
+        cache.obtener(3L, id -> Optional.of("tres"));
+
+        assertEquals(2, cache.estadisticas().tamano());
+        assertEquals(1, cache.estadisticas().desalojos());
+        assertEquals("uno", cache.obtener(1L, id -> Optional.of("recargado")).get());
+        assertEquals("recargado", cache.obtener(2L, id -> Optional.of("recargado")).get());
+    }
+
+    @Test
+    public void testInvalidarFuerzaRecarga() {
+        CacheLocal<String> cache = nuevaCache(10);
+        cache.obtener(1L, id -> Optional.of("viejo"));
+
+        cache.invalidar(1L);
+
+        assertEquals("nuevo", cache.obtener(1L, id -> Optional.of("nuevo")).get());
+    }
+
+    @Test
+    public void testLecturaConcurrenteConInvalidacionNoQuedaEnCache() {
+        CacheLocal<String> cache = nuevaCache(10);
+
+        cache.obtener(1L, id -> {
+            cache.invalidar(1L);
+            return Optional.of("leido antes de la escritura");
+        });
+
+        assertEquals(0, cache.estadisticas().tamano());
+        assertEquals("actual", cache.obtener(1L, id -> Optional.of("actual")).get());
+    }
+
+    @Test
+    public void testTamanoMaximoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new CacheLocal<String>("prueba", 0, Duration.ofSeconds(1)));
+    }
+}
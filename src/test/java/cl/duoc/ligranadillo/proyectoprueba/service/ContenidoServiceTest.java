@@ -2,13 +2,18 @@ package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
 import cl.duoc.ligranadillo.proyectoprueba.repository.ContenidoRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -17,17 +22,21 @@ public class ContenidoServiceTest {
 
     private ContenidoRepository contenidoRepository;
     private ContenidoService contenidoService;
+    private InsercionPorLotes insercionPorLotes;
+    private IndiceBusqueda indiceBusqueda;
 
     @BeforeEach
     public void setUp() {
         contenidoRepository = Mockito.mock(ContenidoRepository.class);
-        contenidoService = new ContenidoService(contenidoRepository);
+        insercionPorLotes = mock(InsercionPorLotes.class);
+        indiceBusqueda = mock(IndiceBusqueda.class);
+        contenidoService = new ContenidoService(contenidoRepository, insercionPorLotes, indiceBusqueda);
     }
 
     @Test
     public void testCrearContenido() {
-        Contenido contenido = new Contenido(null, "Video Java", "Video", "https://youtube.com/java", "Intro Java");
-        Contenido guardado = new Contenido(1L, "Video Java", "Video", "https://youtube.com/java", "Intro Java");
+        Contenido contenido = new Contenido(null, "Video Java", "Video", "https://youtube.com/java", "Intro Java", 0L);
+        Contenido guardado = new Contenido(1L, "Video Java", "Video", "https://youtube.com/java", "Intro Java", 0L);
 
         when(contenidoRepository.save(contenido)).thenReturn(guardado);
 
@@ -38,11 +47,23 @@ public class ContenidoServiceTest {
         verify(contenidoRepository, times(1)).save(contenido);
     }
 
+    @Test
+    public void testGuardarContenidosEnLote() {
+        List<Contenido> lote = List.of(new Contenido(null, "Video Java", "Video", "url", "desc", 0L), new Contenido(null, "Video Java", "Video", "url", "desc", 0L));
+        List<ResultadoLote> esperados = List.of(ResultadoLote.exito(0, 1L), ResultadoLote.fallo(1, "error"));
+        when(insercionPorLotes.insertar(eq(lote), any(), any())).thenReturn(esperados);
+
+        List<ResultadoLote> resultados = contenidoService.guardarContenidos(lote);
+
+        assertEquals(esperados, resultados);
+        verify(indiceBusqueda, times(1)).indexar(lote.get(0));
+    }
+
     @Test
     public void testListarContenidos() {
         List<Contenido> lista = Arrays.asList(
-                new Contenido(1L, "Video Java", "Video", "url1", "desc1"),
-                new Contenido(2L, "PDF Spring", "Documento", "url2", "desc2")
+                new Contenido(1L, "Video Java", "Video", "url1", "desc1", 0L),
+                new Contenido(2L, "PDF Spring", "Documento", "url2", "desc2", 0L)
         );
 
         when(contenidoRepository.findAll()).thenReturn(lista);
@@ -53,9 +74,53 @@ public class ContenidoServiceTest {
         assertEquals(2, resultado.size());
     }
 
+    @Test
+    public void testObtenerContenidosPaginaConSiguiente() {
+        when(contenidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(new Contenido(1L, "Video Java", "Video", "url1", "desc1", 0L), new Contenido(2L, "PDF Spring", "Documento", "url2", "desc2", 0L), new Contenido(3L, "Quiz", "Documento", "url3", "desc3", 0L)));
+
+        Pagina<Contenido> pagina = contenidoService.obtenerContenidos(null, 2);
+
+        assertEquals(2, pagina.data().size());
+        assertEquals(Pagina.codificarCursor(2L), pagina.next());
+    }
+
+    @Test
+    public void testObtenerContenidosUltimaPagina() {
+        when(contenidoRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+                .thenReturn(List.of(new Contenido(3L, "Quiz", "Documento", "url3", "desc3", 0L)));
+
+        Pagina<Contenido> pagina = contenidoService.obtenerContenidos(Pagina.codificarCursor(2L), 2);
+
+        assertEquals(1, pagina.data().size());
+        assertNull(pagina.next());
+    }
+
+    @Test
+    public void testObtenerContenidosCursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> contenidoService.obtenerContenidos("no-es-cursor", 2));
+        verify(contenidoRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    public void testExportarContenidosDesacoplaCadaFila() {
+        EntityManager entityManager = mock(EntityManager.class);
+        ReflectionTestUtils.setField(contenidoService, "entityManager", entityManager);
+        Contenido primero = new Contenido(1L, "Video Java", "Video", "url1", "desc1", 0L);
+        Contenido segundo = new Contenido(2L, "PDF Spring", "Documento", "url2", "desc2", 0L);
+        when(contenidoRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(primero, segundo));
+
+        List<Contenido> emitidos = new ArrayList<>();
+        contenidoService.exportarContenidos(emitidos::add);
+
+        assertEquals(List.of(primero, segundo), emitidos);
+        verify(entityManager).detach(primero);
+        verify(entityManager).detach(segundo);
+    }
+
     @Test
     public void testObtenerContenidoPorIdExistente() {
-        Contenido contenido = new Contenido(1L, "Video Java", "Video", "url", "desc");
+        Contenido contenido = new Contenido(1L, "Video Java", "Video", "url", "desc", 0L);
         when(contenidoRepository.findById(1L)).thenReturn(Optional.of(contenido));
 
         Optional<Contenido> resultado = contenidoService.obtenerContenidoPorId(1L);
@@ -75,12 +140,12 @@ public class ContenidoServiceTest {
 
     @Test
     public void testActualizarContenidoExistente() {
-        Contenido existente = new Contenido(1L, "Video Java", "Video", "url", "desc");
-        Contenido actualizado = new Contenido(null, "Video Java Avanzado", "Video", "url2", "desc2");
+        Contenido existente = new Contenido(1L, "Video Java", "Video", "url", "desc", 0L);
+        Contenido actualizado = new Contenido(null, "Video Java Avanzado", "Video", "url2", "desc2", 0L);
 
         when(contenidoRepository.findById(1L)).thenReturn(Optional.of(existente));
         when(contenidoRepository.save(any(Contenido.class))).thenReturn(
-                new Contenido(1L, "Video Java Avanzado", "Video", "url2", "desc2")
+                new Contenido(1L, "Video Java Avanzado", "Video", "url2", "desc2", 0L)
         );
 
         Optional<Contenido> resultado = contenidoService.actualizarContenido(1L, actualizado);
@@ -91,7 +156,7 @@ public class ContenidoServiceTest {
 
     @Test
     public void testActualizarContenidoNoExistente() {
-        Contenido actualizado = new Contenido(null, "Video", "Video", "url", "desc");
+        Contenido actualizado = new Contenido(null, "Video", "Video", "url", "desc", 0L);
 
         when(contenidoRepository.findById(999L)).thenReturn(Optional.empty());
 
@@ -103,21 +168,22 @@ public class ContenidoServiceTest {
 
     @Test
     public void testEliminarContenidoExistente() {
-        when(contenidoRepository.existsById(1L)).thenReturn(true);
+        when(contenidoRepository.eliminarPorId(1L)).thenReturn(1);
 
         boolean eliminado = contenidoService.eliminarContenido(1L);
 
         assertTrue(eliminado);
-        verify(contenidoRepository, times(1)).deleteById(1L);
+        verify(contenidoRepository, never()).existsById(anyLong());
+        verify(indiceBusqueda).eliminar(IndiceBusqueda.CONTENIDO, 1L);
     }
 
     @Test
     public void testEliminarContenidoNoExistente() {
-        when(contenidoRepository.existsById(999L)).thenReturn(false);
+        when(contenidoRepository.eliminarPorId(999L)).thenReturn(0);
 
         boolean eliminado = contenidoService.eliminarContenido(999L);
 
         assertFalse(eliminado);
-        verify(contenidoRepository, never()).deleteById(anyLong());
+        verify(indiceBusqueda, never()).eliminar(anyString(), anyLong());
     }
 }
@@ -0,0 +1,136 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CubetasTokensTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    private CubetasTokens nuevasCubetas(int capacidad, int franjas, int maximoCubetas) {
+        return new CubetasTokens(capacidad, Duration.ofMinutes(1), franjas, maximoCubetas, reloj::get);
+    }
+
+    @Test
+    public void testConsumeHastaLaCapacidadYLuegoIndicaLaEspera() {
+        CubetasTokens cubetas = nuevasCubetas(3, 4, 100);
+
+        assertEquals(0, cubetas.consumir("a"));
+        assertEquals(0, cubetas.consumir("a"));
+        assertEquals(0, cubetas.consumir("a"));
+        long espera = cubetas.consumir("a");
+
+        assertEquals(Duration.ofSeconds(20).toNanos(), espera);
+        assertEquals(0, cubetas.consumir("b"));
+    }
+
+    @Test
+    public void testRecuperaUnTokenPorFraccionDelPeriodo() {
+        CubetasTokens cubetas = nuevasCubetas(3, 4, 100);
+        for (int i = 0; i < 3; i++) {
+            cubetas.consumir("a");
+        }
+
+        reloj.addAndGet(Duration.ofSeconds(19).toNanos());
+        long espera = cubetas.consumir("a");
+        assertTrue(espera > 0 && espera <= Duration.ofSeconds(1).toNanos() + 1, "espera " + espera);
+        reloj.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(0, cubetas.consumir("a"));
+        assertTrue(cubetas.consumir("a") > 0);
+    }
+
+    @Test
+    public void testDevolverNoSuperaLaCapacidad() {
+        CubetasTokens cubetas = nuevasCubetas(2, 4, 100);
+        cubetas.consumir("a");
+        cubetas.devolver("a");
+        cubetas.devolver("a");
+
+        assertEquals(0, cubetas.consumir("a"));
+        assertEquals(0, cubetas.consumir("a"));
+        assertTrue(cubetas.consumir("a") > 0);
+    }
+
+    @Test
+    public void testDescartaCubetasInactivasDuranteUnPeriodo() {
+        CubetasTokens cubetas = nuevasCubetas(5, 1, 100);
+        cubetas.consumir("a");
+        cubetas.consumir("b");
+
+        reloj.addAndGet(Duration.ofMinutes(1).toNanos());
+        cubetas.consumir("c");
+
+        assertEquals(1, cubetas.tamano());
+    }
+
+    @Test
+    public void testMemoriaAcotadaConMuchasClaves() {
+        CubetasTokens cubetas = nuevasCubetas(5, 8, 64);
+
+        for (int i = 0; i < 10_000; i++) {
+            cubetas.consumir("clave-" + i);
+        }
+
+        assertTrue(cubetas.tamano() <= 64);
+    }
+
+    @Test
+    public void testConcurrenteNoEntregaMasTokensQueLaCapacidad() throws Exception {
+        int capacidad = 50;
+        int claves = 32;
+        int hilos = 16;
+        int intentosPorHilo = 2_000;
+        CubetasTokens cubetas = nuevasCubetas(capacidad, 8, 10_000);
+        AtomicIntegerArray concedidos = new AtomicIntegerArray(claves);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                int desplazamiento = h;
+                tareas.add(pool.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < intentosPorHilo; i++) {
+                        int clave = (i + desplazamiento) % claves;
+                        if (cubetas.consumir("clave-" + clave) == 0) {
+                            concedidos.incrementAndGet(clave);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int clave = 0; clave < claves; clave++) {
+            assertEquals(capacidad, concedidos.get(clave), "clave-" + clave);
+        }
+    }
+
+    @Test
+    public void testLimiteLoginsDevuelveElTokenDeLaDireccionSiLimitaElCorreo() {
+        LimiteLogins limite = new LimiteLogins(nuevasCubetas(1, 4, 100), nuevasCubetas(2, 4, 100), new SimpleMeterRegistry());
+
+        assertEquals(0, limite.segundosDeEspera("juan@mail.com", "10.0.0.7"));
+        assertEquals(60, limite.segundosDeEspera("JUAN@mail.com ", "10.0.0.7"));
+        assertEquals(0, limite.segundosDeEspera("ana@mail.com", "10.0.0.7"));
+        assertEquals(30, limite.segundosDeEspera("pedro@mail.com", "10.0.0.7"));
+    }
+}
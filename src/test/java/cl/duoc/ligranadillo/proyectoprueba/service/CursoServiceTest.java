@@ -1,14 +1,27 @@
 package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
 import cl.duoc.ligranadillo.proyectoprueba.repository.CursoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-
+import org.mockito.Captor;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -17,17 +30,33 @@ public class CursoServiceTest {
 
     private CursoRepository cursoRepository;
     private CursoService cursoService;
+    private InsercionPorLotes insercionPorLotes;
+    private IndiceBusqueda indiceBusqueda;
+    private CacheLocal<Evaluacion> cacheEvaluaciones;
+    private AutoCloseable anotaciones;
+
+    @Captor
+    private ArgumentCaptor<List<Long>> lotes;
 
     @BeforeEach
     public void setup() {
+        anotaciones = MockitoAnnotations.openMocks(this);
         cursoRepository = mock(CursoRepository.class);
-        cursoService = new CursoService(cursoRepository);
+        insercionPorLotes = mock(InsercionPorLotes.class);
+        indiceBusqueda = mock(IndiceBusqueda.class);
+        cacheEvaluaciones = new CacheLocal<>("evaluaciones", 100, Duration.ofMinutes(1));
+        cursoService = new CursoService(cursoRepository, cacheEvaluaciones, insercionPorLotes, indiceBusqueda);
+    }
+
+    @AfterEach
+    public void cerrar() throws Exception {
+        anotaciones.close();
     }
 
     @Test
     public void testGuardarCurso() {
-        Curso curso = new Curso(null, "Java Básico", "Intro a Java", "Programación", "2024-07-01", "2024-08-01", "Juan");
-        Curso cursoConId = new Curso(1L, curso.getNombre(), curso.getDescripcion(), curso.getCategoria(), curso.getFechaInicio(), curso.getFechaFin(), curso.getInstructor());
+        Curso curso = new Curso(null, "Java Básico", "Intro a Java", "Programación", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Juan", 0L);
+        Curso cursoConId = new Curso(1L, curso.getNombre(), curso.getDescripcion(), curso.getCategoria(), curso.getFechaInicio(), curso.getFechaFin(), curso.getInstructor(), 0L);
 
         when(cursoRepository.save(curso)).thenReturn(cursoConId);
 
@@ -38,9 +67,21 @@ public class CursoServiceTest {
         verify(cursoRepository).save(curso);
     }
 
+    @Test
+    public void testGuardarCursosEnLote() {
+        List<Curso> lote = List.of(new Curso(null, "Java", "Intro", "Dev", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), "Juan", 0L), new Curso(null, "Java", "Intro", "Dev", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), "Juan", 0L));
+        List<ResultadoLote> esperados = List.of(ResultadoLote.exito(0, 1L), ResultadoLote.fallo(1, "error"));
+        when(insercionPorLotes.insertar(eq(lote), any(), any())).thenReturn(esperados);
+
+        List<ResultadoLote> resultados = cursoService.guardarCursos(lote);
+
+        assertEquals(esperados, resultados);
+        verify(indiceBusqueda, times(1)).indexar(lote.get(0));
+    }
+
     @Test
     public void testObtenerCursosDevuelveLista() {
-        Curso curso = new Curso(1L, "Java Básico", "Intro", "Prog", "2024-07", "2024-08", "Juan");
+        Curso curso = new Curso(1L, "Java Básico", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Juan", 0L);
         when(cursoRepository.findAll()).thenReturn(Collections.singletonList(curso));
 
         List<Curso> cursos = cursoService.obtenerCursos();
@@ -50,9 +91,98 @@ public class CursoServiceTest {
         verify(cursoRepository).findAll();
     }
 
+    @Test
+    public void testObtenerCursosPaginaConSiguiente() {
+        when(cursoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(new Curso(1L, "Java Básico", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Juan", 0L), new Curso(2L, "Python", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Ana", 0L), new Curso(3L, "Go", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Luis", 0L)));
+
+        Pagina<Curso> pagina = cursoService.obtenerCursos(null, 2);
+
+        assertEquals(2, pagina.data().size());
+        assertEquals(Pagina.codificarCursor(2L), pagina.next());
+    }
+
+    @Test
+    public void testObtenerCursosUltimaPagina() {
+        when(cursoRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3)))
+                .thenReturn(List.of(new Curso(3L, "Go", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Luis", 0L)));
+
+        Pagina<Curso> pagina = cursoService.obtenerCursos(Pagina.codificarCursor(2L), 2);
+
+        assertEquals(1, pagina.data().size());
+        assertNull(pagina.next());
+    }
+
+    @Test
+    public void testBuscarCursosActivosPrimeraPagina() {
+        LocalDate dia = LocalDate.of(2024, 7, 15);
+        Curso primero = new Curso(1L, "Java", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), "Juan", 0L);
+        Curso segundo = new Curso(2L, "Go", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 31), "Luis", 0L);
+        when(cursoRepository.buscarActivos(dia, dia, 0L, Limit.of(2))).thenReturn(List.of(primero, segundo));
+
+        Pagina<Curso> pagina = cursoService.buscarCursosActivos(dia, null, 1);
+
+        assertEquals(List.of(primero), pagina.data());
+        assertEquals(Pagina.codificarCursor(LocalDate.of(2024, 7, 31), 1L), pagina.next());
+    }
+
+    @Test
+    public void testBuscarCursosPorInicioContinuaDesdeCursor() {
+        LocalDate desde = LocalDate.of(2024, 7, 1);
+        LocalDate hasta = LocalDate.of(2024, 7, 31);
+        String cursor = Pagina.codificarCursor(LocalDate.of(2024, 7, 10), 8L);
+        when(cursoRepository.buscarPorInicio(LocalDate.of(2024, 7, 10), 8L, hasta, Limit.of(3))).thenReturn(List.of());
+
+        Pagina<Curso> pagina = cursoService.buscarCursosPorInicio(desde, hasta, cursor, 2);
+
+        assertTrue(pagina.data().isEmpty());
+        assertNull(pagina.next());
+    }
+
+    @Test
+    public void testBuscarCursosPorFinCursorNoAmpliaElRango() {
+        LocalDate desde = LocalDate.of(2024, 7, 1);
+        LocalDate hasta = LocalDate.of(2024, 7, 31);
+        String cursor = Pagina.codificarCursor(LocalDate.of(2020, 1, 1), 8L);
+
+        cursoService.buscarCursosPorFin(desde, hasta, cursor, 2);
+
+        verify(cursoRepository).buscarPorFin(desde, 0L, hasta, Limit.of(3));
+    }
+
+    @Test
+    public void testBuscarCursosPorFechaCursorInvalido() {
+        LocalDate dia = LocalDate.of(2024, 7, 15);
+        assertThrows(IllegalArgumentException.class,
+                () -> cursoService.buscarCursosActivos(dia, Pagina.codificarCursor(5L), 2));
+        verify(cursoRepository, never()).buscarActivos(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testObtenerCursosCursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> cursoService.obtenerCursos("no-es-cursor", 2));
+        verify(cursoRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    public void testExportarCursosDesacoplaCadaFila() {
+        EntityManager entityManager = mock(EntityManager.class);
+        ReflectionTestUtils.setField(cursoService, "entityManager", entityManager);
+        Curso primero = new Curso(1L, "Java Básico", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Juan", 0L);
+        Curso segundo = new Curso(2L, "Python", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Ana", 0L);
+        when(cursoRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(primero, segundo));
+
+        List<Curso> emitidos = new ArrayList<>();
+        cursoService.exportarCursos(emitidos::add);
+
+        assertEquals(List.of(primero, segundo), emitidos);
+        verify(entityManager).detach(primero);
+        verify(entityManager).detach(segundo);
+    }
+
     @Test
     public void testObtenerCursoPorIdExistente() {
-        Curso curso = new Curso(1L, "Java Básico", "Intro", "Prog", "2024-07", "2024-08", "Juan");
+        Curso curso = new Curso(1L, "Java Básico", "Intro", "Prog", LocalDate.of(2024, 7, 1), LocalDate.of(2024, 8, 1), "Juan", 0L);
         when(cursoRepository.findById(1L)).thenReturn(Optional.of(curso));
 
         Optional<Curso> resultado = cursoService.obtenerCursoPorId(1L);
@@ -74,8 +204,8 @@ public class CursoServiceTest {
 
     @Test
     public void testActualizarCursoExistente() {
-        Curso cursoExistente = new Curso(1L, "Java", "Intro", "Dev", "2024-01", "2024-02", "Juan");
-        Curso cursoActualizado = new Curso(null, "Java", "Avanzado", "Dev", "2024-01", "2024-03", "Juan");
+        Curso cursoExistente = new Curso(1L, "Java", "Intro", "Dev", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), "Juan", 0L);
+        Curso cursoActualizado = new Curso(null, "Java", "Avanzado", "Dev", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1), "Juan", 0L);
 
         when(cursoRepository.findById(1L)).thenReturn(Optional.of(cursoExistente));
         when(cursoRepository.save(any(Curso.class))).thenAnswer(invocation -> invocation.getArgument(0));
@@ -84,13 +214,35 @@ public class CursoServiceTest {
 
         assertTrue(resultado.isPresent());
         assertEquals("Avanzado", resultado.get().getDescripcion());
-        assertEquals("2024-03", resultado.get().getFechaFin());
+        assertEquals(LocalDate.of(2024, 3, 1), resultado.get().getFechaFin());
 
         ArgumentCaptor<Curso> captor = ArgumentCaptor.forClass(Curso.class);
         verify(cursoRepository).save(captor.capture());
         assertEquals("Avanzado", captor.getValue().getDescripcion());
     }
 
+    @Test
+    public void testActualizarCursoConVersionEsperada() {
+        Curso cursoExistente = new Curso(1L, "Java", "Intro", "Dev", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), "Juan", 3L);
+        when(cursoRepository.findById(1L)).thenReturn(Optional.of(cursoExistente));
+        when(cursoRepository.save(any(Curso.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<Curso> resultado = cursoService.actualizarCurso(1L, new Curso(null, "Java", "Avanzado", "Dev",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1), "Juan", 0L), 3L);
+
+        assertTrue(resultado.isPresent());
+        verify(cursoRepository).save(cursoExistente);
+    }
+
+    @Test
+    public void testActualizarCursoVersionDesactualizada() {
+        Curso cursoExistente = new Curso(1L, "Java", "Intro", "Dev", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), "Juan", 3L);
+        when(cursoRepository.findById(1L)).thenReturn(Optional.of(cursoExistente));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> cursoService.actualizarCurso(1L, new Curso(), 2L));
+        verify(cursoRepository, never()).save(any());
+    }
+
     @Test
     public void testActualizarCursoNoExistente() {
         when(cursoRepository.findById(99L)).thenReturn(Optional.empty());
@@ -103,22 +255,92 @@ public class CursoServiceTest {
     }
 
     @Test
-    public void testEliminarCursoExistente() {
+    public void testActualizarCursoParcialSinLeerAntes() {
+        when(cursoRepository.actualizarParcial(1L, null, null, null, "Datos", null, null, null)).thenReturn(1);
+
+        int filas = cursoService.actualizarCursoParcial(1L, new CambiosCurso(null, null, "Datos", null, null, null), null);
+
+        assertEquals(1, filas);
+        verify(cursoRepository, never()).findById(any());
+        verify(cursoRepository, never()).save(any());
+        verifyNoInteractions(indiceBusqueda);
+    }
+
+    @Test
+    public void testActualizarCursoParcialReindexaNombre() {
+        Curso guardado = new Curso(1L, "Java Avanzado", "Intro", "Dev", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), "Juan", 1L);
+        when(cursoRepository.actualizarParcial(1L, null, "Java Avanzado", null, null, null, null, null)).thenReturn(1);
+        when(cursoRepository.findById(1L)).thenReturn(Optional.of(guardado));
+
+        cursoService.actualizarCursoParcial(1L, new CambiosCurso("Java Avanzado", null, null, null, null, null), null);
+
+        verify(indiceBusqueda).indexar(guardado);
+    }
+
+    @Test
+    public void testActualizarCursoParcialVersionDesactualizada() {
+        when(cursoRepository.actualizarParcial(1L, 2L, "Java", null, null, null, null, null)).thenReturn(0);
         when(cursoRepository.existsById(1L)).thenReturn(true);
 
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                cursoService.actualizarCursoParcial(1L, new CambiosCurso("Java", null, null, null, null, null), 2L));
+    }
+
+    @Test
+    public void testActualizarCursoParcialNoExistente() {
+        when(cursoRepository.actualizarParcial(99L, 0L, "Java", null, null, null, null, null)).thenReturn(0);
+        when(cursoRepository.existsById(99L)).thenReturn(false);
+
+        assertEquals(0, cursoService.actualizarCursoParcial(99L, new CambiosCurso("Java", null, null, null, null, null), 0L));
+    }
+
+    @Test
+    public void testEliminarCursoExistente() {
+        when(cursoRepository.eliminarPorId(1L)).thenReturn(1);
+
         boolean eliminado = cursoService.eliminarCurso(1L);
 
         assertTrue(eliminado);
-        verify(cursoRepository).deleteById(1L);
+        verify(cursoRepository, never()).existsById(any());
+        verify(cursoRepository, never()).deleteById(any());
+        verify(indiceBusqueda).eliminar(IndiceBusqueda.CURSO, 1L);
+    }
+
+    @Test
+    public void testEliminarCursoInvalidaSusEvaluacionesEnCache() {
+        cacheEvaluaciones.obtener(10L, id -> Optional.of(new Evaluacion(id, "Parcial", "Cuestionario", 100, 1L, 0L)));
+        cacheEvaluaciones.obtener(11L, id -> Optional.of(new Evaluacion(id, "Tarea", "Tarea", 50, 2L, 0L)));
+        cacheEvaluaciones.obtener(12L, id -> Optional.of(new Evaluacion(id, "Sin curso", "Tarea", 50, null, 0L)));
+        when(cursoRepository.eliminarPorId(1L)).thenReturn(1);
+        when(cursoRepository.eliminarPorIds(anyCollection())).thenReturn(1);
+
+        cursoService.eliminarCurso(1L);
+        assertEquals(2, cacheEvaluaciones.estadisticas().tamano());
+        cursoService.eliminarCursos(List.of(2L));
+
+        assertEquals(1, cacheEvaluaciones.estadisticas().tamano());
     }
 
     @Test
     public void testEliminarCursoNoExistente() {
-        when(cursoRepository.existsById(99L)).thenReturn(false);
+        when(cursoRepository.eliminarPorId(99L)).thenReturn(0);
 
         boolean eliminado = cursoService.eliminarCurso(99L);
 
         assertFalse(eliminado);
-        verify(cursoRepository, never()).deleteById(any());
+        verify(indiceBusqueda, never()).eliminar(any(), any());
+    }
+
+    @Test
+    public void testEliminarCursosEnLotePorBloques() {
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+        when(cursoRepository.eliminarPorIds(anyCollection())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+
+        int eliminados = cursoService.eliminarCursos(ids);
+
+        assertEquals(1200, eliminados);
+        verify(cursoRepository, times(3)).eliminarPorIds(lotes.capture());
+        assertEquals(List.of(500, 500, 200), lotes.getAllValues().stream().map(List::size).toList());
+        verify(indiceBusqueda).eliminar(IndiceBusqueda.CURSO, 1200L);
     }
 }
@@ -2,13 +2,19 @@ package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
 import cl.duoc.ligranadillo.proyectoprueba.repository.EvaluacionRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -17,17 +23,23 @@ public class EvaluacionServiceTest {
 
     private EvaluacionRepository evaluacionRepository;
     private EvaluacionService evaluacionService;
+    private InsercionPorLotes insercionPorLotes;
+    private IndiceBusqueda indiceBusqueda;
 
     @BeforeEach
     public void setUp() {
         evaluacionRepository = Mockito.mock(EvaluacionRepository.class);
-        evaluacionService = new EvaluacionService(evaluacionRepository);
+        insercionPorLotes = mock(InsercionPorLotes.class);
+        indiceBusqueda = mock(IndiceBusqueda.class);
+        evaluacionService = new EvaluacionService(evaluacionRepository,
+                new CacheLocal<>("evaluaciones", 100, Duration.ofMinutes(1)),
+                insercionPorLotes, indiceBusqueda);
     }
 
     @Test
     public void testCrearEvaluacion() {
-        Evaluacion evaluacion = new Evaluacion(null, "Prueba Java", "Cuestionario", 100, "1");
-        Evaluacion evaluacionGuardada = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, "1");
+        Evaluacion evaluacion = new Evaluacion(null, "Prueba Java", "Cuestionario", 100, 1L, 0L);
+        Evaluacion evaluacionGuardada = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L);
 
         when(evaluacionRepository.save(evaluacion)).thenReturn(evaluacionGuardada);
 
@@ -38,11 +50,23 @@ public class EvaluacionServiceTest {
         verify(evaluacionRepository, times(1)).save(evaluacion);
     }
 
+    @Test
+    public void testGuardarEvaluacionesEnLote() {
+        List<Evaluacion> lote = List.of(new Evaluacion(null, "Prueba Java", "Cuestionario", 100, 1L, 0L), new Evaluacion(null, "Prueba Java", "Cuestionario", 100, 1L, 0L));
+        List<ResultadoLote> esperados = List.of(ResultadoLote.exito(0, 1L), ResultadoLote.fallo(1, "error"));
+        when(insercionPorLotes.insertar(eq(lote), any(), any())).thenReturn(esperados);
+
+        List<ResultadoLote> resultados = evaluacionService.guardarEvaluaciones(lote);
+
+        assertEquals(esperados, resultados);
+        verify(indiceBusqueda, times(1)).indexar(lote.get(0));
+    }
+
     @Test
     public void testListarEvaluaciones() {
         List<Evaluacion> lista = Arrays.asList(
-                new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, "1"),
-                new Evaluacion(2L, "Prueba Spring", "Tarea", 80, "1")
+                new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L),
+                new Evaluacion(2L, "Prueba Spring", "Tarea", 80, 1L, 0L)
         );
 
         when(evaluacionRepository.findAll()).thenReturn(lista);
@@ -53,9 +77,50 @@ public class EvaluacionServiceTest {
         assertEquals(2, resultado.size());
     }
 
+    @Test
+    public void testObtenerEvaluacionesPaginaConSiguiente() {
+        when(evaluacionRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .thenReturn(List.of(
+                        new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L),
+                        new Evaluacion(2L, "Proyecto", "Tarea", 50, 1L, 0L)));
+
+        Pagina<Evaluacion> pagina = evaluacionService.obtenerEvaluaciones(null, 1);
+
+        assertEquals(1, pagina.data().size());
+        assertEquals(Pagina.codificarCursor(1L), pagina.next());
+    }
+
+    @Test
+    public void testObtenerEvaluacionesPorCurso() {
+        when(evaluacionRepository.findByCursoIdAndIdGreaterThanOrderByIdAsc(3L, 0L, Limit.of(11)))
+                .thenReturn(List.of(new Evaluacion(4L, "Prueba Java", "Cuestionario", 100, 3L, 0L)));
+
+        Pagina<Evaluacion> pagina = evaluacionService.obtenerEvaluacionesPorCurso(3L, null, 10);
+
+        assertEquals(1, pagina.data().size());
+        assertEquals(3L, pagina.data().get(0).getCursoId());
+        assertNull(pagina.next());
+    }
+
+    @Test
+    public void testExportarEvaluacionesDesacoplaCadaFila() {
+        EntityManager entityManager = mock(EntityManager.class);
+        ReflectionTestUtils.setField(evaluacionService, "entityManager", entityManager);
+        Evaluacion primero = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L);
+        Evaluacion segundo = new Evaluacion(2L, "Proyecto", "Tarea", 50, 1L, 0L);
+        when(evaluacionRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(primero, segundo));
+
+        List<Evaluacion> emitidos = new ArrayList<>();
+        evaluacionService.exportarEvaluaciones(emitidos::add);
+
+        assertEquals(List.of(primero, segundo), emitidos);
+        verify(entityManager).detach(primero);
+        verify(entityManager).detach(segundo);
+    }
+
     @Test
     public void testObtenerEvaluacionPorIdExistente() {
-        Evaluacion evaluacion = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, "1");
+        Evaluacion evaluacion = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L);
         when(evaluacionRepository.findById(1L)).thenReturn(Optional.of(evaluacion));
 
         Optional<Evaluacion> resultado = evaluacionService.obtenerEvaluacionPorId(1L);
@@ -64,6 +129,29 @@ public class EvaluacionServiceTest {
         assertEquals("Prueba Java", resultado.get().getTitulo());
     }
 
+    @Test
+    public void testObtenerEvaluacionPorIdUsaCache() {
+        when(evaluacionRepository.findById(1L)).thenReturn(Optional.of(new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L)));
+
+        evaluacionService.obtenerEvaluacionPorId(1L);
+        evaluacionService.obtenerEvaluacionPorId(1L);
+
+        verify(evaluacionRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void testGuardarEvaluacionInvalidaCache() {
+        Evaluacion existente = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L);
+        when(evaluacionRepository.findById(1L)).thenReturn(Optional.of(existente));
+        when(evaluacionRepository.save(existente)).thenReturn(existente);
+
+        evaluacionService.obtenerEvaluacionPorId(1L);
+        evaluacionService.guardarEvaluacion(existente);
+        evaluacionService.obtenerEvaluacionPorId(1L);
+
+        verify(evaluacionRepository, times(2)).findById(1L);
+    }
+
     @Test
     public void testObtenerEvaluacionPorIdNoExistente() {
         when(evaluacionRepository.findById(999L)).thenReturn(Optional.empty());
@@ -75,12 +163,12 @@ public class EvaluacionServiceTest {
 
     @Test
     public void testActualizarEvaluacionExistente() {
-        Evaluacion existente = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, "1");
-        Evaluacion actualizada = new Evaluacion(null, "Prueba Java Avanzada", "Cuestionario", 120, "1");
+        Evaluacion existente = new Evaluacion(1L, "Prueba Java", "Cuestionario", 100, 1L, 0L);
+        Evaluacion actualizada = new Evaluacion(null, "Prueba Java Avanzada", "Cuestionario", 120, 1L, 0L);
 
         when(evaluacionRepository.findById(1L)).thenReturn(Optional.of(existente));
         when(evaluacionRepository.save(any(Evaluacion.class))).thenReturn(
-                new Evaluacion(1L, "Prueba Java Avanzada", "Cuestionario", 120, "1")
+                new Evaluacion(1L, "Prueba Java Avanzada", "Cuestionario", 120, 1L, 0L)
         );
 
         Optional<Evaluacion> resultado = evaluacionService.actualizarEvaluacion(1L, actualizada);
@@ -92,7 +180,7 @@ public class EvaluacionServiceTest {
 
     @Test
     public void testActualizarEvaluacionNoExistente() {
-        Evaluacion actualizada = new Evaluacion(null, "Prueba Inexistente", "Tarea", 50, "1");
+        Evaluacion actualizada = new Evaluacion(null, "Prueba Inexistente", "Tarea", 50, 1L, 0L);
 
         when(evaluacionRepository.findById(999L)).thenReturn(Optional.empty());
 
@@ -102,23 +190,44 @@ public class EvaluacionServiceTest {
         verify(evaluacionRepository, never()).save(any(Evaluacion.class));
     }
 
+    @Test
+    public void testActualizarEvaluacionParcial() {
+        when(evaluacionRepository.actualizarParcial(1L, null, null, null, 120, null)).thenReturn(1);
+
+        int filas = evaluacionService.actualizarEvaluacionParcial(1L, new CambiosEvaluacion(null, null, 120, null), null);
+
+        assertEquals(1, filas);
+        verify(evaluacionRepository, never()).findById(anyLong());
+        verify(evaluacionRepository, never()).save(any(Evaluacion.class));
+    }
+
     @Test
     public void testEliminarEvaluacionExistente() {
-        when(evaluacionRepository.existsById(1L)).thenReturn(true);
+        when(evaluacionRepository.eliminarPorId(1L)).thenReturn(1);
 
         boolean eliminado = evaluacionService.eliminarEvaluacion(1L);
 
         assertTrue(eliminado);
-        verify(evaluacionRepository, times(1)).deleteById(1L);
+        verify(evaluacionRepository, never()).existsById(anyLong());
+        verify(indiceBusqueda).eliminar(IndiceBusqueda.EVALUACION, 1L);
     }
 
     @Test
     public void testEliminarEvaluacionNoExistente() {
-        when(evaluacionRepository.existsById(999L)).thenReturn(false);
+        when(evaluacionRepository.eliminarPorId(999L)).thenReturn(0);
 
         boolean eliminado = evaluacionService.eliminarEvaluacion(999L);
 
         assertFalse(eliminado);
-        verify(evaluacionRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    public void testEliminarEvaluacionesEnLote() {
+        when(evaluacionRepository.eliminarPorIds(List.of(1L, 2L))).thenReturn(1);
+
+        int eliminadas = evaluacionService.eliminarEvaluaciones(List.of(1L, 2L, 1L));
+
+        assertEquals(1, eliminadas);
+        verify(indiceBusqueda).eliminar(IndiceBusqueda.EVALUACION, 2L);
     }
 }
@@ -0,0 +1,95 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import cl.duoc.ligranadillo.proyectoprueba.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class FiltroCorreosTest {
+
+    private UserRepository userRepository;
+    private FiltroCorreos filtro;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = Mockito.mock(UserRepository.class);
+        filtro = new FiltroCorreos(userRepository, Mockito.mock(PlatformTransactionManager.class),
+                100, 0.01, Duration.ZERO, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testSinConstruirNoDescartaNingunCorreo() {
+        assertTrue(filtro.puedeExistir("nadie@mail.com"));
+        assertEquals(1.0, filtro.estadisticas().probabilidadFalsoPositivo());
+    }
+
+    @Test
+    public void testNuncaDescartaUnCorreoRegistrado() {
+        List<String> correos = IntStream.range(0, 5_000).mapToObj(i -> "usuario" + i + "@mail.com").toList();
+        when(userRepository.count()).thenReturn((long) correos.size());
+        when(userRepository.streamEmails()).thenReturn(correos.stream());
+
+        filtro.reconstruir();
+
+        correos.forEach(correo -> assertTrue(filtro.puedeExistir(correo), correo));
+    }
+
+    @Test
+    public void testLaTasaDeFalsosPositivosSeAcercaALaConfigurada() {
+        when(userRepository.count()).thenReturn(5_000L);
+        when(userRepository.streamEmails()).thenReturn(IntStream.range(0, 5_000).mapToObj(i -> "usuario" + i + "@mail.com"));
+        EstadisticasFiltroCorreos estadisticas = filtro.reconstruir();
+
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.puedeExistir("otro" + i + "@mail.com"))
+                .count();
+
+        // El filtro se dimensiona para el doble de correos, así que queda bajo el 1%
+        assertTrue(falsosPositivos < 1_000, "falsos positivos: " + falsosPositivos);
+        assertTrue(estadisticas.probabilidadFalsoPositivo() < 0.01);
+        assertEquals(5_000, estadisticas.correos());
+    }
+
+    @Test
+    public void testIgnoraMayusculasTildesYEspaciosComoLaBase() {
+        when(userRepository.streamEmails()).thenReturn(Stream.of("jose.perez@mail.com"));
+        filtro.reconstruir();
+
+        assertTrue(filtro.puedeExistir("José.Pérez@Mail.com "));
+    }
+
+    @Test
+    public void testReconstruirOlvidaLosCorreosEliminados() {
+        when(userRepository.streamEmails()).thenReturn(Stream.of("ana@mail.com", "juan@mail.com"));
+        filtro.reconstruir();
+        when(userRepository.streamEmails()).thenReturn(Stream.of("ana@mail.com"));
+
+        filtro.reconstruir();
+
+        assertTrue(filtro.puedeExistir("ana@mail.com"));
+        assertFalse(filtro.puedeExistir("juan@mail.com"));
+    }
+
+    @Test
+    public void testConservaLosCorreosAgregadosDuranteLaReconstruccion() {
+        when(userRepository.streamEmails()).thenReturn(Stream.of("ana@mail.com"));
+        filtro.reconstruir();
+        // Un registro confirmado después de que la lectura de la tabla empezó
+        when(userRepository.streamEmails()).thenReturn(Stream.of("ana@mail.com")
+                .peek(correo -> filtro.agregar("nuevo@mail.com")));
+
+        filtro.reconstruir();
+
+        assertTrue(filtro.puedeExistir("nuevo@mail.com"));
+    }
+}
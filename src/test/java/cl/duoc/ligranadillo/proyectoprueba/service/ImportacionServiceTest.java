@@ -0,0 +1,129 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class ImportacionServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CursoService cursoService;
+    private EvaluacionService evaluacionService;
+    private ImportacionService importacionService;
+
+    @BeforeEach
+    public void setUp() {
+        cursoService = mock(CursoService.class);
+        evaluacionService = mock(EvaluacionService.class);
+        importacionService = new ImportacionService(cursoService, mock(ContenidoService.class), evaluacionService,
+                objectMapper, Runnable::run, 2, Duration.ofHours(1));
+    }
+
+    @Test
+    public void testImportarCsvDescartaFilasInvalidas() throws Exception {
+        List<Curso> recibidos = new ArrayList<>();
+        when(cursoService.guardarCursos(anyList())).thenAnswer(invocacion -> {
+            List<Curso> chunk = invocacion.getArgument(0);
+            recibidos.addAll(chunk);
+            List<ResultadoLote> resultados = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                resultados.add(ResultadoLote.exito(i, (long) recibidos.size() - chunk.size() + i + 1));
+            }
+            return resultados;
+        });
+        String csv = """
+                nombre,descripcion,categoria,fechaInicio,fechaFin,instructor
+                Java,Intro,Programación,2025-03-01,2025-07-15,Juan Pérez
+                Spring,Web,Programación,no-es-fecha,2025-07-15,Ana Soto
+                Docker,,DevOps,2025-04-01,,Luis Díaz
+                """;
+
+        EstadoImportacion estado = importacionService.iniciar("cursos", FormatoImportacion.CSV, contenido(csv));
+        EstadoImportacion terminada = importacionService.obtener(estado.id()).orElseThrow();
+
+        assertEquals(EstadoImportacion.Estado.COMPLETADA, terminada.estado());
+        assertEquals(3, terminada.filasProcesadas());
+        assertEquals(2, terminada.filasCreadas());
+        assertEquals(1, terminada.filasFallidas());
+        assertEquals(2, terminada.errores().get(0).fila());
+        assertEquals(List.of("Java", "Docker"), recibidos.stream().map(Curso::getNombre).toList());
+        assertEquals(LocalDate.of(2025, 3, 1), recibidos.get(0).getFechaInicio());
+        assertNull(recibidos.get(1).getDescripcion());
+        assertNull(recibidos.get(1).getFechaFin());
+    }
+
+    @Test
+    public void testImportarJsonPorChunksInformaFilaFallida() throws Exception {
+        when(evaluacionService.guardarEvaluaciones(anyList()))
+                .thenReturn(List.of(ResultadoLote.exito(0, 1L), ResultadoLote.exito(1, 2L)))
+                .thenReturn(List.of(ResultadoLote.fallo(0, "Duplicate entry")));
+        String json = """
+                [{"titulo": "Prueba 1", "tipo": "Cuestionario", "puntajeMaximo": 100, "cursoId": 1},
+                 null,
+                 {"titulo": "Prueba 2", "tipo": "Tarea", "puntajeMaximo": 50, "cursoId": 1},
+                 {"titulo": "Prueba 3", "tipo": "Tarea", "puntajeMaximo": 50, "cursoId": 2}]
+                """;
+
+        EstadoImportacion estado = importacionService.iniciar("evaluaciones", FormatoImportacion.JSON, contenido(json));
+        EstadoImportacion terminada = importacionService.obtener(estado.id()).orElseThrow();
+
+        verify(evaluacionService, times(2)).guardarEvaluaciones(anyList());
+        assertEquals(EstadoImportacion.Estado.COMPLETADA, terminada.estado());
+        assertEquals(4, terminada.filasProcesadas());
+        assertEquals(2, terminada.filasCreadas());
+        assertEquals(List.of(new ErrorImportacion(2, "Fila vacía"), new ErrorImportacion(4, "Duplicate entry")),
+                terminada.errores());
+    }
+
+    @Test
+    public void testImportarJsonMalFormadoFalla() throws Exception {
+        EstadoImportacion estado = importacionService.iniciar("evaluaciones", FormatoImportacion.JSON,
+                contenido("[{\"titulo\": \"Prueba 1\""));
+
+        EstadoImportacion terminada = importacionService.obtener(estado.id()).orElseThrow();
+
+        assertEquals(EstadoImportacion.Estado.FALLIDA, terminada.estado());
+        assertNotNull(terminada.error());
+        verify(evaluacionService, never()).guardarEvaluaciones(anyList());
+    }
+
+    @Test
+    public void testImportarConColaLlenaNoRegistraImportacion() {
+        ImportacionService sinCupo = new ImportacionService(cursoService, mock(ContenidoService.class), evaluacionService,
+                objectMapper, tarea -> {
+                    throw new RejectedExecutionException();
+                }, 2, Duration.ofHours(1));
+
+        assertThrows(RejectedExecutionException.class,
+                () -> sinCupo.iniciar("cursos", FormatoImportacion.JSON, contenido("[]")));
+    }
+
+    @Test
+    public void testFormatoPorNombreOTipo() {
+        assertEquals(FormatoImportacion.CSV, FormatoImportacion.de("cursos.CSV", null).orElseThrow());
+        assertEquals(FormatoImportacion.JSON, FormatoImportacion.de("cursos.ndjson", "application/octet-stream").orElseThrow());
+        assertEquals(FormatoImportacion.JSON, FormatoImportacion.de("cursos", "application/json").orElseThrow());
+        assertTrue(FormatoImportacion.de("cursos.xlsx", "application/octet-stream").isEmpty());
+    }
+
+    private static InputStream contenido(String texto) {
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,117 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import cl.duoc.ligranadillo.proyectoprueba.model.Curso;
+import cl.duoc.ligranadillo.proyectoprueba.model.Evaluacion;
+import cl.duoc.ligranadillo.proyectoprueba.repository.ContenidoRepository;
+import cl.duoc.ligranadillo.proyectoprueba.repository.CursoRepository;
+import cl.duoc.ligranadillo.proyectoprueba.repository.EvaluacionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class IndiceBusquedaTest {
+
+    private CursoRepository cursoRepository;
+    private ContenidoRepository contenidoRepository;
+    private EvaluacionRepository evaluacionRepository;
+    private IndiceBusqueda indiceBusqueda;
+
+    @BeforeEach
+    public void setUp() {
+        cursoRepository = mock(CursoRepository.class);
+        contenidoRepository = mock(ContenidoRepository.class);
+        evaluacionRepository = mock(EvaluacionRepository.class);
+        when(cursoRepository.findParaIndiceByIdGreaterThanOrderByIdAsc(0L, Limit.of(500))).thenReturn(List.of(
+                new Curso(1L, "Programación en Java", "Curso introductorio de Java", "Programación",
+                        LocalDate.of(2025, 8, 1), LocalDate.of(2025, 10, 1), "Ana", 0L),
+                new Curso(2L, "Diseño de bases de datos", "Modelado relacional y SQL", "Datos",
+                        LocalDate.of(2025, 9, 1), LocalDate.of(2025, 11, 1), "Carlos", 0L)));
+        when(contenidoRepository.findParaIndiceByIdGreaterThanOrderByIdAsc(0L, Limit.of(500))).thenReturn(List.of(
+                new Contenido(1L, "Video de SQL", "Video", "url", "Consultas básicas", 0L),
+                new Contenido(2L, "Guía de ejercicios", "PDF", "url", "Ejercicios de SQL y de Java", 0L)));
+        when(evaluacionRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(500))).thenReturn(List.of(
+                new Evaluacion(1L, "Prueba de Java", "Cuestionario", 100, 1L, 0L)));
+        indiceBusqueda = new IndiceBusqueda(cursoRepository, contenidoRepository, evaluacionRepository,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(indiceBusqueda, "entityManager", mock(EntityManager.class));
+        indiceBusqueda.reconstruir();
+    }
+
+    private static List<String> claves(List<ResultadoBusqueda> resultados) {
+        return resultados.stream().map(r -> r.tipo() + ":" + r.id()).toList();
+    }
+
+    @Test
+    public void testReconstruirIndexaLasTresTablas() {
+        EstadisticasIndice estadisticas = indiceBusqueda.estadisticas();
+
+        assertEquals(5, estadisticas.documentos());
+        assertTrue(estadisticas.terminos() > 0);
+    }
+
+    @Test
+    public void testBusquedaSinTildesNiMayusculas() {
+        List<ResultadoBusqueda> resultados = indiceBusqueda.buscar("PROGRAMACION", 10);
+
+        assertEquals(List.of("curso:1"), claves(resultados));
+        assertEquals("Programación en Java", resultados.get(0).titulo());
+    }
+
+    @Test
+    public void testCoincidenciaEnTituloPesaMasQueEnDescripcion() {
+        List<ResultadoBusqueda> resultados = indiceBusqueda.buscar("sql", 10);
+
+        assertEquals("contenido:1", claves(resultados).get(0));
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).puntaje() > resultados.get(2).puntaje());
+    }
+
+    @Test
+    public void testPalabrasVaciasNoCoinciden() {
+        assertTrue(indiceBusqueda.buscar("de la", 10).isEmpty());
+        assertTrue(indiceBusqueda.buscar("   ", 10).isEmpty());
+    }
+
+    @Test
+    public void testLimitaCantidadDeResultados() {
+        assertEquals(2, indiceBusqueda.buscar("java", 2).size());
+    }
+
+    @Test
+    public void testActualizacionesIncrementales() {
+        indiceBusqueda.indexar(new Evaluacion(2L, "Examen de Kotlin", "Oral", 50, 1L, 0L));
+        assertEquals(List.of("evaluacion:2"), claves(indiceBusqueda.buscar("kotlin", 10)));
+
+        indiceBusqueda.indexar(new Evaluacion(2L, "Examen de Scala", "Oral", 50, 1L, 0L));
+        assertTrue(indiceBusqueda.buscar("kotlin", 10).isEmpty());
+        assertEquals(List.of("evaluacion:2"), claves(indiceBusqueda.buscar("scala", 10)));
+
+        indiceBusqueda.eliminar(IndiceBusqueda.EVALUACION, 2L);
+        assertTrue(indiceBusqueda.buscar("scala", 10).isEmpty());
+        assertEquals(5, indiceBusqueda.estadisticas().documentos());
+    }
+
+    @Test
+    public void testCambiosDuranteReconstruccionSeConservan() {
+        when(evaluacionRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(500))).thenAnswer(invocation -> {
+            // Llega una escritura mientras se leen las tablas
+            indiceBusqueda.indexar(new Contenido(3L, "Podcast de Rust", "Audio", "url", "Episodio 1", 0L));
+            return List.of();
+        });
+
+        EstadisticasIndice estadisticas = indiceBusqueda.reconstruir();
+
+        assertEquals(5, estadisticas.documentos());
+        assertEquals(List.of("contenido:3"), claves(indiceBusqueda.buscar("rust", 10)));
+    }
+}
@@ -0,0 +1,95 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import cl.duoc.ligranadillo.proyectoprueba.model.Contenido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class InsercionPorLotesTest {
+
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+    private InsercionPorLotes insercionPorLotes;
+    private final AtomicLong secuencia = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        entityManager = mock(EntityManager.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        insercionPorLotes = new InsercionPorLotes(transactionManager, 2);
+        ReflectionTestUtils.setField(insercionPorLotes, "entityManager", entityManager);
+        doAnswer(invocation -> {
+            Contenido contenido = invocation.getArgument(0);
+            contenido.setId(secuencia.incrementAndGet());
+            return null;
+        }).when(entityManager).persist(any(Contenido.class));
+    }
+
+    private List<Contenido> contenidos(int cantidad) {
+        List<Contenido> lista = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(new Contenido(null, "Contenido " + i, "Video", "url" + i, "desc", 0L));
+        }
+        return lista;
+    }
+
+    @Test
+    public void testInsertaEnChunksConUnaTransaccionPorChunk() {
+        List<ResultadoLote> resultados = insercionPorLotes.insertar(contenidos(5), Contenido::getId, Contenido::setId);
+
+        assertEquals(5, resultados.size());
+        assertTrue(resultados.stream().allMatch(ResultadoLote::exitoso));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), resultados.stream().map(ResultadoLote::id).toList());
+        verify(transactionManager, times(3)).commit(any());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    public void testChunkFallidoSeReintentaFilaPorFila() {
+        List<Contenido> lista = contenidos(3);
+        Contenido invalido = lista.get(1);
+        doAnswer(invocation -> {
+            Contenido contenido = invocation.getArgument(0);
+            contenido.setId(secuencia.incrementAndGet());
+            if (contenido == invalido) {
+                throw new PersistenceException("titulo duplicado");
+            }
+            return null;
+        }).when(entityManager).persist(any(Contenido.class));
+
+        List<ResultadoLote> resultados = insercionPorLotes.insertar(lista, Contenido::getId, Contenido::setId);
+
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).exitoso());
+        assertFalse(resultados.get(1).exitoso());
+        assertEquals("titulo duplicado", resultados.get(1).error());
+        assertNull(invalido.getId());
+        assertTrue(resultados.get(2).exitoso());
+        assertEquals(1, resultados.get(1).indice());
+    }
+
+    @Test
+    public void testElementoVacioSeInformaComoFallo() {
+        List<Contenido> lista = new ArrayList<>(contenidos(1));
+        lista.add(null);
+        doThrow(new IllegalArgumentException("entidad nula")).when(entityManager).persist(null);
+
+        List<ResultadoLote> resultados = insercionPorLotes.insertar(lista, Contenido::getId, Contenido::setId);
+
+        assertTrue(resultados.get(0).exitoso());
+        assertEquals("Elemento vacío", resultados.get(1).error());
+    }
+}
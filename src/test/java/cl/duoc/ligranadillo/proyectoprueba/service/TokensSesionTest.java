@@ -0,0 +1,103 @@
+package cl.duoc.ligranadillo.proyectoprueba.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokensSesionTest {
+
+    private static final String ANTERIOR = "v1:" + secreto(1);
+    private static final String NUEVA = "v2:" + secreto(2);
+
+    private final AtomicLong reloj = new AtomicLong(1_700_000_000_000L);
+
+    private TokensSesion tokens(String claves) {
+        return new TokensSesion(claves, Duration.ofHours(1), reloj::get);
+    }
+
+    private static String secreto(int semilla) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, (byte) semilla);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    @Test
+    public void testValidaElTokenEmitido() {
+        TokensSesion tokens = tokens(ANTERIOR);
+
+        TokenSesion token = tokens.emitir(42L);
+
+        assertEquals(OptionalLong.of(42L), tokens.validar(token.token()));
+        assertEquals(3600, token.expiraEn());
+        assertTrue(token.token().startsWith("v1."));
+    }
+
+    @Test
+    public void testRechazaElTokenVencido() {
+        TokensSesion tokens = tokens(ANTERIOR);
+        String token = tokens.emitir(42L).token();
+
+        reloj.addAndGet(Duration.ofHours(1).toMillis());
+
+        assertTrue(tokens.validar(token).isEmpty());
+    }
+
+    @Test
+    public void testRechazaDatosOFirmaModificados() {
+        TokensSesion tokens = tokens(ANTERIOR);
+        String token = tokens.emitir(42L).token();
+        String[] partes = token.split("\\.");
+        String otroUsuario = tokens.emitir(43L).token().split("\\.")[1];
+
+        assertTrue(tokens.validar(partes[0] + "." + otroUsuario + "." + partes[2]).isEmpty());
+        String otraFirma = (partes[2].charAt(0) == 'A' ? "B" : "A") + partes[2].substring(1);
+        assertTrue(tokens.validar(partes[0] + "." + partes[1] + "." + otraFirma).isEmpty());
+        assertTrue(tokens.validar(token + ".extra").isEmpty());
+        assertTrue(tokens.validar("v1.no-es-base64!.firma").isEmpty());
+        assertTrue(tokens.validar("sin-puntos").isEmpty());
+        assertTrue(tokens.validar(null).isEmpty());
+    }
+
+    @Test
+    public void testRotacionAceptaLaClaveAnteriorYFirmaConLaNueva() {
+        String firmadoAntes = tokens(ANTERIOR).emitir(42L).token();
+        TokensSesion rotadas = tokens(NUEVA + "," + ANTERIOR);
+
+        assertEquals(OptionalLong.of(42L), rotadas.validar(firmadoAntes));
+        assertTrue(rotadas.emitir(42L).token().startsWith("v2."));
+        assertTrue(tokens(NUEVA).validar(firmadoAntes).isEmpty());
+    }
+
+    @Test
+    public void testRechazaUnaFirmaDeOtraClaveConElMismoId() {
+        String token = tokens("v1:" + secreto(3)).emitir(42L).token();
+
+        assertTrue(tokens(ANTERIOR).validar(token).isEmpty());
+    }
+
+    @Test
+    public void testSinClavesGeneraUnaLocal() {
+        TokensSesion tokens = tokens("");
+
+        String token = tokens.emitir(42L).token();
+
+        assertTrue(token.startsWith("local."));
+        assertEquals(OptionalLong.of(42L), tokens.validar(token));
+        assertTrue(tokens("").validar(token).isEmpty());
+    }
+
+    @Test
+    public void testRechazaClavesCortasOMalFormadas() {
+        String corta = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class, () -> tokens("v1:" + corta));
+        assertThrows(IllegalArgumentException.class, () -> tokens(secreto(1)));
+        assertThrows(IllegalArgumentException.class, () -> tokens(ANTERIOR + "," + ANTERIOR));
+    }
+}
@@ -2,23 +2,47 @@ package cl.duoc.ligranadillo.proyectoprueba.service;
 
 import cl.duoc.ligranadillo.proyectoprueba.model.User;
 import cl.duoc.ligranadillo.proyectoprueba.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class UserServiceTest {
 
+    private static final Contrasenas CONTRASENAS = new Contrasenas(4, 1, 10, new SimpleMeterRegistry());
+
+    private static CacheLocal<User> nuevaCache() {
+        return new CacheLocal<>("users", 100, Duration.ofMinutes(1));
+    }
+
+    // Antes de construirse el filtro no descarta ningún correo
+    private static FiltroCorreos filtroSinConstruir() {
+        return nuevoFiltro(Mockito.mock(UserRepository.class));
+    }
+
+    private static FiltroCorreos nuevoFiltro(UserRepository repoMock) {
+        return new FiltroCorreos(repoMock, Mockito.mock(PlatformTransactionManager.class),
+                100, 0.01, Duration.ZERO, new SimpleMeterRegistry());
+    }
+
     @Test
     public void testGuardarUsuario() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
-        User user = new User(null, "Juan Pérez", "juanito", "pass123", "juanito@mail.com", false);
-        User userGuardado = new User(1L, "Juan Pérez", "juanito", "pass123", "juanito@mail.com", false);
+        User user = new User(null, "Juan Pérez", "juanito", "pass123", "juanito@mail.com", false, 0L);
+        User userGuardado = new User(1L, "Juan Pérez", "juanito", "pass123", "juanito@mail.com", false, 0L);
 
         Mockito.when(repoMock.save(user)).thenReturn(userGuardado);
 
@@ -26,16 +50,18 @@ public class UserServiceTest {
 
         Assertions.assertNotNull(result.getId());
         Assertions.assertEquals("juanito", result.getUsername());
+        Assertions.assertNotEquals("pass123", user.getPassword());
+        Assertions.assertTrue(CONTRASENAS.verificar("pass123", user.getPassword()));
     }
 
     @Test
     public void testObtenerUsuarios() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
         List<User> users = Arrays.asList(
-                new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false),
-                new User(2L, "Juan Pérez","ana", "abcd", "ana@mail.com", true)
+                new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false, 0L),
+                new User(2L, "Juan Pérez","ana", "abcd", "ana@mail.com", true, 0L)
         );
         Mockito.when(repoMock.findAll()).thenReturn(users);
 
@@ -44,12 +70,43 @@ public class UserServiceTest {
         Assertions.assertEquals(2, result.size());
     }
 
+    @Test
+    public void testObtenerUsuariosPaginados() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
+
+        Mockito.when(repoMock.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(11))).thenReturn(List.of(
+                new User(6L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false, 0L)));
+
+        Pagina<User> pagina = service.obtenerUsers(Pagina.codificarCursor(5L), 10);
+
+        Assertions.assertEquals(1, pagina.data().size());
+        Assertions.assertNull(pagina.next());
+    }
+
+    @Test
+    public void testExportarUsuariosDesacoplaCadaFila() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        EntityManager entityManager = Mockito.mock(EntityManager.class);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+
+        User user = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false, 0L);
+        Mockito.when(repoMock.streamAllByOrderByIdAsc()).thenReturn(Stream.of(user));
+
+        List<User> emitidos = new ArrayList<>();
+        service.exportarUsers(emitidos::add);
+
+        Assertions.assertEquals(List.of(user), emitidos);
+        Mockito.verify(entityManager).detach(user);
+    }
+
     @Test
     public void testObtenerUsuarioPorIdExiste() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
-        User user = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false);
+        User user = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false, 0L);
         Mockito.when(repoMock.findById(1L)).thenReturn(Optional.of(user));
 
         Optional<User> result = service.obtenerUserPorId(1L);
@@ -58,10 +115,25 @@ public class UserServiceTest {
         Assertions.assertEquals("juanito", result.get().getUsername());
     }
 
+    @Test
+    public void testObtenerUsuarioPorIdUsaCache() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
+
+        User user = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false, 0L);
+        Mockito.when(repoMock.findById(1L)).thenReturn(Optional.of(user));
+
+        service.obtenerUserPorId(1L);
+        Optional<User> result = service.obtenerUserPorId(1L);
+
+        Assertions.assertEquals("juanito", result.get().getUsername());
+        Mockito.verify(repoMock, Mockito.times(1)).findById(1L);
+    }
+
     @Test
     public void testObtenerUsuarioPorIdNoExiste() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
         Mockito.when(repoMock.findById(99L)).thenReturn(Optional.empty());
 
@@ -73,10 +145,10 @@ public class UserServiceTest {
     @Test
     public void testActualizarUsuarioExiste() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
-        User userExistente = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false);
-        User userActualizado = new User(null, "Juan Gonzalez","juanito", "newpass", "juanito2@mail.com", true);
+        User userExistente = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false, 0L);
+        User userActualizado = new User(null, "Juan Gonzalez","juanito", "newpass", "juanito2@mail.com", true, 0L);
 
         Mockito.when(repoMock.findById(1L)).thenReturn(Optional.of(userExistente));
         Mockito.when(repoMock.save(Mockito.any(User.class))).thenAnswer(i -> i.getArguments()[0]);
@@ -84,16 +156,34 @@ public class UserServiceTest {
         Optional<User> result = service.actualizarUser(1L, userActualizado);
 
         Assertions.assertEquals("juanito", result.get().getUsername());
-        Assertions.assertEquals("newpass", result.get().getPassword());
+        Assertions.assertTrue(CONTRASENAS.verificar("newpass", result.get().getPassword()));
         Assertions.assertEquals("juanito2@mail.com", result.get().getEmail());
         Assertions.assertTrue(result.get().isValidated());
 
     }
 
+    @Test
+    public void testActualizarUsuarioSinPasswordConservaLaContrasena() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
+
+        User userExistente = new User(1L, "Juan Pérez", "juanito", CONTRASENAS.codificar("pass123"), "juanito@mail.com", false, 0L);
+        // Lo que envía un cliente que hizo GET y luego PUT: el GET no trae la contraseña
+        User userActualizado = new User(null, "Juan Gonzalez", "juanito", null, "juanito@mail.com", true, 0L);
+        Mockito.when(repoMock.findById(1L)).thenReturn(Optional.of(userExistente));
+        Mockito.when(repoMock.save(Mockito.any(User.class))).thenAnswer(i -> i.getArguments()[0]);
+        Mockito.when(repoMock.findByEmail("juanito@mail.com")).thenReturn(Optional.of(userExistente));
+
+        service.actualizarUser(1L, userActualizado);
+
+        Assertions.assertEquals("Juan Gonzalez", userExistente.getNombre());
+        Assertions.assertTrue(service.login("juanito@mail.com", "pass123").join().isPresent());
+    }
+
     @Test
     public void testActualizarUsuarioNoExiste() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
         Mockito.when(repoMock.findById(99L)).thenReturn(Optional.empty());
 
@@ -105,38 +195,37 @@ public class UserServiceTest {
     @Test
     public void testEliminarUsuarioExiste() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
-        Mockito.when(repoMock.existsById(1L)).thenReturn(true);
+        Mockito.when(repoMock.eliminarPorId(1L)).thenReturn(1);
 
         boolean eliminado = service.eliminarUser(1L);
 
         Assertions.assertTrue(eliminado);
-        Mockito.verify(repoMock).deleteById(1L);
+        Mockito.verify(repoMock, Mockito.never()).deleteById(1L);
     }
 
     @Test
     public void testEliminarUsuarioNoExiste() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
-        Mockito.when(repoMock.existsById(99L)).thenReturn(false);
+        Mockito.when(repoMock.eliminarPorId(99L)).thenReturn(0);
 
         boolean eliminado = service.eliminarUser(99L);
 
         Assertions.assertFalse(eliminado);
-        Mockito.verify(repoMock, Mockito.never()).deleteById(99L);
     }
 
     @Test
     public void testLoginExitoso() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
-        User user = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false);
+        User user = new User(1L, "Juan Pérez","juanito", "pass123", "juanito@mail.com", false, 0L);
         Mockito.when(repoMock.findByEmail("juanito@mail.com")).thenReturn(Optional.of(user));
 
-        Optional<User> result = service.login("juanito@mail.com", "pass123");
+        Optional<User> result = service.login("juanito@mail.com", "pass123").join();
 
         Assertions.assertTrue(result.isPresent());
         Assertions.assertEquals("juanito", result.get().getUsername());
@@ -145,12 +234,12 @@ public class UserServiceTest {
     @Test
     public void testLoginFallidoPorPasswordIncorrecta() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
-        User user = new User(2L, "Ana Pérez","ana", "abcd", "ana@mail.com", true);
+        User user = new User(2L, "Ana Pérez","ana", "abcd", "ana@mail.com", true, 0L);
         Mockito.when(repoMock.findByEmail("ana@mail.com")).thenReturn(Optional.of(user));
 
-        Optional<User> result = service.login("ana@mail.com", "wrong");
+        Optional<User> result = service.login("ana@mail.com", "wrong").join();
 
         Assertions.assertTrue(result.isEmpty());
     }
@@ -158,12 +247,88 @@ public class UserServiceTest {
     @Test
     public void testLoginFallidoUsuarioNoExiste() {
         UserRepository repoMock = Mockito.mock(UserRepository.class);
-        UserService service = new UserService(repoMock);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
 
         Mockito.when(repoMock.findByEmail("noexiste@mail.com")).thenReturn(Optional.empty());
 
-        Optional<User> result = service.login("noexiste@mail.com", "any");
+        Optional<User> result = service.login("noexiste@mail.com", "any").join();
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void testLoginConCorreoDescartadoPorElFiltroNoConsultaLaBase() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        Mockito.when(repoMock.streamEmails()).thenReturn(Stream.of("juanito@mail.com"));
+        FiltroCorreos filtro = nuevoFiltro(repoMock);
+        filtro.reconstruir();
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtro);
+
+        Optional<User> result = service.login("noexiste@mail.com", "any").join();
 
         Assertions.assertTrue(result.isEmpty());
+        Mockito.verify(repoMock, Mockito.never()).findByEmail(Mockito.anyString());
+    }
+
+    @Test
+    public void testGuardarUsuarioLoAgregaAlFiltro() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        Mockito.when(repoMock.streamEmails()).thenReturn(Stream.empty());
+        FiltroCorreos filtro = nuevoFiltro(repoMock);
+        filtro.reconstruir();
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtro);
+        User user = new User(null, "Juan Pérez", "juanito", "pass123", "juanito@mail.com", false, 0L);
+        Mockito.when(repoMock.save(user)).thenReturn(new User(1L, "Juan Pérez", "juanito", "hash", "juanito@mail.com", false, 0L));
+
+        service.guardarUser(user);
+
+        Assertions.assertTrue(filtro.puedeExistir("juanito@mail.com"));
+    }
+
+    @Test
+    public void testLoginReemplazaContrasenaEnTextoPlano() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
+
+        User user = new User(1L, "Juan Pérez", "juanito", "pass123", "juanito@mail.com", false, 0L);
+        Mockito.when(repoMock.findByEmail("juanito@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(repoMock.actualizarPassword(Mockito.eq(1L), Mockito.eq("pass123"), Mockito.anyString())).thenReturn(1);
+
+        Optional<User> result = service.login("juanito@mail.com", "pass123").join();
+
+        Assertions.assertTrue(result.isPresent());
+        Mockito.verify(repoMock).actualizarPassword(1L, "pass123", result.get().getPassword());
+        Assertions.assertTrue(CONTRASENAS.verificar("pass123", result.get().getPassword()));
+        Assertions.assertFalse(CONTRASENAS.requiereActualizar(result.get().getPassword()));
+    }
+
+    @Test
+    public void testLoginConHashNoLoReemplaza() {
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), CONTRASENAS, filtroSinConstruir());
+
+        User user = new User(1L, "Juan Pérez", "juanito", CONTRASENAS.codificar("pass123"), "juanito@mail.com", false, 0L);
+        Mockito.when(repoMock.findByEmail("juanito@mail.com")).thenReturn(Optional.of(user));
+
+        Assertions.assertTrue(service.login("juanito@mail.com", "pass123").join().isPresent());
+        Assertions.assertTrue(service.login("juanito@mail.com", "otra").join().isEmpty());
+        Mockito.verify(repoMock, Mockito.never()).actualizarPassword(Mockito.anyLong(), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testLoginConCostoMenorReemplazaElHash() {
+        Contrasenas costoMayor = new Contrasenas(5, 1, 10, new SimpleMeterRegistry());
+        UserRepository repoMock = Mockito.mock(UserRepository.class);
+        UserService service = new UserService(repoMock, nuevaCache(), Mockito.mock(InsercionPorLotes.class), costoMayor, filtroSinConstruir());
+
+        String hashAnterior = CONTRASENAS.codificar("pass123");
+        User user = new User(1L, "Juan Pérez", "juanito", hashAnterior, "juanito@mail.com", false, 0L);
+        Mockito.when(repoMock.findByEmail("juanito@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(repoMock.actualizarPassword(Mockito.eq(1L), Mockito.eq(hashAnterior), Mockito.anyString())).thenReturn(1);
+
+        Optional<User> result = service.login("juanito@mail.com", "pass123").join();
+
+        Assertions.assertTrue(result.get().getPassword().startsWith("$2a$05$"));
+        costoMayor.detener();
     }
 }